@@ -0,0 +1,247 @@
+package com.trials.crdb.app.cache;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.events.TicketChangedEvent;
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.repositories.TicketRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Result cache for the dashboard aggregates on {@link TicketRepository}.
+ *
+ * Entries are keyed by aggregate and arguments. Committed ticket writes mark only the entries
+ * whose project and inputs were touched as stale. A stale entry is recomputed in the
+ * background; callers wait up to {@code refresh-wait} for it and otherwise get the previous
+ * value (stale-while-revalidate), so a slow database doesn't stall dashboard refreshes.
+ */
+@Component
+public class DashboardAggregateCache {
+
+    enum Aggregate {
+        COUNT_BY_PRIORITY(Set.of("priority")),
+        COUNT_BY_STATUS(Set.of("status")),
+        COUNT_BY_PROJECT_AND_STATUS(Set.of("status", "project")),
+        PROJECT_ESTIMATION_STATISTICS(Set.of("estimatedHours", "project"));
+
+        // Ticket properties the aggregate reads - updates touching none of them keep the entry fresh
+        private final Set<String> inputs;
+
+        Aggregate(Set<String> inputs) {
+            this.inputs = inputs;
+        }
+    }
+
+    // projectId is null for aggregates over all tickets, arguments may hold nulls as well
+    record Key(Aggregate aggregate, Long projectId, List<Object> arguments) {
+
+        boolean affectedBy(TicketChangedEvent event) {
+            if (!event.changedAny(aggregate.inputs)) {
+                return false;
+            }
+            return projectId == null
+                || projectId.equals(event.projectId())
+                || projectId.equals(event.previousProjectId());
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong generation = new AtomicLong();
+        private volatile Object value;
+        private volatile boolean hasValue;
+        private volatile long valueGeneration = -1;
+        private volatile long computedAtNanos;
+        private volatile long staleSinceNanos;
+        private CompletableFuture<Object> inFlight;
+
+        boolean isFresh(long now, long maxAgeNanos) {
+            return hasValue && valueGeneration == generation.get() && now - computedAtNanos < maxAgeNanos;
+        }
+
+        void invalidate(long now) {
+            if (valueGeneration == generation.get()) {
+                staleSinceNanos = now;
+            }
+            generation.incrementAndGet();
+        }
+    }
+
+    private final TicketRepository ticketRepository;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final long maxAgeNanos;
+    private final long refreshWaitMillis;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter staleServed;
+    private final Timer staleness;
+
+    public DashboardAggregateCache(TicketRepository ticketRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard-cache.max-age:5m}") Duration maxAge,
+            @Value("${app.dashboard-cache.refresh-wait:200ms}") Duration refreshWait) {
+        this.ticketRepository = ticketRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.refreshWaitMillis = refreshWait.toMillis();
+
+        this.hits = Counter.builder("dashboard.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("dashboard.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.staleServed = Counter.builder("dashboard.cache.requests").tag("result", "stale").register(meterRegistry);
+        this.staleness = Timer.builder("dashboard.cache.staleness")
+            .description("Age of stale values served while a recompute was pending")
+            .register(meterRegistry);
+        Gauge.builder("dashboard.cache.hit.ratio", this, DashboardAggregateCache::hitRatio).register(meterRegistry);
+        Gauge.builder("dashboard.cache.entries", entries, Map::size).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    // Cached counterparts of the TicketRepository aggregates - returned values are shared, don't modify them
+
+    public List<Object[]> countByPriority() {
+        return get(new Key(Aggregate.COUNT_BY_PRIORITY, null, List.of()),
+            ticketRepository::countByPriority);
+    }
+
+    public Long countByStatus(Ticket.TicketStatus status) {
+        return get(new Key(Aggregate.COUNT_BY_STATUS, null, Collections.singletonList(status)),
+            () -> ticketRepository.countByStatus(status));
+    }
+
+    public Long countByProjectAndStatus(Project project, Ticket.TicketStatus status) {
+        return get(new Key(Aggregate.COUNT_BY_PROJECT_AND_STATUS, project.getId(), Collections.singletonList(status)),
+            () -> ticketRepository.countByProjectAndStatus(project, status));
+    }
+
+    public Map<String, Object> calculateProjectEstimationStatistics(Long projectId) {
+        return get(new Key(Aggregate.PROJECT_ESTIMATION_STATISTICS, projectId, List.of()),
+            () -> ticketRepository.calculateProjectEstimationStatistics(projectId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        long now = System.nanoTime();
+        entries.forEach((key, entry) -> {
+            if (key.affectedBy(event)) {
+                entry.invalidate(now);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        long now = System.nanoTime();
+        entries.values().forEach(entry -> entry.invalidate(now));
+    }
+
+    public double hitRatio() {
+        double served = hits.count() + staleServed.count();
+        double total = served + misses.count();
+        return total == 0 ? 0.0 : served / total;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(Key key, Supplier<T> loader) {
+        Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+        long now = System.nanoTime();
+        if (entry.isFresh(now, maxAgeNanos)) {
+            hits.increment();
+            return (T) entry.value;
+        }
+
+        CompletableFuture<Object> refresh = refresh(key, entry, loader);
+        if (!entry.hasValue) {
+            misses.increment();
+            return (T) join(refresh);
+        }
+        try {
+            Object value = refresh.get(refreshWaitMillis, TimeUnit.MILLISECONDS);
+            misses.increment();
+            return (T) value;
+        } catch (TimeoutException | ExecutionException e) {
+            // Database slow or failing - keep serving the last good value
+            staleServed.increment();
+            staleness.record(System.nanoTime() - entry.staleSinceNanos, TimeUnit.NANOSECONDS);
+            return (T) entry.value;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return (T) entry.value;
+        }
+    }
+
+    private CompletableFuture<Object> refresh(Key key, Entry entry, Supplier<?> loader) {
+        synchronized (entry) {
+            if (entry.inFlight != null) {
+                return entry.inFlight;
+            }
+            long generation = entry.generation.get();
+            Timer recompute = Timer.builder("dashboard.cache.recompute")
+                .tag("aggregate", key.aggregate().name())
+                .register(meterRegistry);
+            // Published before the load starts - a load that completes at once clears it again
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            entry.inFlight = future;
+            CompletableFuture
+                .<Object>supplyAsync(() -> recompute.record(loader::get), refreshExecutor)
+                .whenComplete((value, failure) -> {
+                    synchronized (entry) {
+                        if (entry.inFlight == future) {
+                            entry.inFlight = null;
+                        }
+                        if (failure == null) {
+                            entry.value = value;
+                            entry.computedAtNanos = System.nanoTime();
+                            // A write that committed meanwhile leaves the entry stale for the next read
+                            entry.valueGeneration = generation;
+                            entry.hasValue = true;
+                        }
+                    }
+                    if (failure == null) {
+                        future.complete(value);
+                    } else {
+                        future.completeExceptionally(failure);
+                    }
+                });
+            return future;
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.trials.crdb.app.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Half-open {@code [start, end)} periods keyed by id - one project's sprints, one user's work
+ * logs - in an AVL tree ordered by {@code (start, id)}, each node carrying the largest end in
+ * its subtree. Overlap queries skip
+ * every subtree that ends before the probe or starts after it, so they cost O(log n + k).
+ *
+ * Not thread safe on its own - callers serialise access.
+ */
+public final class IntervalTree {
+
+    private static final class Node {
+        final long id;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(long id, long start, long end) {
+            this.id = id;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node root;
+    private final Map<Long, long[]> periods = new HashMap<>();
+
+    /** Adds or moves a period. */
+    public void put(long id, long start, long end) {
+        remove(id);
+        root = insert(root, new Node(id, start, end));
+        periods.put(id, new long[] {start, end});
+    }
+
+    public boolean remove(long id) {
+        long[] period = periods.remove(id);
+        if (period == null) {
+            return false;
+        }
+        root = delete(root, period[0], id);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return periods.containsKey(id);
+    }
+
+    public int size() {
+        return periods.size();
+    }
+
+    /** Ids of the periods overlapping {@code [start, end)}, by start. */
+    public long[] overlapping(long start, long end) {
+        Matches matches = new Matches();
+        collect(root, start, end, matches);
+        return Arrays.copyOf(matches.ids, matches.count);
+    }
+
+    private static final class Matches {
+        long[] ids = new long[4];
+        int count;
+
+        void add(long id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count++] = id;
+        }
+    }
+
+    private static void collect(Node node, long start, long end, Matches matches) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, matches);
+        // The right subtree starts even later
+        if (node.start >= end) {
+            return;
+        }
+        if (node.end > start) {
+            matches.add(node.id);
+        }
+        collect(node.right, start, end, matches);
+    }
+
+    private static int compare(long start, long id, Node node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(id, node.id);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, long start, long id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            return balance(successor);
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+}
@@ -0,0 +1,215 @@
+package com.trials.crdb.app.cache;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.sql.DataSource;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.model.UserProjectRole;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the reference entity regions consistent across application nodes.
+ *
+ * Committed writes to Project, User and UserProjectRole are announced with pg_notify; every
+ * node LISTENs on the same channel and evicts the entity, its natural-id entry and the cached
+ * query results. Postgres only - CockroachDB and Spanner don't implement LISTEN/NOTIFY.
+ */
+@Component
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true")
+public class ReferenceCacheInvalidationChannel implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceCacheInvalidationChannel.class);
+
+    private static final Set<Class<?>> CACHED_TYPES = Set.of(Project.class, User.class, UserProjectRole.class);
+    private static final int POLL_MILLIS = 250;
+    private static final long RECONNECT_MILLIS = 5_000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outbox = new LinkedBlockingQueue<>();
+
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SessionFactory sessionFactory;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public ReferenceCacheInvalidationChannel(DataSource dataSource,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${app.cache.invalidation.channel:reference_cache}") String channel) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.channel = channel;
+    }
+
+    @PostConstruct
+    void start() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COMMIT_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COMMIT_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COMMIT_DELETE, this);
+
+        running = true;
+        worker = new Thread(this::run, "reference-cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.join(RECONNECT_MILLIS);
+        }
+    }
+
+    // Hibernate callbacks - run after commit, so only queue the message here
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        announce(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        announce(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        announce(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return CACHED_TYPES.contains(persister.getMappedClass());
+    }
+
+    private void announce(Object entity, Object id) {
+        if (CACHED_TYPES.contains(entity.getClass())) {
+            outbox.add(nodeId + "|" + entity.getClass().getName() + "|" + id);
+        }
+    }
+
+    // Worker - owns a single connection that both publishes and listens
+
+    private void run() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    publishPending(connection);
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Cache invalidation channel '{}' lost its connection, retrying", channel, e);
+                // Remote writes may have been missed while disconnected
+                evictReferenceRegions();
+                sleepQuietly(RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    private void publishPending(Connection connection) throws SQLException {
+        if (outbox.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            String payload;
+            while ((payload = outbox.poll()) != null) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                statement.execute();
+            }
+        }
+    }
+
+    void handle(String payload) {
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        Cache cache = sessionFactory.getCache();
+        try {
+            Class<?> type = Class.forName(parts[1]);
+            cache.evictEntityData(type, Long.valueOf(parts[2]));
+            cache.evictNaturalIdData(type);
+        } catch (ClassNotFoundException | NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation '{}'", payload);
+            return;
+        }
+        // Cached finder results may now point at the wrong rows
+        cache.evictDefaultQueryRegion();
+    }
+
+    private void evictReferenceRegions() {
+        Cache cache = sessionFactory.getCache();
+        for (Class<?> type : CACHED_TYPES) {
+            cache.evictEntityData(type);
+            cache.evictNaturalIdData(type);
+        }
+        cache.evictDefaultQueryRegion();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
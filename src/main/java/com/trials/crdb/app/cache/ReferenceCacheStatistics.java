@@ -0,0 +1,71 @@
+package com.trials.crdb.app.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.model.UserProjectRole;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hit/miss figures for the reference entity regions of the second-level cache.
+ * Requires {@code hibernate.generate_statistics=true}; reports nothing while the cache is disabled.
+ */
+@Component
+public class ReferenceCacheStatistics {
+
+    public static final List<String> REGIONS = List.of(
+        Project.CACHE_REGION, User.CACHE_REGION, UserProjectRole.CACHE_REGION);
+
+    public record RegionStatistics(long hits, long misses, long puts, long elementsInMemory) {
+
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+
+    private final SessionFactory sessionFactory;
+
+    public ReferenceCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public boolean isEnabled() {
+        return sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()
+            && sessionFactory.getStatistics().isStatisticsEnabled();
+    }
+
+    public Map<String, RegionStatistics> snapshot() {
+        Map<String, RegionStatistics> result = new LinkedHashMap<>();
+        if (!isEnabled()) {
+            return result;
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        for (String region : REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+            result.put(region, new RegionStatistics(
+                regionStatistics.getHitCount(),
+                regionStatistics.getMissCount(),
+                regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory()));
+        }
+        return result;
+    }
+
+    public long getQueryCacheHitCount() {
+        return isEnabled() ? sessionFactory.getStatistics().getQueryCacheHitCount() : 0;
+    }
+
+    public long getQueryCacheMissCount() {
+        return isEnabled() ? sessionFactory.getStatistics().getQueryCacheMissCount() : 0;
+    }
+}
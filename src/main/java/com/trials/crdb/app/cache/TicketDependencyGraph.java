@@ -0,0 +1,378 @@
+package com.trials.crdb.app.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Adjacency index of the {@code dependent_on_id} edges. A ticket depends on at most one other
+ * ticket, so the graph is a forest: every node has one parent slot and an intrusive, doubly
+ * linked list of children. Nodes live in parallel primitive arrays addressed through an
+ * open-addressing {@code long -> int} table; tickets without edges aren't stored at all.
+ *
+ * Ancestors are the tickets a ticket (transitively) depends on, nearest first; descendants are
+ * the tickets that (transitively) depend on it. Walks are bounded by the node count, so a cycle
+ * that slipped in through concurrent commits can't loop forever.
+ */
+public final class TicketDependencyGraph {
+
+    /** Parent id meaning "depends on nothing". Ticket ids are always positive. */
+    public static final long NONE = 0L;
+
+    private static final int NIL = -1;
+    private static final int FREE = -2;     // parent slot of a released node
+    private static final long[] EMPTY = new long[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // id -> node table, linear probing, load factor <= 0.5
+    private long[] tableKeys;
+    private int[] tableNodes;
+    private int mask;
+
+    // Node columns
+    private long[] ids;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] prevSibling;
+    private int nodes;
+    private int liveNodes;
+    private int freeHead = NIL;         // free nodes chained through nextSibling
+    private int edges;
+
+    public TicketDependencyGraph(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    public TicketDependencyGraph() {
+        this(1024);
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        prevSibling = new int[capacity];
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        tableKeys = new long[tableSize];
+        tableNodes = new int[tableSize];
+        mask = tableSize - 1;
+        nodes = 0;
+        liveNodes = 0;
+        freeHead = NIL;
+        edges = 0;
+    }
+
+    // Writers
+
+    /** Records that {@code ticketId} depends on {@code parentId}, or on nothing for {@link #NONE}. */
+    public void setParent(long ticketId, long parentId) {
+        lock.writeLock().lock();
+        try {
+            int node = find(ticketId);
+            if (node != NIL && parent[node] != NIL) {
+                if (ids[parent[node]] == parentId) {
+                    return;
+                }
+                detach(node);
+            }
+            if (parentId != NONE) {
+                if (node == NIL) {
+                    node = insert(ticketId);
+                }
+                attach(node, findOrInsert(parentId));
+            } else if (node != NIL) {
+                releaseIfIsolated(node);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a deleted ticket together with its own edge and any edges pointing at it. */
+    public void remove(long ticketId) {
+        lock.writeLock().lock();
+        try {
+            int node = find(ticketId);
+            if (node == NIL) {
+                return;
+            }
+            if (parent[node] != NIL) {
+                detach(node);
+            }
+            while (firstChild[node] != NIL) {
+                int child = firstChild[node];
+                detach(child);
+                releaseIfIsolated(child);
+            }
+            releaseIfIsolated(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(tableKeys, NONE);
+            nodes = 0;
+            liveNodes = 0;
+            freeHead = NIL;
+            edges = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Readers
+
+    public long parentOf(long ticketId) {
+        lock.readLock().lock();
+        try {
+            int node = find(ticketId);
+            return node == NIL || parent[node] == NIL ? NONE : ids[parent[node]];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tickets {@code ticketId} depends on, directly first. */
+    public long[] ancestors(long ticketId) {
+        lock.readLock().lock();
+        try {
+            int node = find(ticketId);
+            if (node == NIL) {
+                return EMPTY;
+            }
+            long[] result = new long[8];
+            int count = 0;
+            for (int current = parent[node]; current != NIL && count < liveNodes; current = parent[current]) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, count * 2);
+                }
+                result[count++] = ids[current];
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Tickets that depend on {@code ticketId}, breadth first. */
+    public long[] descendants(long ticketId) {
+        lock.readLock().lock();
+        try {
+            int node = find(ticketId);
+            if (node == NIL) {
+                return EMPTY;
+            }
+            int[] queue = new int[8];
+            int head = 0;
+            int tail = 0;
+            for (int child = firstChild[node]; child != NIL && tail < liveNodes; child = nextSibling[child]) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, tail * 2);
+                }
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                int current = queue[head++];
+                for (int child = firstChild[current]; child != NIL && tail < liveNodes; child = nextSibling[child]) {
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = child;
+                }
+            }
+            long[] result = new long[tail];
+            for (int i = 0; i < tail; i++) {
+                result[i] = ids[queue[i]];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Length of the chain of tickets {@code ticketId} depends on; 0 when it depends on nothing. */
+    public int depth(long ticketId) {
+        lock.readLock().lock();
+        try {
+            int node = find(ticketId);
+            if (node == NIL) {
+                return 0;
+            }
+            int depth = 0;
+            for (int current = parent[node]; current != NIL && depth < liveNodes; current = parent[current]) {
+                depth++;
+            }
+            return depth;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Whether making {@code ticketId} depend on {@code parentId} would close a cycle. */
+    public boolean wouldCreateCycle(long ticketId, long parentId) {
+        if (parentId == NONE) {
+            return false;
+        }
+        if (parentId == ticketId) {
+            return true;
+        }
+        lock.readLock().lock();
+        try {
+            int node = find(parentId);
+            for (int steps = 0; node != NIL && steps <= liveNodes; steps++) {
+                if (ids[node] == ticketId) {
+                    return true;
+                }
+                node = parent[node];
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of dependency edges. */
+    public int edgeCount() {
+        lock.readLock().lock();
+        try {
+            return edges;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Node list maintenance - callers hold the write lock
+
+    private void attach(int node, int parentNode) {
+        parent[node] = parentNode;
+        prevSibling[node] = NIL;
+        nextSibling[node] = firstChild[parentNode];
+        if (firstChild[parentNode] != NIL) {
+            prevSibling[firstChild[parentNode]] = node;
+        }
+        firstChild[parentNode] = node;
+        edges++;
+    }
+
+    private void detach(int node) {
+        int parentNode = parent[node];
+        if (prevSibling[node] != NIL) {
+            nextSibling[prevSibling[node]] = nextSibling[node];
+        } else {
+            firstChild[parentNode] = nextSibling[node];
+        }
+        if (nextSibling[node] != NIL) {
+            prevSibling[nextSibling[node]] = prevSibling[node];
+        }
+        parent[node] = NIL;
+        nextSibling[node] = NIL;
+        prevSibling[node] = NIL;
+        edges--;
+        releaseIfIsolated(parentNode);
+    }
+
+    private void releaseIfIsolated(int node) {
+        if (parent[node] != NIL || firstChild[node] != NIL) {
+            return;
+        }
+        delete(ids[node]);
+        parent[node] = FREE;
+        nextSibling[node] = freeHead;
+        freeHead = node;
+        liveNodes--;
+    }
+
+    private int findOrInsert(long ticketId) {
+        int node = find(ticketId);
+        return node != NIL ? node : insert(ticketId);
+    }
+
+    private int insert(long ticketId) {
+        int node;
+        if (freeHead != NIL) {
+            node = freeHead;
+            freeHead = nextSibling[node];
+        } else {
+            if (nodes == ids.length) {
+                grow();
+            }
+            node = nodes++;
+        }
+        ids[node] = ticketId;
+        parent[node] = NIL;
+        firstChild[node] = NIL;
+        nextSibling[node] = NIL;
+        prevSibling[node] = NIL;
+        liveNodes++;
+        put(ticketId, node);
+        return node;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        prevSibling = Arrays.copyOf(prevSibling, capacity);
+        long[] oldKeys = tableKeys;
+        int[] oldNodes = tableNodes;
+        tableKeys = new long[oldKeys.length * 2];
+        tableNodes = new int[oldKeys.length * 2];
+        mask = tableKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NONE) {
+                put(oldKeys[i], oldNodes[i]);
+            }
+        }
+    }
+
+    // Hash table - NONE marks an empty slot
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private int find(long ticketId) {
+        for (int slot = hash(ticketId) & mask; tableKeys[slot] != NONE; slot = (slot + 1) & mask) {
+            if (tableKeys[slot] == ticketId) {
+                return tableNodes[slot];
+            }
+        }
+        return NIL;
+    }
+
+    private void put(long ticketId, int node) {
+        int slot = hash(ticketId) & mask;
+        while (tableKeys[slot] != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        tableKeys[slot] = ticketId;
+        tableNodes[slot] = node;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones
+    private void delete(long ticketId) {
+        int slot = hash(ticketId) & mask;
+        while (tableKeys[slot] != ticketId) {
+            slot = (slot + 1) & mask;
+        }
+        int gap = slot;
+        for (int next = (gap + 1) & mask; tableKeys[next] != NONE; next = (next + 1) & mask) {
+            int home = hash(tableKeys[next]) & mask;
+            // Move the entry back if its home slot isn't in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                tableKeys[gap] = tableKeys[next];
+                tableNodes[gap] = tableNodes[next];
+                gap = next;
+            }
+        }
+        tableKeys[gap] = NONE;
+    }
+}
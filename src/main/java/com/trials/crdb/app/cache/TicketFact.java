@@ -0,0 +1,22 @@
+package com.trials.crdb.app.cache;
+
+import java.time.Instant;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/**
+ * One ticket row as loaded into the {@link TicketFactTable}. Nullable fields are null when the
+ * ticket has no value.
+ */
+public record TicketFact(
+        long ticketId,
+        long projectId,
+        TicketStatus status,
+        TicketPriority priority,
+        Long assigneeId,
+        Instant created,
+        Instant resolved,
+        Double estimatedHours,
+        String[] tags) {
+}
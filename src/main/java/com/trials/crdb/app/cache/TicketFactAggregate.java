@@ -0,0 +1,11 @@
+package com.trials.crdb.app.cache;
+
+/**
+ * @param estimatedCount tickets with an estimate - the denominator of {@link #averageHours()}
+ */
+public record TicketFactAggregate(long count, long estimatedCount, double estimatedHours) {
+
+    public double averageHours() {
+        return estimatedCount == 0 ? 0.0 : estimatedHours / estimatedCount;
+    }
+}
@@ -0,0 +1,11 @@
+package com.trials.crdb.app.cache;
+
+/**
+ * Group-by keys of the {@link TicketFactTable}. Keys come back as project id ({@code Long}),
+ * {@code TicketStatus}, {@code TicketPriority}, assignee id ({@code Long}, null when unassigned),
+ * UTC {@code LocalDate} and tag ({@code String}). A ticket counts once per tag, and unresolved
+ * tickets are left out of RESOLVED_DAY.
+ */
+public enum TicketFactDimension {
+    PROJECT, STATUS, PRIORITY, ASSIGNEE, CREATED_DAY, RESOLVED_DAY, TAG
+}
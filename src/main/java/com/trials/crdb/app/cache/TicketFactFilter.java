@@ -0,0 +1,61 @@
+package com.trials.crdb.app.cache;
+
+import java.time.Instant;
+import java.util.Set;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/**
+ * Conjunction of optional conditions, null meaning "any". Time ranges are half-open
+ * {@code [from, to)}; a resolved range excludes unresolved tickets. An assignee set may contain
+ * null to select unassigned tickets.
+ */
+public record TicketFactFilter(
+        Set<Long> projectIds,
+        Set<TicketStatus> statuses,
+        Set<TicketPriority> priorities,
+        Set<Long> assigneeIds,
+        Instant createdFrom,
+        Instant createdTo,
+        Instant resolvedFrom,
+        Instant resolvedTo,
+        String tag) {
+
+    public static final TicketFactFilter ALL = new TicketFactFilter(null, null, null, null, null, null, null, null, null);
+
+    public TicketFactFilter withProjects(Set<Long> projectIds) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, resolvedFrom, resolvedTo, tag);
+    }
+
+    public TicketFactFilter withStatuses(Set<TicketStatus> statuses) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, resolvedFrom, resolvedTo, tag);
+    }
+
+    public TicketFactFilter withPriorities(Set<TicketPriority> priorities) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, resolvedFrom, resolvedTo, tag);
+    }
+
+    public TicketFactFilter withAssignees(Set<Long> assigneeIds) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, resolvedFrom, resolvedTo, tag);
+    }
+
+    public TicketFactFilter withCreated(Instant from, Instant to) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            from, to, resolvedFrom, resolvedTo, tag);
+    }
+
+    public TicketFactFilter withResolved(Instant from, Instant to) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, from, to, tag);
+    }
+
+    public TicketFactFilter withTag(String tag) {
+        return new TicketFactFilter(projectIds, statuses, priorities, assigneeIds,
+            createdFrom, createdTo, resolvedFrom, resolvedTo, tag);
+    }
+}
@@ -0,0 +1,142 @@
+package com.trials.crdb.app.cache;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.TicketChangedEvent;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Optional in-process copy of the ticket facts the dashboard slices on, held in a
+ * {@link TicketFactTable}. Loaded from {@code tickets} on first use and then kept current by
+ * re-reading each ticket named in a committed {@link TicketChangedEvent}. Bulk SQL bypasses the
+ * events, so call {@link #reload()} after it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.ticket-snapshot.enabled", havingValue = "true")
+public class TicketFactSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketFactSnapshot.class);
+
+    private static final String SELECT =
+        "SELECT id, project_id, status, priority, assignee_id, create_time, resolved_date, estimated_hours, tags " +
+        "FROM tickets";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Streams the full load - the Postgres driver only honours the fetch size inside a transaction
+    private final JdbcTemplate loadTemplate;
+    private final TransactionTemplate loadTransaction;
+    private final ForkJoinPool pool;
+    // Null until first use; reloads fill a new table and publish it once complete
+    private volatile TicketFactTable table;
+
+    public TicketFactSnapshot(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            @Value("${app.ticket-snapshot.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.loadTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.loadTemplate.setFetchSize(10_000);
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public Map<Object, TicketFactAggregate> groupBy(TicketFactDimension dimension, TicketFactFilter filter) {
+        return loadedTable().groupBy(dimension, filter);
+    }
+
+    public TicketFactAggregate aggregate(TicketFactFilter filter) {
+        return loadedTable().aggregate(filter);
+    }
+
+    public int size() {
+        return loadedTable().size();
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        TicketFactTable loading = new TicketFactTable(1024, pool);
+        loadTransaction.executeWithoutResult(status -> loadTemplate.query(SELECT, rs -> {
+            loading.upsert(toFact(rs));
+        }));
+        table = loading;
+        log.info("Loaded {} tickets into the fact snapshot in {} ms",
+            loading.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Only the first use takes the monitor, which change events hold while they query
+    private TicketFactTable loadedTable() {
+        TicketFactTable current = table;
+        if (current == null) {
+            synchronized (this) {
+                if (table == null) {
+                    reload();
+                }
+                current = table;
+            }
+        }
+        return current;
+    }
+
+    // Serialised with reload(): a change committed while loading is re-read once the load is done
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTicketChanged(TicketChangedEvent event) {
+        TicketFactTable current = table;
+        if (current == null) {
+            return;
+        }
+        if (event.type() == EntityChangeType.DELETE) {
+            current.remove(event.ticketId());
+            return;
+        }
+        List<TicketFact> facts = jdbcTemplate.query(SELECT + " WHERE id = ?",
+            (rs, rowNum) -> toFact(rs), event.ticketId());
+        if (facts.isEmpty()) {
+            current.remove(event.ticketId());
+        } else {
+            current.upsert(facts.get(0));
+        }
+    }
+
+    private static TicketFact toFact(ResultSet rs) throws SQLException {
+        long assigneeId = rs.getLong("assignee_id");
+        Long assignee = rs.wasNull() ? null : assigneeId;
+        double hours = rs.getDouble("estimated_hours");
+        Double estimatedHours = rs.wasNull() ? null : hours;
+        OffsetDateTime resolved = rs.getObject("resolved_date", OffsetDateTime.class);
+        Array tags = rs.getArray("tags");
+        return new TicketFact(
+            rs.getLong("id"),
+            rs.getLong("project_id"),
+            TicketStatus.valueOf(rs.getString("status")),
+            TicketPriority.valueOf(rs.getString("priority")),
+            assignee,
+            rs.getObject("create_time", OffsetDateTime.class).toInstant(),
+            resolved == null ? null : resolved.toInstant(),
+            estimatedHours,
+            tags == null ? null : (String[]) tags.getArray());
+    }
+}
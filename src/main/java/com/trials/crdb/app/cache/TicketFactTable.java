@@ -0,0 +1,459 @@
+package com.trials.crdb.app.cache;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/**
+ * Column store of ticket facts: one primitive array per attribute, ids and tags dictionary
+ * encoded to dense int codes, times as epoch millis, missing values as sentinels. Group-by and
+ * filter scans split the rows across a fork/join pool and merge per-code partial sums.
+ *
+ * Writers (single rows, rare) take the write lock, scans the read lock. Deleted rows are marked
+ * dead and their slots reused.
+ */
+public final class TicketFactTable {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NONE = Long.MIN_VALUE;
+    private static final int LEAF_ROWS = 1 << 16;
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final TicketPriority[] PRIORITIES = TicketPriority.values();
+
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int encode(T value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        int find(T value) {
+            return codes.getOrDefault(value, -1);
+        }
+
+        T decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool pool;
+
+    private final Map<Long, Integer> rowOf = new HashMap<>();
+    private final ArrayDeque<Integer> freeRows = new ArrayDeque<>();
+    private final Dictionary<Long> projects = new Dictionary<>();
+    private final Dictionary<Long> assignees = new Dictionary<>();
+    private final Dictionary<String> tagDictionary = new Dictionary<>();
+
+    private int rows;
+    private int liveRows;
+    private boolean[] live;
+    private long[] ticketIds;
+    private int[] project;
+    private byte[] status;
+    private byte[] priority;
+    private int[] assignee;          // -1 when unassigned
+    private long[] created;          // epoch millis
+    private long[] resolved;         // NONE when unresolved
+    private double[] hours;          // NaN when not estimated
+    private int[][] tags;
+
+    // Day ranges seen so far - size the CREATED_DAY / RESOLVED_DAY accumulators
+    private long minCreatedDay = Long.MAX_VALUE, maxCreatedDay = Long.MIN_VALUE;
+    private long minResolvedDay = Long.MAX_VALUE, maxResolvedDay = Long.MIN_VALUE;
+
+    public TicketFactTable(int initialCapacity, ForkJoinPool pool) {
+        this.pool = pool;
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    public TicketFactTable() {
+        this(1024, ForkJoinPool.commonPool());
+    }
+
+    private void allocate(int capacity) {
+        live = live == null ? new boolean[capacity] : Arrays.copyOf(live, capacity);
+        ticketIds = ticketIds == null ? new long[capacity] : Arrays.copyOf(ticketIds, capacity);
+        project = project == null ? new int[capacity] : Arrays.copyOf(project, capacity);
+        status = status == null ? new byte[capacity] : Arrays.copyOf(status, capacity);
+        priority = priority == null ? new byte[capacity] : Arrays.copyOf(priority, capacity);
+        assignee = assignee == null ? new int[capacity] : Arrays.copyOf(assignee, capacity);
+        created = created == null ? new long[capacity] : Arrays.copyOf(created, capacity);
+        resolved = resolved == null ? new long[capacity] : Arrays.copyOf(resolved, capacity);
+        hours = hours == null ? new double[capacity] : Arrays.copyOf(hours, capacity);
+        tags = tags == null ? new int[capacity][] : Arrays.copyOf(tags, capacity);
+    }
+
+    // Writes
+
+    public void upsert(TicketFact fact) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.get(fact.ticketId());
+            if (row == null) {
+                row = freeRows.isEmpty() ? rows++ : freeRows.poll();
+                if (row >= live.length) {
+                    allocate(live.length * 2);
+                }
+                rowOf.put(fact.ticketId(), row);
+                liveRows++;
+            }
+            write(row, fact);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long ticketId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowOf.remove(ticketId);
+            if (row == null) {
+                return false;
+            }
+            live[row] = false;
+            tags[row] = null;
+            freeRows.push(row);
+            liveRows--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowOf.clear();
+            freeRows.clear();
+            Arrays.fill(live, 0, rows, false);
+            Arrays.fill(tags, 0, rows, null);
+            rows = 0;
+            liveRows = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(int row, TicketFact fact) {
+        live[row] = true;
+        ticketIds[row] = fact.ticketId();
+        project[row] = projects.encode(fact.projectId());
+        status[row] = (byte) fact.status().ordinal();
+        priority[row] = (byte) fact.priority().ordinal();
+        assignee[row] = fact.assigneeId() == null ? -1 : assignees.encode(fact.assigneeId());
+        created[row] = fact.created().toEpochMilli();
+        resolved[row] = fact.resolved() == null ? NONE : fact.resolved().toEpochMilli();
+        hours[row] = fact.estimatedHours() == null ? Double.NaN : fact.estimatedHours();
+        if (fact.tags() == null || fact.tags().length == 0) {
+            tags[row] = null;
+        } else {
+            int[] codes = new int[fact.tags().length];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = tagDictionary.encode(fact.tags()[i]);
+            }
+            tags[row] = codes;
+        }
+
+        long createdDay = Math.floorDiv(created[row], MILLIS_PER_DAY);
+        minCreatedDay = Math.min(minCreatedDay, createdDay);
+        maxCreatedDay = Math.max(maxCreatedDay, createdDay);
+        if (resolved[row] != NONE) {
+            long resolvedDay = Math.floorDiv(resolved[row], MILLIS_PER_DAY);
+            minResolvedDay = Math.min(minResolvedDay, resolvedDay);
+            maxResolvedDay = Math.max(maxResolvedDay, resolvedDay);
+        }
+    }
+
+    // Scans
+
+    public TicketFactAggregate aggregate(TicketFactFilter filter) {
+        Map<Object, TicketFactAggregate> result = groupBy(null, filter);
+        return result.getOrDefault(Boolean.TRUE, new TicketFactAggregate(0, 0, 0.0));
+    }
+
+    /**
+     * Aggregates per key of the dimension over the rows matching the filter. Keys without
+     * matching rows are left out; the iteration order follows the dictionary codes.
+     */
+    public Map<Object, TicketFactAggregate> groupBy(TicketFactDimension dimension, TicketFactFilter filter) {
+        lock.readLock().lock();
+        try {
+            Scan scan = new Scan(dimension, filter);
+            if (scan.empty) {
+                return Map.of();
+            }
+            Partial total = pool.invoke(new ScanTask(scan, 0, rows));
+            Map<Object, TicketFactAggregate> result = new LinkedHashMap<>();
+            for (int code = 0; code < scan.cardinality; code++) {
+                if (total.count[code] > 0) {
+                    result.put(scan.key(code),
+                        new TicketFactAggregate(total.count[code], total.estimated[code], total.hours[code]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Filter and grouping translated to dictionary codes, prepared once per scan. */
+    private final class Scan {
+        final TicketFactDimension dimension;
+        final boolean[] projectMask;
+        final boolean[] statusMask;
+        final boolean[] priorityMask;
+        final boolean[] assigneeMask;   // index code + 1, 0 = unassigned
+        final long createdFrom, createdTo, resolvedFrom, resolvedTo;
+        final boolean resolvedRequired;
+        final int tagCode;
+        final int cardinality;
+        final long dayOffset;
+        boolean empty;
+
+        Scan(TicketFactDimension dimension, TicketFactFilter filter) {
+            this.dimension = dimension;
+            projectMask = codeMask(filter.projectIds(), projects, 0);
+            assigneeMask = codeMask(filter.assigneeIds(), assignees, 1);
+            statusMask = enumMask(filter.statuses(), STATUSES.length);
+            priorityMask = enumMask(filter.priorities(), PRIORITIES.length);
+            createdFrom = filter.createdFrom() == null ? Long.MIN_VALUE : filter.createdFrom().toEpochMilli();
+            createdTo = filter.createdTo() == null ? Long.MAX_VALUE : filter.createdTo().toEpochMilli();
+            resolvedRequired = filter.resolvedFrom() != null || filter.resolvedTo() != null;
+            resolvedFrom = filter.resolvedFrom() == null ? Long.MIN_VALUE : filter.resolvedFrom().toEpochMilli();
+            resolvedTo = filter.resolvedTo() == null ? Long.MAX_VALUE : filter.resolvedTo().toEpochMilli();
+            if (filter.tag() == null) {
+                tagCode = -1;
+            } else {
+                tagCode = tagDictionary.find(filter.tag());
+                empty = tagCode < 0;
+            }
+
+            if (dimension == null) {
+                cardinality = 1;
+                dayOffset = 0;
+            } else {
+                switch (dimension) {
+                    case PROJECT -> { cardinality = projects.size(); dayOffset = 0; }
+                    case STATUS -> { cardinality = STATUSES.length; dayOffset = 0; }
+                    case PRIORITY -> { cardinality = PRIORITIES.length; dayOffset = 0; }
+                    case ASSIGNEE -> { cardinality = assignees.size() + 1; dayOffset = 0; }
+                    case CREATED_DAY -> {
+                        cardinality = maxCreatedDay < minCreatedDay ? 0 : (int) (maxCreatedDay - minCreatedDay + 1);
+                        dayOffset = minCreatedDay;
+                    }
+                    case RESOLVED_DAY -> {
+                        cardinality = maxResolvedDay < minResolvedDay ? 0 : (int) (maxResolvedDay - minResolvedDay + 1);
+                        dayOffset = minResolvedDay;
+                    }
+                    case TAG -> { cardinality = tagDictionary.size(); dayOffset = 0; }
+                    default -> throw new IllegalArgumentException("Unknown dimension " + dimension);
+                }
+            }
+            empty |= cardinality == 0;
+        }
+
+        boolean matches(int row) {
+            if (!live[row]) {
+                return false;
+            }
+            if (projectMask != null && !projectMask[project[row]]) {
+                return false;
+            }
+            if (statusMask != null && !statusMask[status[row]]) {
+                return false;
+            }
+            if (priorityMask != null && !priorityMask[priority[row]]) {
+                return false;
+            }
+            if (assigneeMask != null && !assigneeMask[assignee[row] + 1]) {
+                return false;
+            }
+            long createdAt = created[row];
+            if (createdAt < createdFrom || createdAt >= createdTo) {
+                return false;
+            }
+            if (resolvedRequired) {
+                long resolvedAt = resolved[row];
+                if (resolvedAt == NONE || resolvedAt < resolvedFrom || resolvedAt >= resolvedTo) {
+                    return false;
+                }
+            }
+            return tagCode < 0 || contains(tags[row], tagCode);
+        }
+
+        void accumulate(int row, Partial partial) {
+            double h = hours[row];
+            if (dimension == null) {
+                partial.add(0, h);
+                return;
+            }
+            switch (dimension) {
+                case PROJECT -> partial.add(project[row], h);
+                case STATUS -> partial.add(status[row], h);
+                case PRIORITY -> partial.add(priority[row], h);
+                case ASSIGNEE -> partial.add(assignee[row] + 1, h);
+                case CREATED_DAY -> partial.add((int) (Math.floorDiv(created[row], MILLIS_PER_DAY) - dayOffset), h);
+                case RESOLVED_DAY -> {
+                    if (resolved[row] != NONE) {
+                        partial.add((int) (Math.floorDiv(resolved[row], MILLIS_PER_DAY) - dayOffset), h);
+                    }
+                }
+                case TAG -> {
+                    int[] codes = tags[row];
+                    if (codes != null) {
+                        for (int code : codes) {
+                            partial.add(code, h);
+                        }
+                    }
+                }
+            }
+        }
+
+        Object key(int code) {
+            if (dimension == null) {
+                return Boolean.TRUE;
+            }
+            return switch (dimension) {
+                case PROJECT -> projects.decode(code);
+                case STATUS -> STATUSES[code];
+                case PRIORITY -> PRIORITIES[code];
+                case ASSIGNEE -> code == 0 ? null : assignees.decode(code - 1);
+                case CREATED_DAY, RESOLVED_DAY -> LocalDate.ofEpochDay(dayOffset + code);
+                case TAG -> tagDictionary.decode(code);
+            };
+        }
+    }
+
+    private static boolean[] codeMask(Set<Long> ids, Dictionary<Long> dictionary, int shift) {
+        if (ids == null) {
+            return null;
+        }
+        boolean[] mask = new boolean[dictionary.size() + shift];
+        for (Long id : ids) {
+            if (id == null) {
+                if (shift > 0) {
+                    mask[0] = true;
+                }
+                continue;
+            }
+            int code = dictionary.find(id);
+            if (code >= 0) {
+                mask[code + shift] = true;
+            }
+        }
+        return mask;
+    }
+
+    private static <E extends Enum<E>> boolean[] enumMask(Set<E> values, int size) {
+        if (values == null) {
+            return null;
+        }
+        boolean[] mask = new boolean[size];
+        values.forEach(value -> mask[value.ordinal()] = true);
+        return mask;
+    }
+
+    private static boolean contains(int[] codes, int code) {
+        if (codes == null) {
+            return false;
+        }
+        for (int candidate : codes) {
+            if (candidate == code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Partial {
+        final long[] count;
+        final long[] estimated;
+        final double[] hours;
+
+        Partial(int cardinality) {
+            count = new long[cardinality];
+            estimated = new long[cardinality];
+            hours = new double[cardinality];
+        }
+
+        void add(int code, double h) {
+            count[code]++;
+            if (!Double.isNaN(h)) {
+                estimated[code]++;
+                hours[code] += h;
+            }
+        }
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < count.length; i++) {
+                count[i] += other.count[i];
+                estimated[i] += other.estimated[i];
+                hours[i] += other.hours[i];
+            }
+            return this;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Partial> {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (to - from <= LEAF_ROWS) {
+                Partial partial = new Partial(scan.cardinality);
+                for (int row = from; row < to; row++) {
+                    if (scan.matches(row)) {
+                        scan.accumulate(row, partial);
+                    }
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, middle);
+            left.fork();
+            Partial right = new ScanTask(scan, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.trials.crdb.app.cache;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel keyed by {@code long}. Deadlines are in abstract ticks; four levels
+ * of 64 slots cover {@link #SPAN_TICKS} ticks ahead of the current one. Level {@code k} holds
+ * timers due within 64^(k+1) ticks, and a level's slot is cascaded into the finer levels when
+ * the wheel below it wraps, so schedule and cancel are O(1) and every timer is moved at most
+ * once per level on its way to firing.
+ *
+ * Not thread safe on its own - callers serialise access.
+ */
+public final class TicketTimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+
+    /** Furthest a deadline may lie ahead of the current tick. */
+    public static final long SPAN_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private static final long[] NONE = new long[0];
+
+    private static final class Timer {
+        final long key;
+        final long deadline;
+        Timer prev;
+        Timer next;
+
+        Timer(long key, long deadline) {
+            this.key = key;
+            this.deadline = deadline;
+        }
+    }
+
+    // Slot lists are circular with a sentinel head, so unlinking needs no slot lookup
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Map<Long, Timer> timers = new HashMap<>();
+    private long current;       // next tick to process
+
+    public TicketTimerWheel(long startTick) {
+        current = startTick;
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                Timer sentinel = new Timer(0L, 0L);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code key} to fire at {@code deadlineTick}, replacing an earlier timer with the
+     * same key. Deadlines already reached fire with the next tick processed.
+     *
+     * @return false, and nothing scheduled, when the deadline is beyond the wheel's span
+     */
+    public boolean schedule(long key, long deadlineTick) {
+        if (deadlineTick - current >= SPAN_TICKS) {
+            return false;
+        }
+        cancel(key);
+        Timer timer = new Timer(key, deadlineTick);
+        timers.put(key, timer);
+        place(timer);
+        return true;
+    }
+
+    public boolean cancel(long key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        unlink(timer);
+        return true;
+    }
+
+    public boolean contains(long key) {
+        return timers.containsKey(key);
+    }
+
+    public int size() {
+        return timers.size();
+    }
+
+    /** The tick the next {@link #advance} starts from. */
+    public long currentTick() {
+        return current;
+    }
+
+    /**
+     * Processes every tick up to and including {@code nowTick}.
+     *
+     * @return keys of the timers that fired, in deadline order
+     */
+    public long[] advance(long nowTick) {
+        long[] fired = NONE;
+        int count = 0;
+        while (current <= nowTick) {
+            int index = (int) (current & MASK);
+            if (index == 0) {
+                for (int level = 1; level < LEVELS; level++) {
+                    int slot = (int) ((current >>> (SLOT_BITS * level)) & MASK);
+                    cascade(slots[level][slot]);
+                    if (slot != 0) {
+                        break;
+                    }
+                }
+            }
+            Timer head = slots[0][index];
+            while (head.next != head) {
+                Timer timer = head.next;
+                unlink(timer);
+                timers.remove(timer.key);
+                if (count == fired.length) {
+                    fired = Arrays.copyOf(fired, Math.max(8, count * 2));
+                }
+                fired[count++] = timer.key;
+            }
+            current++;
+        }
+        return count == fired.length ? fired : Arrays.copyOf(fired, count);
+    }
+
+    public void clear(long startTick) {
+        for (Timer timer : timers.values()) {
+            unlink(timer);
+        }
+        timers.clear();
+        current = startTick;
+    }
+
+    private void place(Timer timer) {
+        long delta = timer.deadline - current;
+        Timer head;
+        if (delta < 0) {
+            head = slots[0][(int) (current & MASK)];
+        } else {
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            head = slots[level][(int) ((timer.deadline >>> (SLOT_BITS * level)) & MASK)];
+        }
+        timer.prev = head.prev;
+        timer.next = head;
+        head.prev.next = timer;
+        head.prev = timer;
+    }
+
+    private void cascade(Timer head) {
+        Timer timer = head.next;
+        head.next = head;
+        head.prev = head;
+        while (timer != head) {
+            Timer next = timer.next;
+            place(timer);
+            timer = next;
+        }
+    }
+
+    private static void unlink(Timer timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+    }
+}
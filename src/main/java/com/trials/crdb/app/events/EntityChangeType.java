@@ -0,0 +1,5 @@
+package com.trials.crdb.app.events;
+
+public enum EntityChangeType {
+    INSERT, UPDATE, DELETE
+}
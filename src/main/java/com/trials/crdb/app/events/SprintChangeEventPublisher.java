@@ -0,0 +1,101 @@
+package com.trials.crdb.app.events;
+
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Sprint;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Turns Hibernate sprint writes, including changes to the {@code Sprint.tickets} join table,
+ * into {@link SprintChangedEvent}s.
+ */
+@Component
+public class SprintChangeEventPublisher implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SprintChangeEventPublisher(EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COLLECTION_RECREATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COLLECTION_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_COLLECTION_REMOVE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Sprint sprint) {
+            eventPublisher.publishEvent(new SprintChangedEvent(sprint.getId(), EntityChangeType.INSERT));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Sprint sprint) {
+            eventPublisher.publishEvent(new SprintChangedEvent(sprint.getId(), EntityChangeType.UPDATE));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Sprint sprint) {
+            eventPublisher.publishEvent(new SprintChangedEvent(sprint.getId(), EntityChangeType.DELETE));
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        publishMembershipChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        publishMembershipChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        publishMembershipChange(event);
+    }
+
+    private void publishMembershipChange(AbstractCollectionEvent event) {
+        if (event.getAffectedOwnerOrNull() instanceof Sprint sprint) {
+            eventPublisher.publishEvent(new SprintChangedEvent(sprint.getId(), EntityChangeType.UPDATE));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
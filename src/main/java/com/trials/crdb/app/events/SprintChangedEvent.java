@@ -0,0 +1,10 @@
+package com.trials.crdb.app.events;
+
+/**
+ * Published when a sprint row or its ticket membership ({@code sprint_tickets}) is written
+ * through Hibernate.
+ */
+public record SprintChangedEvent(
+        Long sprintId,
+        EntityChangeType type) {
+}
@@ -0,0 +1,96 @@
+package com.trials.crdb.app.events;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Turns Hibernate ticket writes into {@link TicketChangedEvent}s. Bulk JPQL and native
+ * statements bypass Hibernate events, so they are not seen here.
+ */
+@Component
+public class TicketChangeEventPublisher implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TicketChangeEventPublisher(EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            Long projectId = projectId(ticket.getProject());
+            eventPublisher.publishEvent(new TicketChangedEvent(
+                ticket.getId(), projectId, projectId, EntityChangeType.INSERT, Set.of()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            String[] names = event.getPersister().getPropertyNames();
+            Set<String> changed = new HashSet<>();
+            if (event.getDirtyProperties() != null) {
+                for (int index : event.getDirtyProperties()) {
+                    changed.add(names[index]);
+                }
+            }
+            Long projectId = projectId(ticket.getProject());
+            Long previousProjectId = projectId;
+            if (event.getOldState() != null) {
+                int projectIndex = event.getPersister().getPropertyIndex("project");
+                previousProjectId = projectId((Project) event.getOldState()[projectIndex]);
+            }
+            eventPublisher.publishEvent(new TicketChangedEvent(ticket.getId(), projectId, previousProjectId,
+                EntityChangeType.UPDATE, changed, event.getDirtyProperties() == null));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            Long projectId = projectId(ticket.getProject());
+            eventPublisher.publishEvent(new TicketChangedEvent(
+                ticket.getId(), projectId, projectId, EntityChangeType.DELETE, Set.of()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long projectId(Project project) {
+        // getId() on an uninitialised proxy doesn't hit the database
+        return project != null ? project.getId() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.trials.crdb.app.events;
+
+import java.util.Set;
+
+/**
+ * Published for every ticket row written through Hibernate. Consumers that maintain caches
+ * should listen with {@code @TransactionalEventListener} so they only react to committed writes.
+ *
+ * @param previousProjectId project before the write, differs from projectId when a ticket moves
+ * @param changedProperties dirty entity properties for updates, empty for inserts and deletes
+ * @param unknownChanges update whose dirty properties Hibernate didn't compute - every property
+ *        then counts as changed
+ */
+public record TicketChangedEvent(
+        Long ticketId,
+        Long projectId,
+        Long previousProjectId,
+        EntityChangeType type,
+        Set<String> changedProperties,
+        boolean unknownChanges) {
+
+    public TicketChangedEvent(Long ticketId, Long projectId, Long previousProjectId, EntityChangeType type,
+            Set<String> changedProperties) {
+        this(ticketId, projectId, previousProjectId, type, changedProperties, false);
+    }
+
+    public boolean changed(String property) {
+        return type != EntityChangeType.UPDATE || unknownChanges || changedProperties.contains(property);
+    }
+
+    public boolean changedAny(Set<String> properties) {
+        if (type != EntityChangeType.UPDATE || unknownChanges) {
+            return true;
+        }
+        for (String property : properties) {
+            if (changedProperties.contains(property)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
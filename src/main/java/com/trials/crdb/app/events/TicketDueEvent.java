@@ -0,0 +1,16 @@
+package com.trials.crdb.app.events;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Fired by the due-date timers when an open ticket's due date is near or has passed. Each node
+ * runs its own timers, so consumers that must act once across nodes have to deduplicate.
+ *
+ * @param firedAt the timer's tick, at or shortly after the moment it was scheduled for
+ */
+public record TicketDueEvent(Long ticketId, Kind kind, ZonedDateTime firedAt) {
+
+    public enum Kind {
+        DUE_SOON, OVERDUE
+    }
+}
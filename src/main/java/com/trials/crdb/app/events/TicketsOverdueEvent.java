@@ -0,0 +1,13 @@
+package com.trials.crdb.app.events;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * A batch of open tickets whose due date has passed since the previous overdue scan, in due
+ * date order. Delivery is at least once - a batch is published again when the scan fails
+ * before recording its progress.
+ *
+ * @param detectedAt the scan's reference time; every ticket was due before it
+ */
+public record TicketsOverdueEvent(List<Long> ticketIds, ZonedDateTime detectedAt) {}
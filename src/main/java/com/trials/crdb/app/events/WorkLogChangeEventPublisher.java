@@ -0,0 +1,85 @@
+package com.trials.crdb.app.events;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.WorkLog;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Turns Hibernate work log writes into {@link WorkLogChangedEvent}s.
+ */
+@Component
+public class WorkLogChangeEventPublisher implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WorkLogChangeEventPublisher(EntityManagerFactory entityManagerFactory,
+            ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof WorkLog workLog) {
+            Long ticketId = ticketId(workLog.getTicket());
+            eventPublisher.publishEvent(new WorkLogChangedEvent(
+                workLog.getId(), ticketId, ticketId, EntityChangeType.INSERT));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof WorkLog workLog) {
+            Long ticketId = ticketId(workLog.getTicket());
+            Long previousTicketId = ticketId;
+            if (event.getOldState() != null) {
+                int ticketIndex = event.getPersister().getPropertyIndex("ticket");
+                previousTicketId = ticketId((Ticket) event.getOldState()[ticketIndex]);
+            }
+            eventPublisher.publishEvent(new WorkLogChangedEvent(
+                workLog.getId(), ticketId, previousTicketId, EntityChangeType.UPDATE));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof WorkLog workLog) {
+            int ticketIndex = event.getPersister().getPropertyIndex("ticket");
+            Long ticketId = ticketId((Ticket) event.getDeletedState()[ticketIndex]);
+            eventPublisher.publishEvent(new WorkLogChangedEvent(
+                workLog.getId(), ticketId, ticketId, EntityChangeType.DELETE));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private static Long ticketId(Ticket ticket) {
+        return ticket != null ? ticket.getId() : null;
+    }
+}
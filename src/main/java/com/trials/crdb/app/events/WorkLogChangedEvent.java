@@ -0,0 +1,13 @@
+package com.trials.crdb.app.events;
+
+/**
+ * Published for every work log row written through Hibernate.
+ *
+ * @param previousTicketId ticket before the write, differs from ticketId when a work log moves
+ */
+public record WorkLogChangedEvent(
+        Long workLogId,
+        Long ticketId,
+        Long previousTicketId,
+        EntityChangeType type) {
+}
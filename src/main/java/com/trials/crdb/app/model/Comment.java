@@ -4,13 +4,15 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.time.ZonedDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments",
+       indexes = @Index(name = "idx_comments_content_length", columnList = "content_length"))
 @Getter
 @Setter
 public class Comment {
@@ -22,6 +24,13 @@ public class Comment {
     @Column(columnDefinition = "text", nullable = false)
     private String content;
 
+    // Stored generated column, so rows written outside Hibernate get it too and adding it backfills
+    // existing rows. Length analytics read it (and its index) instead of detoasting content
+    @Column(name = "content_length", insertable = false, updatable = false,
+            columnDefinition = "integer generated always as (length(content)) stored")
+    @Setter(AccessLevel.NONE)
+    private Integer contentLength;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ticket_id", nullable = false)
     private Ticket ticket;
@@ -48,6 +57,13 @@ public class Comment {
         this.commenter = commenter;
     }
 
+    // Mirrors the database expression (characters, not UTF-16 units) without re-reading the row
+    @PrePersist
+    @PreUpdate
+    void computeContentLength() {
+        contentLength = content == null ? null : content.codePointCount(0, content.length());
+    }
+
     // Helper method to get content preview
     public String getContentPreview(int maxLength) {
         if (content == null) return null;
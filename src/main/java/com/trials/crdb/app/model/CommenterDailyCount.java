@@ -0,0 +1,34 @@
+package com.trials.crdb.app.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Comments written by a user per UTC day of their creation time, for windowed leaderboards.
+ */
+@Entity
+@Table(name = "commenter_daily_counts",
+       uniqueConstraints = @UniqueConstraint(name = "uk_commenter_daily_count",
+           columnNames = {"bucket_day", "user_id"}))
+@Getter
+@Setter
+public class CommenterDailyCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate bucketDay;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    public CommenterDailyCount() {}
+}
@@ -0,0 +1,34 @@
+package com.trials.crdb.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Number of comments written by a user on the tickets of a project.
+ */
+@Entity
+@Table(name = "commenter_project_totals",
+       uniqueConstraints = @UniqueConstraint(name = "uk_commenter_project_total",
+           columnNames = {"project_id", "user_id"}),
+       indexes = @Index(name = "idx_commenter_project_totals_count",
+           columnList = "project_id, comment_count DESC, user_id"))
+@Getter
+@Setter
+public class CommenterProjectTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    public CommenterProjectTotal() {}
+}
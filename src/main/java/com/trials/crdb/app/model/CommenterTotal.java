@@ -0,0 +1,25 @@
+package com.trials.crdb.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Number of comments written by a user, maintained on every comment insert and delete.
+ */
+@Entity
+@Table(name = "commenter_totals",
+       indexes = @Index(name = "idx_commenter_totals_count", columnList = "comment_count DESC, user_id"))
+@Getter
+@Setter
+public class CommenterTotal {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
+    public CommenterTotal() {}
+}
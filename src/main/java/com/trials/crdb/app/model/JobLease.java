@@ -0,0 +1,36 @@
+package com.trials.crdb.app.model;
+
+import java.time.ZonedDateTime;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Lease and progress of a background job that only one application node may run at a time.
+ * The watermark is the {@code (time, id)} key of the last row the job finished with.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+public class JobLease {
+
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+
+    @Column(name = "owner", nullable = false, length = 100)
+    private String owner;
+
+    @Column(name = "lease_until", nullable = false)
+    private ZonedDateTime leaseUntil;
+
+    @Column(name = "watermark_time")
+    private ZonedDateTime watermarkTime;
+
+    @Column(name = "watermark_id")
+    private Long watermarkId;
+
+    public JobLease() {}
+}
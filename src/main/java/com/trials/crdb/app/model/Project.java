@@ -1,6 +1,11 @@
 package com.trials.crdb.app.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -23,8 +28,14 @@ import java.time.ZonedDateTime;
 @Setter
 @Entity
 @Table(name = "projects")
+@BatchSize(size = 50)
+// Read-mostly reference data - only used when the second-level cache is switched on
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Project.CACHE_REGION)
+@NaturalIdCache(region = Project.CACHE_REGION + ".natural-id")
 public class Project {
 
+    public static final String CACHE_REGION = "reference.projects";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     // This conflicts with Hibernate unless we do spring.jpa.properties.hibernate.id.new_generator_mappings=false
@@ -35,6 +46,7 @@ public class Project {
     // even CRDB returns large values > INTEGER
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String name;
 
@@ -0,0 +1,54 @@
+package com.trials.crdb.app.model;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Running totals of {@code tickets.estimated_hours} per project, maintained on every ticket write
+ * so the estimation statistics don't need a scan. Removing the current maximum can't be undone
+ * incrementally, so it only flags {@code maxStale} and the next read recomputes MAX.
+ */
+@Entity
+@Table(name = "project_estimation_stats")
+@Getter
+@Setter
+public class ProjectEstimationStats {
+
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    @Column(nullable = false)
+    private long ticketCount;
+
+    // Tickets with a non-null estimate - the AVG denominator
+    @Column(nullable = false)
+    private long estimatedCount;
+
+    @Column(nullable = false)
+    private double sumHours;
+
+    @Column(nullable = false)
+    private double sumSquares;
+
+    @Column
+    private Double maxHours;
+
+    @Column(nullable = false)
+    private boolean maxStale;
+
+    @UpdateTimestamp
+    @Column
+    private ZonedDateTime updateTime;
+
+    public ProjectEstimationStats() {}
+
+    public ProjectEstimationStats(Long projectId) {
+        this.projectId = projectId;
+    }
+}
@@ -0,0 +1,54 @@
+package com.trials.crdb.app.model;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Compressed HDR histogram of ticket resolution times (seconds) for one project, priority and
+ * UTC day of resolution. Histograms merge losslessly, so any set of projects, priorities and
+ * days can be answered by adding the matching rows.
+ */
+@Entity
+@Table(name = "resolution_time_sketches",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "priority", "bucket_day"}))
+@Getter
+@Setter
+public class ResolutionTimeSketch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.TicketPriority priority;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate bucketDay;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private byte[] histogram;
+
+    // Read-modify-write of the histogram is guarded by this column
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @UpdateTimestamp
+    @Column
+    private ZonedDateTime updateTime;
+
+    public ResolutionTimeSketch() {}
+}
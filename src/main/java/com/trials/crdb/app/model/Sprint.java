@@ -12,7 +12,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "sprints")
+@Table(name = "sprints",
+       indexes = @Index(name = "idx_sprints_project_start", columnList = "project_id, start_date"))
 @Getter
 @Setter
 public class Sprint {
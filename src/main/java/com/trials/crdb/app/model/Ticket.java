@@ -1,10 +1,17 @@
 package com.trials.crdb.app.model;
 
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.Check;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.hibernate.collection.spi.AbstractPersistentCollection;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -22,18 +29,50 @@ import org.hibernate.type.SqlTypes;
 import com.trials.crdb.app.utils.DateTimeProvider;
 
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets",
+       indexes = {
+           @Index(name = "idx_tickets_project_status_rank", columnList = "project_id, status, priority_rank, id"),
+           @Index(name = "idx_tickets_dependent_on", columnList = "dependent_on_id"),
+           @Index(name = "idx_tickets_project_blocked", columnList = "project_id, blocked, status"),
+           @Index(name = "idx_tickets_assignee_blocked", columnList = "assignee_id, blocked, status")
+       })
 @Getter
 @Setter
+// Fetch plans - to-one associations are join fetched by the graph,
+// collections are left to @BatchSize / SUBSELECT so list pages don't multiply rows
+@NamedEntityGraph(name = Ticket.GRAPH_LIST, attributeNodes = {
+    @NamedAttributeNode("reporter"),
+    @NamedAttributeNode("assignee"),
+    @NamedAttributeNode("project")
+})
+@NamedEntityGraph(name = Ticket.GRAPH_DETAIL, attributeNodes = {
+    @NamedAttributeNode("reporter"),
+    @NamedAttributeNode("assignee"),
+    @NamedAttributeNode("project"),
+    @NamedAttributeNode("dependentOn")
+})
+@NamedEntityGraph(name = Ticket.GRAPH_BOARD, attributeNodes = {
+    @NamedAttributeNode("assignee"),
+    @NamedAttributeNode("project")
+})
 // @Check(constraints = "estimated_hours >= 0 AND (due_date IS NULL OR due_date > create_time)")
 public class Ticket {
 
+    public static final String GRAPH_LIST = "Ticket.list";
+    public static final String GRAPH_DETAIL = "Ticket.detail";
+    public static final String GRAPH_BOARD = "Ticket.board";
+
     public enum TicketStatus {
         OPEN, IN_PROGRESS, REVIEW, RESOLVED, CLOSED
     }
 
     public enum TicketPriority {
-        LOW, MEDIUM, HIGH, CRITICAL
+        LOW, MEDIUM, HIGH, CRITICAL;
+
+        // Sort key of priority_rank - most urgent first
+        public int rank() {
+            return CRITICAL.ordinal() - ordinal();
+        }
     }
 
     @Id
@@ -54,6 +93,14 @@ public class Ticket {
     @Column(nullable = false)
     private TicketPriority priority = TicketPriority.MEDIUM;
 
+    // Stored generated column so ORDER BY priority can walk idx_tickets_project_status_rank
+    // instead of sorting on a CASE expression
+    @Column(name = "priority_rank", insertable = false, updatable = false,
+            columnDefinition = "smallint generated always as (CASE priority " +
+                "WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 END) stored")
+    @Setter(AccessLevel.NONE)
+    private Integer priorityRank;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> metadata = new HashMap<>();
@@ -167,6 +214,7 @@ public class Ticket {
     }
 
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Fetch(FetchMode.SUBSELECT)
     private Set<Comment> comments = new HashSet<>();
 
     // Add helper methods
@@ -180,8 +228,36 @@ public class Ticket {
         comment.setTicket(null);
     }
 
+    // Sizes of still-lazy collections are answered with a COUNT query
+    // instead of loading every row - see also the batched counts in the repositories.
+    // That needs the ticket's session to be open unless the collection was already loaded
     public int getCommentCount() {
-        return comments != null ? comments.size() : 0;
+        return sizeOf(comments);
+    }
+
+    public int getWorkLogCount() {
+        return sizeOf(workLogs);
+    }
+
+    public int getDependencyCount() {
+        return sizeOf(dependencies);
+    }
+
+    // A lazy collection of a detached ticket has no session to count with - Hibernate.size
+    // would fail with a NullPointerException there, so report it like any other lazy access
+    private static int sizeOf(Set<?> collection) {
+        if (collection == null) {
+            return 0;
+        }
+        if (Hibernate.isInitialized(collection)) {
+            return collection.size();
+        }
+        if (collection instanceof AbstractPersistentCollection<?> persistent
+                && (persistent.getSession() == null || !persistent.getSession().isOpen())) {
+            throw new LazyInitializationException(
+                "Can't count the unloaded " + persistent.getRole() + " of a detached ticket - no open session");
+        }
+        return Hibernate.size(collection);
     }
 
     // Phase
@@ -193,8 +269,18 @@ public class Ticket {
     private Ticket dependentOn;
 
     @OneToMany(mappedBy = "dependentOn")
+    @BatchSize(size = 50)
     private Set<Ticket> dependencies = new HashSet<>();
 
+    // True while dependentOn is set and not RESOLVED/CLOSED. Written only by TicketBlockedFlagMaintainer
+    // (also when the other ticket changes status), so Hibernate never overwrites it with a stale value.
+    // The maintainer writes through JDBC, so loaded tickets keep the old value - re-read or refresh
+    // them after the flush to see the new one
+    @Column(name = "blocked", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "boolean default false")
+    @Setter(AccessLevel.NONE)
+    private boolean blocked;
+
     // Native array storage for tags - PostgreSQL specific
     // This will need compatibility testing with other databases
     @Column(columnDefinition = "text[]")
@@ -240,9 +326,15 @@ public class Ticket {
         this.version = version;
     }
 
+    @PrePersist
+    public void prePersist() {
+        priorityRank = priority == null ? null : priority.rank();
+    }
+
     @PreUpdate
     public void preUpdate() {
         System.out.println("About to update ticket " + id + ", current version: " + version);
+        priorityRank = priority == null ? null : priority.rank();
     }
 
     @PostUpdate  
@@ -254,10 +346,12 @@ public class Ticket {
 
     // Add relationship with Sprint
     @ManyToMany(mappedBy = "tickets")
+    @BatchSize(size = 50)
     private Set<Sprint> sprints = new HashSet<>();
 
     // Add relationship with WorkLog
     @OneToMany(mappedBy = "ticket", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Fetch(FetchMode.SUBSELECT)
     private Set<WorkLog> workLogs = new HashSet<>();
 
     // Add helper methods for WorkLog
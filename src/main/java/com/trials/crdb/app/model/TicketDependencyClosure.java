@@ -0,0 +1,35 @@
+package com.trials.crdb.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Transitive closure of {@code tickets.dependent_on_id}: one row per ticket and each ticket it
+ * depends on directly or indirectly, {@code depth} 1 for the direct dependency. Maintained on
+ * every ticket write so ancestor and descendant queries need no recursive SQL.
+ */
+@Entity
+@Table(name = "ticket_dependency_closure",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ticket_dependency_closure",
+           columnNames = {"ancestor_id", "descendant_id"}),
+       indexes = @Index(name = "idx_ticket_dependency_closure_descendant", columnList = "descendant_id, depth"))
+@Getter
+@Setter
+public class TicketDependencyClosure {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ancestor_id", nullable = false)
+    private Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    private Long descendantId;
+
+    @Column(nullable = false)
+    private int depth;
+
+    public TicketDependencyClosure() {}
+}
@@ -0,0 +1,67 @@
+package com.trials.crdb.app.model;
+
+import java.time.ZonedDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+
+/**
+ * One change of one tracked ticket property. Rows are only ever appended - by
+ * {@code TicketHistoryRecorder} through JDBC - so the entity is read-only.
+ *
+ * A ticket's creation writes a CREATED row per tracked property (oldValue null), its deletion a
+ * single DELETED row. Values are stored as text: enum names, user ids, decimal hours and ISO-8601
+ * instants.
+ */
+@Entity
+@Immutable
+@Table(name = "ticket_events",
+       indexes = {
+           @Index(name = "idx_ticket_events_ticket_time", columnList = "ticket_id, event_time"),
+           @Index(name = "idx_ticket_events_project_time", columnList = "project_id, event_time"),
+           @Index(name = "idx_ticket_events_time", columnList = "event_time")
+       })
+@Getter
+public class TicketEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public enum Property {
+        STATUS, PRIORITY, ASSIGNEE, ESTIMATED_HOURS, DUE_DATE, PROJECT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    // Project of the ticket when the event was written
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(name = "event_time", nullable = false)
+    private ZonedDateTime eventTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Type type;
+
+    // Null for DELETED
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Property property;
+
+    @Column
+    private String oldValue;
+
+    @Column
+    private String newValue;
+
+    protected TicketEvent() {}
+}
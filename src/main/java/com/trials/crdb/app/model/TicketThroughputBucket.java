@@ -0,0 +1,55 @@
+package com.trials.crdb.app.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Number of tickets created, resolved and closed per project and priority in one UTC hour or day.
+ * Both granularities are written with every ticket event. Hourly rows are pruned after a
+ * retention period, and daily rows keep the long-range history.
+ */
+@Entity
+@Table(name = "ticket_throughput_buckets",
+       uniqueConstraints = @UniqueConstraint(name = "uk_throughput_bucket",
+           columnNames = {"granularity", "project_id", "bucket_start", "priority"}),
+       indexes = @Index(name = "idx_throughput_granularity_start", columnList = "granularity, bucket_start"))
+@Getter
+@Setter
+public class TicketThroughputBucket {
+
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Granularity granularity;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Ticket.TicketPriority priority;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private long createdCount;
+
+    @Column(nullable = false)
+    private long resolvedCount;
+
+    @Column(nullable = false)
+    private long closedCount;
+
+    public TicketThroughputBucket() {}
+}
@@ -0,0 +1,27 @@
+package com.trials.crdb.app.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sum of {@code work_logs.hours_spent} per ticket, maintained on every work log write.
+ */
+@Entity
+@Table(name = "ticket_work_totals")
+@Getter
+@Setter
+public class TicketWorkTotal {
+
+    @Id
+    @Column(name = "ticket_id")
+    private Long ticketId;
+
+    @Column(nullable = false)
+    private double totalHours;
+
+    @Column(nullable = false)
+    private long logCount;
+
+    public TicketWorkTotal() {}
+}
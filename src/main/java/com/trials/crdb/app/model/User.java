@@ -1,6 +1,11 @@
 package com.trials.crdb.app.model;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import jakarta.persistence.*;
 import lombok.Getter;
@@ -12,14 +17,20 @@ import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@BatchSize(size = 50)
 @Getter
 @Setter
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.CACHE_REGION + ".natural-id")
 public class User {
 
+    public static final String CACHE_REGION = "reference.users";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @NaturalId(mutable = true)
     @Column(unique = true, nullable = false)
     private String username;
 
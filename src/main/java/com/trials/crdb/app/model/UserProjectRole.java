@@ -1,5 +1,10 @@
 package com.trials.crdb.app.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -9,16 +14,22 @@ import lombok.Setter;
        uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "project_id"}))
 @Getter  
 @Setter
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = UserProjectRole.CACHE_REGION)
+@NaturalIdCache(region = UserProjectRole.CACHE_REGION + ".natural-id")
 public class UserProjectRole {
+
+    public static final String CACHE_REGION = "reference.user-project-roles";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    @NaturalId
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
     
+    @NaturalId
     @ManyToOne
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
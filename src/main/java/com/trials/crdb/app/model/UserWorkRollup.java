@@ -0,0 +1,45 @@
+package com.trials.crdb.app.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Hours logged by a user per UTC day or week (starting Monday), bucketed by work log start time.
+ */
+@Entity
+@Table(name = "user_work_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_user_work_rollup",
+           columnNames = {"granularity", "user_id", "bucket_start"}))
+@Getter
+@Setter
+public class UserWorkRollup {
+
+    public enum Granularity {
+        DAY, WEEK
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Granularity granularity;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(nullable = false)
+    private double hours;
+
+    @Column(nullable = false)
+    private long logCount;
+
+    public UserWorkRollup() {}
+}
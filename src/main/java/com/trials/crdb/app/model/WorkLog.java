@@ -10,7 +10,11 @@ import lombok.Setter;
 import java.time.ZonedDateTime;
 
 @Entity
-@Table(name = "work_logs")
+@Table(name = "work_logs",
+       indexes = {
+           @Index(name = "idx_work_logs_ticket_start", columnList = "ticket_id, start_time"),
+           @Index(name = "idx_work_logs_user_period", columnList = "user_id, start_time, end_time")
+       })
 @Getter
 @Setter
 public class WorkLog {
@@ -1,7 +1,11 @@
 package com.trials.crdb.app.repositories;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +17,7 @@ import org.springframework.stereotype.Repository;
 import com.trials.crdb.app.model.Comment;
 import com.trials.crdb.app.model.Ticket;
 import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.utils.QueryResults;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -85,10 +90,27 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // Count queries
     Long countByTicket(Ticket ticket);
     Long countByCommenter(User commenter);
+
+    // Batched comment counts for a page of tickets - one GROUP BY instead of a collection load per ticket
+    @Query("SELECT c.ticket.id, COUNT(c) FROM Comment c WHERE c.ticket.id IN :ticketIds GROUP BY c.ticket.id")
+    List<Object[]> countGroupedByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    // Tickets without comments are absent from the map
+    default Map<Long, Long> countByTicketIds(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return Map.of();
+        }
+        return QueryResults.toLongMap(countGroupedByTicketIds(ticketIds));
+    }
     
     // Recent comments
     @Query("SELECT c FROM Comment c ORDER BY c.createTime DESC")
     Page<Comment> findRecentComments(Pageable pageable);
+
+    // Recent comments no older than since - on a partitioned comments table only the months
+    // from since on are read, where the unbounded one above visits every partition
+    @Query("SELECT c FROM Comment c WHERE c.createTime >= :since ORDER BY c.createTime DESC")
+    Page<Comment> findRecentCommentsSince(@Param("since") ZonedDateTime since, Pageable pageable);
     
     // Comments created after a specific date
     @Query("SELECT c FROM Comment c WHERE c.createTime > :since ORDER BY c.createTime DESC")
@@ -101,6 +123,7 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     PostgreSQL uses functional dependency detection. 
     */
     // Top commenters (users with most comments)
+    // Groups the whole comments table - CommenterLeaderboardService reads the maintained counters instead
     // @Query("SELECT c.commenter, COUNT(c) FROM Comment c GROUP BY c.commenter ORDER BY COUNT(c) DESC")
     @Query("SELECT u, COUNT(c) FROM Comment c JOIN c.commenter u GROUP BY u.id, u.username, u.email, u.fullName, u.createTime ORDER BY COUNT(c) DESC")
     List<Object[]> findTopCommenters(Pageable pageable);
@@ -108,19 +131,38 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     // TOIL - didnt work in Spanner
     /* Spanner doesn't support the character_length() function that Hibernate generates from the JPQL LENGTH() function */
     // Comments with content longer than specified length
-    @Query("SELECT c FROM Comment c WHERE LENGTH(c.content) > :minLength")
+    // @Query("SELECT c FROM Comment c WHERE LENGTH(c.content) > :minLength")
+    // Reads the stored content_length through its index instead of the text of every comment
+    @Query("SELECT c FROM Comment c WHERE c.contentLength > :minLength")
     List<Comment> findLongComments(@Param("minLength") int minLength);
 
     // Spanner-compatible version using native SQL
-    @Query(value = "SELECT * FROM comments WHERE LENGTH(content) > ?1", nativeQuery = true)
+    // @Query(value = "SELECT * FROM comments WHERE LENGTH(content) > ?1", nativeQuery = true)
+    @Query(value = "SELECT * FROM comments WHERE content_length > ?1", nativeQuery = true)
     List<Comment> findLongCommentsSpanner(@Param("minLength") int minLength);
     
     // TOIL - didnt work in Spanner
     // Average comment length
-    @Query("SELECT AVG(LENGTH(c.content)) FROM Comment c")
+    // @Query("SELECT AVG(LENGTH(c.content)) FROM Comment c")
+    @Query("SELECT AVG(c.contentLength) FROM Comment c")
     Double getAverageCommentLength();
 
     // Spanner-compatible average comment length
-    @Query(value = "SELECT AVG(LENGTH(content)) FROM comments", nativeQuery = true)
+    // @Query(value = "SELECT AVG(LENGTH(content)) FROM comments", nativeQuery = true)
+    @Query(value = "SELECT AVG(content_length) FROM comments", nativeQuery = true)
     Double getAverageCommentLengthSpanner();
+
+    // Comment count per content length bucket, answered from the content_length index alone.
+    // MOD instead of integer division - Spanner's "/" on integers doesn't truncate
+    @Query(value = "SELECT content_length - MOD(content_length, ?1) AS bucket_start, COUNT(*) " +
+                   "FROM comments GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> countGroupedByContentLengthBucket(@Param("bucketWidth") int bucketWidth);
+
+    // Keyed by the first length of each bucket; empty buckets are absent
+    default SortedMap<Long, Long> contentLengthHistogram(int bucketWidth) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException("bucketWidth must be positive: " + bucketWidth);
+        }
+        return new TreeMap<>(QueryResults.toLongMap(countGroupedByContentLengthBucket(bucketWidth)));
+    }
 }
\ No newline at end of file
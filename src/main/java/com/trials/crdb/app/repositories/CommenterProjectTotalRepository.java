@@ -0,0 +1,12 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.CommenterProjectTotal;
+
+public interface CommenterProjectTotalRepository extends JpaRepository<CommenterProjectTotal, Long> {
+
+    List<CommenterProjectTotal> findByProjectId(Long projectId);
+}
@@ -0,0 +1,10 @@
+package com.trials.crdb.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.trials.crdb.app.model.ProjectEstimationStats;
+
+@Repository
+public interface ProjectEstimationStatsRepository extends JpaRepository<ProjectEstimationStats, Long> {
+}
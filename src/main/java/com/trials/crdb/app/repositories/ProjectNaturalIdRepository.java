@@ -0,0 +1,15 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.Optional;
+
+import com.trials.crdb.app.model.Project;
+
+/**
+ * Repository fragment for looking projects up by their natural id, the unique name.
+ */
+public interface ProjectNaturalIdRepository {
+
+    // Resolved through the natural-id cache region, then the entity region - unlike the cached
+    // findByName it doesn't touch the query cache, which every reference write evicts
+    Optional<Project> loadByName(String name);
+}
@@ -0,0 +1,24 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Project;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+public class ProjectNaturalIdRepositoryImpl implements ProjectNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // The natural-id access needs a session that stays open for the load
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Project> loadByName(String name) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Project.class).loadOptional(name);
+    }
+}
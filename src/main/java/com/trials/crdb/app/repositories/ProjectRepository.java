@@ -2,15 +2,21 @@ package com.trials.crdb.app.repositories;
 
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
 
 import com.trials.crdb.app.model.Project;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface ProjectRepository extends CrudRepository<Project, Long> {
+public interface ProjectRepository extends CrudRepository<Project, Long>, ProjectNaturalIdRepository {
 
+    // Served from the query cache + entity cache when the second-level cache is enabled
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Project> findByName(@NonNull String name);
 
 }
\ No newline at end of file
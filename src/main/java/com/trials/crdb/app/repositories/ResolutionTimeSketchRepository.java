@@ -0,0 +1,12 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.ResolutionTimeSketch;
+
+public interface ResolutionTimeSketchRepository extends JpaRepository<ResolutionTimeSketch, Long> {
+
+    List<ResolutionTimeSketch> findByProjectId(Long projectId);
+}
@@ -1,5 +1,6 @@
 package com.trials.crdb.app.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,13 +23,45 @@ public interface SprintRepository extends JpaRepository<Sprint, Long> {
     @Query("SELECT s FROM Sprint s WHERE s.startDate <= :date AND s.endDate >= :date")
     List<Sprint> findSprintsByDate(@Param("date") ZonedDateTime date);
     
+    // Closed intervals, so sprints sharing a boundary date count as overlapping. SprintScheduleService
+    // rejects sprints that end before they start, which makes this one conjunction equivalent to
+    // the start-inside / end-inside / covering cases it used to OR together
     @Query("SELECT s FROM Sprint s WHERE s.project = :project AND " +
-           "((s.startDate <= :endDate AND s.endDate >= :startDate) OR " +
-           "(s.startDate >= :startDate AND s.startDate <= :endDate) OR " +
-           "(s.endDate >= :startDate AND s.endDate <= :endDate))")
+           "s.startDate <= :endDate AND s.endDate >= :startDate")
     List<Sprint> findOverlappingSprints(
         @Param("project") Project project,
         @Param("startDate") ZonedDateTime startDate,
         @Param("endDate") ZonedDateTime endDate
     );
-}
\ No newline at end of file
+
+    // Sprints of a project whose [start, end) period overlaps the given one, apart from excludeId.
+    // Back-to-back sprints don't overlap. Portable, read inside the scheduling transaction
+    @Query("SELECT s.id FROM Sprint s WHERE s.project.id = :projectId AND s.startDate < :endDate " +
+           "AND s.endDate > :startDate AND s.id <> :excludeId ORDER BY s.startDate")
+    List<Long> findIdsOverlappingPeriod(
+        @Param("projectId") Long projectId,
+        @Param("startDate") ZonedDateTime startDate,
+        @Param("endDate") ZonedDateTime endDate,
+        @Param("excludeId") Long excludeId
+    );
+
+    // Postgres only - one probe of the GiST index behind excl_sprints_project_period, see
+    // SprintScheduleService
+    @Query(value = "SELECT id FROM sprints WHERE project_id = :projectId " +
+                   "AND tstzrange(start_date, end_date, '[)') && " +
+                   "tstzrange(CAST(:startDate AS timestamptz), CAST(:endDate AS timestamptz), '[)') " +
+                   "ORDER BY start_date", nativeQuery = true)
+    List<Long> findIdsOverlappingRange(
+        @Param("projectId") Long projectId,
+        @Param("startDate") ZonedDateTime startDate,
+        @Param("endDate") ZonedDateTime endDate
+    );
+
+    // Most recently finished sprints first - page size is the number of sprints
+    @Query("SELECT s FROM Sprint s WHERE s.project.id = :projectId AND s.endDate <= :before ORDER BY s.endDate DESC")
+    List<Sprint> findFinishedSprints(
+        @Param("projectId") Long projectId,
+        @Param("before") ZonedDateTime before,
+        Pageable pageable
+    );
+}
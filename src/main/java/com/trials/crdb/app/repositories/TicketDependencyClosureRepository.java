@@ -0,0 +1,14 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.TicketDependencyClosure;
+
+public interface TicketDependencyClosureRepository extends JpaRepository<TicketDependencyClosure, Long> {
+
+    List<TicketDependencyClosure> findByAncestorIdOrderByDepth(Long ancestorId);
+
+    List<TicketDependencyClosure> findByDescendantIdOrderByDepth(Long descendantId);
+}
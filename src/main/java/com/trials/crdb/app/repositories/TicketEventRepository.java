@@ -0,0 +1,16 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.TicketEvent;
+
+public interface TicketEventRepository extends JpaRepository<TicketEvent, Long> {
+
+    List<TicketEvent> findByTicketIdOrderByEventTimeAscIdAsc(Long ticketId);
+
+    List<TicketEvent> findByProjectIdAndEventTimeBetweenOrderByEventTimeAscIdAsc(
+        Long projectId, ZonedDateTime start, ZonedDateTime end);
+}
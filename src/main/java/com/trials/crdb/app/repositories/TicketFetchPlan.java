@@ -0,0 +1,25 @@
+package com.trials.crdb.app.repositories;
+
+import com.trials.crdb.app.model.Ticket;
+
+/**
+ * Named fetch plans for ticket reads, backed by the entity graphs declared on {@link Ticket}.
+ */
+public enum TicketFetchPlan {
+    // reporter, assignee, project - ticket tables and search results
+    LIST(Ticket.GRAPH_LIST),
+    // to-one associations plus dependentOn; collections initialised in batches
+    DETAIL(Ticket.GRAPH_DETAIL),
+    // assignee and project - sprints are batch loaded when the board groups cards
+    BOARD(Ticket.GRAPH_BOARD);
+
+    private final String graphName;
+
+    TicketFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+}
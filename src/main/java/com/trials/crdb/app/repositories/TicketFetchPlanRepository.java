@@ -0,0 +1,20 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.User;
+
+/**
+ * Repository fragment for loading tickets with a caller selected {@link TicketFetchPlan}.
+ */
+public interface TicketFetchPlanRepository {
+
+    List<Ticket> findByProject(Project project, TicketFetchPlan plan);
+
+    List<Ticket> findByAssignee(User assignee, TicketFetchPlan plan);
+
+    Optional<Ticket> findById(Long id, TicketFetchPlan plan);
+}
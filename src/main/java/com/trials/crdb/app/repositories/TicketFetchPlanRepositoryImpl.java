@@ -0,0 +1,61 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.Hibernate;
+import org.hibernate.jpa.SpecHints;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+public class TicketFetchPlanRepositoryImpl implements TicketFetchPlanRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Ticket> findByProject(Project project, TicketFetchPlan plan) {
+        return withPlan(entityManager.createQuery(
+                "SELECT t FROM Ticket t WHERE t.project = :project ORDER BY t.id", Ticket.class), plan)
+            .setParameter("project", project)
+            .getResultList();
+    }
+
+    @Override
+    public List<Ticket> findByAssignee(User assignee, TicketFetchPlan plan) {
+        return withPlan(entityManager.createQuery(
+                "SELECT t FROM Ticket t WHERE t.assignee = :assignee ORDER BY t.id", Ticket.class), plan)
+            .setParameter("assignee", assignee)
+            .getResultList();
+    }
+
+    @Override
+    public Optional<Ticket> findById(Long id, TicketFetchPlan plan) {
+        List<Ticket> result = withPlan(entityManager.createQuery(
+                "SELECT t FROM Ticket t WHERE t.id = :id", Ticket.class), plan)
+            .setParameter("id", id)
+            .getResultList();
+        if (result.isEmpty()) {
+            return Optional.empty();
+        }
+        Ticket ticket = result.get(0);
+        if (plan == TicketFetchPlan.DETAIL) {
+            // One query per collection instead of joining them all into a cartesian product
+            Hibernate.initialize(ticket.getComments());
+            Hibernate.initialize(ticket.getWorkLogs());
+            Hibernate.initialize(ticket.getSprints());
+            Hibernate.initialize(ticket.getDependencies());
+        }
+        return Optional.of(ticket);
+    }
+
+    private TypedQuery<Ticket> withPlan(TypedQuery<Ticket> query, TicketFetchPlan plan) {
+        return query.setHint(SpecHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph(plan.getGraphName()));
+    }
+}
@@ -1,9 +1,12 @@
 package com.trials.crdb.app.repositories;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,6 +17,7 @@ import com.trials.crdb.app.model.Ticket;
 import com.trials.crdb.app.model.Ticket.TicketPriority;
 import com.trials.crdb.app.model.Ticket.TicketStatus;
 import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.utils.QueryResults;
 
 import java.time.ZonedDateTime;
 import java.util.List;
@@ -24,7 +28,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, TicketFetchPlanRepository {
 
     // Basic finder methods
     List<Ticket> findByStatus(Ticket.TicketStatus status);
@@ -34,6 +38,19 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findByProject(Project project);
     Page<Ticket> findByProject(Project project, Pageable pageable);
     
+    // Fetch plans - also exported as /tickets/search/find{List,Board,Detail}By...
+    @EntityGraph(Ticket.GRAPH_LIST)
+    List<Ticket> findListByProject(Project project);
+
+    @EntityGraph(Ticket.GRAPH_LIST)
+    List<Ticket> findListByAssignee(User assignee);
+
+    @EntityGraph(Ticket.GRAPH_BOARD)
+    List<Ticket> findBoardByProject(Project project);
+
+    @EntityGraph(Ticket.GRAPH_DETAIL)
+    Optional<Ticket> findDetailById(Long id);
+    
     // Combined finders
     List<Ticket> findByStatusAndPriority(Ticket.TicketStatus status, Ticket.TicketPriority priority);
     List<Ticket> findByProjectAndStatus(Project project, Ticket.TicketStatus status);
@@ -224,16 +241,56 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     //        nativeQuery = true)
     // List<Ticket> findAllOrderByPriorityCustom();
 
-    @Query(value = "SELECT *, CASE priority " +
-              "WHEN 'CRITICAL' THEN 0 " +
-              "WHEN 'HIGH' THEN 1 " +
-              "WHEN 'MEDIUM' THEN 2 " +
-              "WHEN 'LOW' THEN 3 " +
-              "ELSE 999 END AS priority_order " +
-              "FROM tickets ORDER BY priority_order ASC", 
-       nativeQuery = true)
+    // @Query(value = "SELECT *, CASE priority " +
+    //           "WHEN 'CRITICAL' THEN 0 " +
+    //           "WHEN 'HIGH' THEN 1 " +
+    //           "WHEN 'MEDIUM' THEN 2 " +
+    //           "WHEN 'LOW' THEN 3 " +
+    //           "ELSE 999 END AS priority_order " +
+    //           "FROM tickets ORDER BY priority_order ASC", 
+    //    nativeQuery = true)
+    // priority_rank is the stored form of the CASE above
+    @Query(value = "SELECT * FROM tickets ORDER BY priority_rank ASC, id ASC", nativeQuery = true)
     List<Ticket> findAllOrderByPriorityCustom();
 
+    // Top N tickets of a project in one status, most urgent first. Reads
+    // idx_tickets_project_status_rank in order and stops after N rows - no sort
+    @Query(value = "SELECT * FROM tickets WHERE project_id = ?1 AND status = ?2 " +
+                   "ORDER BY priority_rank, id LIMIT ?3", nativeQuery = true)
+    List<Ticket> findTopByPriority(@Param("projectId") Long projectId, @Param("status") String status,
+                                   @Param("limit") int limit);
+
+    default List<Ticket> findTopOpenByPriority(Long projectId, int limit) {
+        return findTopByPriority(projectId, Ticket.TicketStatus.OPEN.name(), limit);
+    }
+
+    // Backlog paging by priority - keyset on (priority_rank, id) of the last ticket of the previous
+    // page, so every page is an index range read instead of OFFSET over a sort.
+    // Row-value comparison spelled out for Spanner - the redundant priority_rank >= ?3 is the
+    // index start bound, the planner can't derive one from the OR
+    @Query(value = "SELECT * FROM tickets WHERE project_id = ?1 AND status = ?2 " +
+                   "AND priority_rank >= ?3 AND (priority_rank > ?3 OR (priority_rank = ?3 AND id > ?4)) " +
+                   "ORDER BY priority_rank, id LIMIT ?5", nativeQuery = true)
+    List<Ticket> findByPriorityAfter(@Param("projectId") Long projectId, @Param("status") String status,
+                                     @Param("afterRank") int afterRank, @Param("afterId") Long afterId,
+                                     @Param("limit") int limit);
+
+    // First page when after is null
+    default List<Ticket> findBacklogPage(Long projectId, Ticket.TicketStatus status, Ticket after, int limit) {
+        if (after == null) {
+            return findTopByPriority(projectId, status.name(), limit);
+        }
+        return findByPriorityAfter(projectId, status.name(), after.getPriority().rank(), after.getId(), limit);
+    }
+
+    // TOIL - LATERAL isn't supported in Spanner - call findTopByPriority per project there
+    // Top N per project for every project in one statement, each a bounded index read
+    @Query(value = "SELECT t.* FROM projects p CROSS JOIN LATERAL (" +
+                   "SELECT * FROM tickets WHERE project_id = p.id AND status = ?1 " +
+                   "ORDER BY priority_rank, id LIMIT ?2) t " +
+                   "ORDER BY t.project_id, t.priority_rank, t.id", nativeQuery = true)
+    List<Ticket> findTopByPriorityPerProject(@Param("status") String status, @Param("limit") int limit);
+
     // Add this method to TicketRepository:
     @Query("SELECT t.priority, COUNT(t) FROM Ticket t GROUP BY t.priority")
     List<Object[]> countByPriority();
@@ -251,6 +308,19 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.dueDate < :referenceTime AND t.status NOT IN ('RESOLVED', 'CLOSED')")
     List<Ticket> findOverdueTickets(@Param("referenceTime") ZonedDateTime referenceTime);
 
+    // Open tickets that became overdue after the (dueDate, id) key of the previous scan, as
+    // [id, dueDate] rows. Same status predicate as idx_tickets_open_due_date, so it's a range
+    // read of the partial index starting at the watermark. Row-value comparison spelled out for
+    // Spanner, with the redundant dueDate >= :afterDueDate as the index start bound
+    @Query("SELECT t.id, t.dueDate FROM Ticket t WHERE t.status NOT IN ('RESOLVED', 'CLOSED') " +
+           "AND t.dueDate < :referenceTime AND t.dueDate >= :afterDueDate " +
+           "AND (t.dueDate > :afterDueDate OR (t.dueDate = :afterDueDate AND t.id > :afterId)) " +
+           "ORDER BY t.dueDate, t.id")
+    List<Object[]> findOverdueAfter(@Param("afterDueDate") ZonedDateTime afterDueDate,
+                                    @Param("afterId") Long afterId,
+                                    @Param("referenceTime") ZonedDateTime referenceTime,
+                                    Pageable pageable);
+
 
     // // Tickets due in the next N days
     @Query("SELECT t FROM Ticket t WHERE t.dueDate BETWEEN :startDate AND :endDate AND t.status NOT IN ('RESOLVED', 'CLOSED')")
@@ -258,6 +328,12 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
         @Param("startDate") ZonedDateTime startDate,
         @Param("endDate") ZonedDateTime endDate);    
         
+    // Open tickets due in [from, to), earliest first. Same status predicate as the partial
+    // idx_tickets_open_due_date (see TicketIndexes), so it's a range read of it
+    @Query("SELECT t FROM Ticket t WHERE t.dueDate >= :from AND t.dueDate < :to " +
+           "AND t.status NOT IN ('RESOLVED', 'CLOSED') ORDER BY t.dueDate, t.id")
+    List<Ticket> findOpenDueBetween(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
+
     // Filtering by date range
     @Query("SELECT t FROM Ticket t WHERE t.createTime BETWEEN :startDate AND :endDate")
     List<Ticket> findTicketsCreatedBetween(
@@ -275,6 +351,8 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     String calculateAverageResolutionTimeInterval();
 
     // Timezone-aware query
+    // Converts every row's due_date, so no index can be used - TicketDueWindowService answers
+    // this for many timezones with one range read of idx_tickets_open_due_date
     @Query(value = "SELECT * FROM tickets WHERE DATE(due_date AT TIME ZONE :timezone) = CURRENT_DATE AND status NOT IN ('RESOLVED', 'CLOSED')", nativeQuery = true)
     List<Ticket> findTicketsDueTodayInTimezone(@Param("timezone") String timezone);
 
@@ -289,17 +367,12 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     Map<String, Object> calculateProjectEstimationStatistics(Long projectId);
 
     // Window functions - priority ranking
+    // Partitions are ordered by the stored priority_rank instead of a CASE over priority
     @Query(value = "SELECT id, title, priority, " +
-                "ROW_NUMBER() OVER(PARTITION BY project_id ORDER BY " +
-                "CASE priority " +
-                "  WHEN 'CRITICAL' THEN 0 " +
-                "  WHEN 'HIGH' THEN 1 " +
-                "  WHEN 'MEDIUM' THEN 2 " +
-                "  WHEN 'LOW' THEN 3 " +
-                "  ELSE 4 END) AS priority_rank " +
+                "ROW_NUMBER() OVER(PARTITION BY project_id ORDER BY priority_rank, id) AS priority_position " +
                 "FROM tickets " +
                 "WHERE status IN ('OPEN', 'IN_PROGRESS') " +
-                "ORDER BY project_id, priority_rank", nativeQuery = true)
+                "ORDER BY project_id, priority_position", nativeQuery = true)
     List<Object[]> findTicketsWithPriorityRanking();
 
     // Window functions - LAG/LEAD for time gap analysis
@@ -340,6 +413,8 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Object[]> findTicketsWithCTEByProjectName(String projectName);
 
     // Recursive CTE for dependency chains
+    // Stops silently at depth 10 - TicketDependencyService answers ancestors/descendants from memory without a cap,
+    // and TicketDependencyClosureService.chains resolves a whole board page in one query
     @Query(value = "WITH RECURSIVE ticket_chain AS (" +
                 "  SELECT id, title, dependent_on_id, 1 AS depth " +
                 "  FROM tickets " +
@@ -363,4 +438,48 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     Integer getTagCountForTicket(Long ticketId);
 
     List<Ticket> findByDependentOn(Ticket dependentOn);
+
+    // Tickets waiting on an unresolved dependency / open tickets free to start, from the maintained
+    // blocked flag - index scans on idx_tickets_project_blocked and idx_tickets_assignee_blocked
+    // instead of a self-join over tickets
+    @Query("SELECT t FROM Ticket t WHERE t.project.id = :projectId AND t.blocked = true " +
+           "AND t.status IN ('OPEN', 'IN_PROGRESS', 'REVIEW') ORDER BY t.priorityRank, t.id")
+    List<Ticket> findBlockedByProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Ticket t WHERE t.project.id = :projectId AND t.blocked = false " +
+           "AND t.status = 'OPEN' ORDER BY t.priorityRank, t.id")
+    List<Ticket> findReadyToStartByProject(@Param("projectId") Long projectId);
+
+    @Query("SELECT t FROM Ticket t WHERE t.assignee.id = :assigneeId AND t.blocked = true " +
+           "AND t.status IN ('OPEN', 'IN_PROGRESS', 'REVIEW') ORDER BY t.priorityRank, t.id")
+    List<Ticket> findBlockedByAssignee(@Param("assigneeId") Long assigneeId);
+
+    @Query("SELECT t FROM Ticket t WHERE t.assignee.id = :assigneeId AND t.blocked = false " +
+           "AND t.status = 'OPEN' ORDER BY t.priorityRank, t.id")
+    List<Ticket> findReadyToStartByAssignee(@Param("assigneeId") Long assigneeId);
+
+    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.project.id = :projectId AND t.blocked = true " +
+           "AND t.status IN ('OPEN', 'IN_PROGRESS', 'REVIEW')")
+    long countBlockedByProject(@Param("projectId") Long projectId);
+
+    // All tickets blocked by a ticket, directly or transitively - one indexed closure lookup on every backend
+    @Query("SELECT t FROM Ticket t WHERE t.id IN " +
+           "(SELECT c.descendantId FROM TicketDependencyClosure c WHERE c.ancestorId = :ticketId)")
+    List<Ticket> findBlockedBy(@Param("ticketId") Long ticketId);
+
+    // Unresolved ones only
+    @Query("SELECT t FROM Ticket t WHERE t.status NOT IN ('RESOLVED', 'CLOSED') AND t.id IN " +
+           "(SELECT c.descendantId FROM TicketDependencyClosure c WHERE c.ancestorId = :ticketId)")
+    List<Ticket> findOpenBlockedBy(@Param("ticketId") Long ticketId);
+
+    // Batched count of direct dependents for a page of tickets
+    @Query("SELECT t.dependentOn.id, COUNT(t) FROM Ticket t WHERE t.dependentOn.id IN :ticketIds GROUP BY t.dependentOn.id")
+    List<Object[]> countDependenciesGroupedByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    default Map<Long, Long> countDependenciesByTicketIds(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return Map.of();
+        }
+        return QueryResults.toLongMap(countDependenciesGroupedByTicketIds(ticketIds));
+    }
 }
\ No newline at end of file
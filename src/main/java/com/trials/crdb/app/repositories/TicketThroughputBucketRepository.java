@@ -0,0 +1,12 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.TicketThroughputBucket;
+
+public interface TicketThroughputBucketRepository extends JpaRepository<TicketThroughputBucket, Long> {
+
+    List<TicketThroughputBucket> findByProjectIdAndGranularity(Long projectId, TicketThroughputBucket.Granularity granularity);
+}
@@ -0,0 +1,8 @@
+package com.trials.crdb.app.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.TicketWorkTotal;
+
+public interface TicketWorkTotalRepository extends JpaRepository<TicketWorkTotal, Long> {
+}
@@ -0,0 +1,14 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.Optional;
+
+import com.trials.crdb.app.model.User;
+
+/**
+ * Repository fragment for looking users up by their natural id, the unique username.
+ */
+public interface UserNaturalIdRepository {
+
+    // See ProjectNaturalIdRepository.loadByName
+    Optional<User> loadByUsername(String username);
+}
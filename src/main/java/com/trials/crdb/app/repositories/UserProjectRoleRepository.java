@@ -3,17 +3,22 @@ package com.trials.crdb.app.repositories;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.trials.crdb.app.model.User;
 import com.trials.crdb.app.model.Project;
 import com.trials.crdb.app.model.UserProjectRole;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserProjectRoleRepository extends JpaRepository<UserProjectRole, Long> {
     
-    // Find by user and project (replaces composite key lookup)
+    // Find by user and project (replaces composite key lookup) - cacheable
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserProjectRole> findByUserAndProject(User user, Project project);
     
     // Find roles by user
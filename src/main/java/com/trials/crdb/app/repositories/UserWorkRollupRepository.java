@@ -0,0 +1,12 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.trials.crdb.app.model.UserWorkRollup;
+
+public interface UserWorkRollupRepository extends JpaRepository<UserWorkRollup, Long> {
+
+    List<UserWorkRollup> findByUserIdAndGranularity(Long userId, UserWorkRollup.Granularity granularity);
+}
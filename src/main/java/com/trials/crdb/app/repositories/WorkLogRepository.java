@@ -8,9 +8,12 @@ import org.springframework.stereotype.Repository;
 import com.trials.crdb.app.model.WorkLog;
 import com.trials.crdb.app.model.Ticket;
 import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.utils.QueryResults;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 public interface WorkLogRepository extends JpaRepository<WorkLog, Long> {
@@ -21,22 +24,64 @@ public interface WorkLogRepository extends JpaRepository<WorkLog, Long> {
     
     @Query("SELECT SUM(w.hoursSpent) FROM WorkLog w WHERE w.ticket = :ticket")
     Double getTotalHoursForTicket(@Param("ticket") Ticket ticket);
+
+    // Batched work log counts for a page of tickets
+    @Query("SELECT w.ticket.id, COUNT(w) FROM WorkLog w WHERE w.ticket.id IN :ticketIds GROUP BY w.ticket.id")
+    List<Object[]> countGroupedByTicketIds(@Param("ticketIds") Collection<Long> ticketIds);
+
+    default Map<Long, Long> countByTicketIds(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return Map.of();
+        }
+        return QueryResults.toLongMap(countGroupedByTicketIds(ticketIds));
+    }
     
+    // The startTime upper bound only drops logs ending before they start, and lets a
+    // partitioned work_logs table skip the months after the range
     @Query("SELECT w FROM WorkLog w WHERE w.user = :user AND " +
-           "w.startTime >= :start AND w.endTime <= :end")
+           "w.startTime >= :start AND w.startTime <= :end AND w.endTime <= :end")
     List<WorkLog> findWorkLogsByUserAndTimeRange(
         @Param("user") User user,
         @Param("start") ZonedDateTime start,
         @Param("end") ZonedDateTime end
     );
     
+    // Touching logs count as overlapping here. For logs that end after they start, the ORed
+    // start-inside / end-inside / covering tests this used to spell out reduce to this one
+    // conjunction - a single range read of idx_work_logs_user_period
     @Query("SELECT w FROM WorkLog w WHERE w.user = :user AND " +
-           "((w.startTime <= :endTime AND w.endTime >= :startTime) OR " +
-           "(w.startTime >= :startTime AND w.startTime <= :endTime) OR " +
-           "(w.endTime >= :startTime AND w.endTime <= :endTime))")
+           "w.startTime <= :endTime AND w.endTime >= :startTime")
     List<WorkLog> findOverlappingWorkLogs(
         @Param("user") User user,
         @Param("startTime") ZonedDateTime startTime,
         @Param("endTime") ZonedDateTime endTime
     );
+
+    // The user's work logs whose [start, end) overlaps the given period, apart from excludeId -
+    // WorkLogOverlapService's portable probe. No log is longer than the service's max duration,
+    // so only the user's logs starting in (startedAfter, endTime) - startedAfter being the start
+    // minus that duration - are read from idx_work_logs_user_period and filtered on end_time
+    // inside the index. It doesn't assume the existing logs are disjoint, so it also finds
+    // overlaps saved around log()
+    @Query("SELECT w.id FROM WorkLog w WHERE w.user.id = :userId AND w.startTime > :startedAfter " +
+           "AND w.startTime < :endTime AND w.endTime > :startTime AND w.id <> :excludeId ORDER BY w.startTime")
+    List<Long> findIdsOverlappingPeriod(
+        @Param("userId") Long userId,
+        @Param("startedAfter") ZonedDateTime startedAfter,
+        @Param("startTime") ZonedDateTime startTime,
+        @Param("endTime") ZonedDateTime endTime,
+        @Param("excludeId") Long excludeId
+    );
+
+    // Postgres only - one probe of the GiST index behind excl_work_logs_user_period, see
+    // WorkLogOverlapService
+    @Query(value = "SELECT id FROM work_logs WHERE user_id = :userId " +
+                   "AND tstzrange(start_time, end_time, '[)') && " +
+                   "tstzrange(CAST(:startTime AS timestamptz), CAST(:endTime AS timestamptz), '[)') " +
+                   "ORDER BY start_time", nativeQuery = true)
+    List<Long> findIdsOverlappingRange(
+        @Param("userId") Long userId,
+        @Param("startTime") ZonedDateTime startTime,
+        @Param("endTime") ZonedDateTime endTime
+    );
 }
\ No newline at end of file
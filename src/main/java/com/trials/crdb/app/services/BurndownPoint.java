@@ -0,0 +1,20 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+
+/**
+ * State of a sprint at the end of one (UTC) day.
+ *
+ * @param remainingEstimate estimated hours of tickets not resolved yet
+ * @param remainingWork remaining estimate minus hours already logged, per ticket never below 0
+ * @param loggedHours hours logged on sprint tickets during the day
+ * @param idealRemaining straight line from the committed hours to 0 on the last day
+ */
+public record BurndownPoint(
+        LocalDate day,
+        double remainingEstimate,
+        double remainingWork,
+        double loggedHours,
+        double idealRemaining,
+        int resolvedTickets) {
+}
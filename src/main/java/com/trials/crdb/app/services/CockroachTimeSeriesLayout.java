@@ -0,0 +1,65 @@
+package com.trials.crdb.app.services;
+
+import java.time.Period;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * CockroachDB counterpart of {@link MonthlyPartitionManager}. Ranges already split the tables,
+ * so there's nothing to partition. Instead the time indexes are hash sharded, which spreads
+ * the ever-increasing timestamps over several ranges rather than one hot one. Retention is
+ * handled by row-level TTL jobs on the same periods.
+ */
+@Component
+@ConditionalOnProperty(name = "app.partitioning.mode", havingValue = "cockroachdb")
+public class CockroachTimeSeriesLayout {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Period commentsRetention;
+    private final Period workLogsRetention;
+
+    // The EntityManagerFactory dependency makes sure Hibernate has created the tables first
+    public CockroachTimeSeriesLayout(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+            @Value("${app.partitioning.comments.retention:P0D}") Period commentsRetention,
+            @Value("${app.partitioning.work-logs.retention:P0D}") Period workLogsRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.commentsRetention = commentsRetention;
+        this.workLogsRetention = workLogsRetention;
+    }
+
+    /** Creates the sharded indexes and sets or removes the TTL to match the retentions. Idempotent. */
+    @PostConstruct
+    public void apply() {
+        apply("comments", "create_time", commentsRetention);
+        apply("work_logs", "start_time", workLogsRetention);
+    }
+
+    private void apply(String table, String column, Period retention) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + table + "_" + column + "_sharded ON " +
+            table + " (" + column + ") USING HASH");
+        if (retention.isZero()) {
+            if (hasTtl(table)) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " RESET (ttl)");
+            }
+        } else {
+            jdbcTemplate.execute("ALTER TABLE " + table + " SET (ttl_expiration_expression = $$(" + column +
+                " + INTERVAL '" + interval(retention) + "')$$, ttl_job_cron = '@daily')");
+        }
+    }
+
+    private boolean hasTtl(String table) {
+        return jdbcTemplate.queryForObject("SELECT create_statement FROM [SHOW CREATE TABLE " + table + "]",
+            String.class).contains("ttl_expiration_expression");
+    }
+
+    // Spelled out rather than Period's ISO form, e.g. "3 months 10 days"
+    static String interval(Period retention) {
+        return retention.toTotalMonths() + " months " + retention.getDays() + " days";
+    }
+}
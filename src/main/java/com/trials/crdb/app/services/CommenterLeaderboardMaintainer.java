@@ -0,0 +1,104 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Comment;
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the commenter counters in step with comment inserts, updates and deletes, and with
+ * tickets moving between projects, inside the writing transaction.
+ * <p>
+ * The project of a comment is read from the tickets row rather than the in-memory ticket: an
+ * unflushed project change is applied later in the same flush and moves the ticket's comments,
+ * this one included, through {@link CommenterLeaderboardService#moveTicket}.
+ */
+@Component
+public class CommenterLeaderboardMaintainer implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final CommenterLeaderboardService leaderboardService;
+
+    public CommenterLeaderboardMaintainer(EntityManagerFactory entityManagerFactory,
+            CommenterLeaderboardService leaderboardService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.leaderboardService = leaderboardService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Comment comment) {
+            Long ticketId = comment.getTicket().getId();
+            leaderboardService.apply(comment.getCommenter().getId(), leaderboardService.projectOf(ticketId),
+                comment.getCreateTime(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        if (event.getEntity() instanceof Ticket ticket) {
+            Project oldProject = (Project) oldState[persister.getPropertyIndex("project")];
+            if (!Objects.equals(oldProject.getId(), ticket.getProject().getId())) {
+                leaderboardService.moveTicket(ticket.getId(), oldProject.getId(), ticket.getProject().getId());
+            }
+        } else if (event.getEntity() instanceof Comment comment) {
+            Ticket oldTicket = (Ticket) oldState[persister.getPropertyIndex("ticket")];
+            User oldCommenter = (User) oldState[persister.getPropertyIndex("commenter")];
+            if (oldTicket.getId().equals(comment.getTicket().getId())
+                    && oldCommenter.getId().equals(comment.getCommenter().getId())) {
+                return;
+            }
+            leaderboardService.apply(oldCommenter.getId(), leaderboardService.projectOf(oldTicket.getId()),
+                comment.getCreateTime(), -1);
+            leaderboardService.apply(comment.getCommenter().getId(),
+                leaderboardService.projectOf(comment.getTicket().getId()), comment.getCreateTime(), 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Comment) {
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getDeletedState();
+            Ticket ticket = (Ticket) state[persister.getPropertyIndex("ticket")];
+            User commenter = (User) state[persister.getPropertyIndex("commenter")];
+            ZonedDateTime createTime = (ZonedDateTime) state[persister.getPropertyIndex("createTime")];
+            leaderboardService.apply(commenter.getId(), leaderboardService.projectOf(ticket.getId()), createTime, -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
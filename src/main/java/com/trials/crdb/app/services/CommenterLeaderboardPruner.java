@@ -0,0 +1,45 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Drops daily commenter buckets older than the retention, which bounds the longest windowed
+ * leaderboard. The all-time and per-project totals are kept.
+ */
+@Component
+@ConditionalOnProperty(name = "app.commenter-leaderboard.pruner.enabled", havingValue = "true", matchIfMissing = true)
+public class CommenterLeaderboardPruner {
+
+    private static final Logger log = LoggerFactory.getLogger(CommenterLeaderboardPruner.class);
+
+    private final CommenterLeaderboardService leaderboardService;
+    private final Period dailyRetention;
+
+    public CommenterLeaderboardPruner(CommenterLeaderboardService leaderboardService,
+            @Value("${app.commenter-leaderboard.daily-retention:P90D}") Period dailyRetention) {
+        this.leaderboardService = leaderboardService;
+        this.dailyRetention = dailyRetention;
+    }
+
+    @Scheduled(cron = "${app.commenter-leaderboard.pruner.cron:0 30 3 * * *}")
+    public void scheduledPrune() {
+        prune();
+    }
+
+    public int prune() {
+        LocalDate cutoff = CommenterLeaderboardService.dayOf(DateTimeProvider.now()).minus(dailyRetention);
+        int deleted = leaderboardService.pruneDaily(cutoff);
+        log.info("Pruned {} daily commenter buckets before {}", deleted, cutoff);
+        return deleted;
+    }
+}
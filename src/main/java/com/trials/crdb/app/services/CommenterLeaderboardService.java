@@ -0,0 +1,178 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.CommenterDailyCount;
+import com.trials.crdb.app.model.CommenterProjectTotal;
+import com.trials.crdb.app.model.CommenterTotal;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Commenter leaderboards read from the {@link CommenterTotal}, {@link CommenterProjectTotal} and
+ * {@link CommenterDailyCount} rows. All-time and per-project rankings walk the count index and
+ * stop after {@code limit} rows; windowed rankings sum the daily buckets of the window only.
+ */
+@Service
+public class CommenterLeaderboardService {
+
+    static final String UPSERT_TOTAL =
+        "INSERT INTO commenter_totals (user_id, comment_count) VALUES (?, ?) " +
+        "ON CONFLICT (user_id) DO UPDATE SET " +
+        "comment_count = commenter_totals.comment_count + EXCLUDED.comment_count";
+
+    static final String UPSERT_PROJECT_TOTAL =
+        "INSERT INTO commenter_project_totals (project_id, user_id, comment_count) VALUES (?, ?, ?) " +
+        "ON CONFLICT (project_id, user_id) DO UPDATE SET " +
+        "comment_count = commenter_project_totals.comment_count + EXCLUDED.comment_count";
+
+    static final String UPSERT_DAILY_COUNT =
+        "INSERT INTO commenter_daily_counts (bucket_day, user_id, comment_count) VALUES (?, ?, ?) " +
+        "ON CONFLICT (bucket_day, user_id) DO UPDATE SET " +
+        "comment_count = commenter_daily_counts.comment_count + EXCLUDED.comment_count";
+
+    private static final RowMapper<CommenterRank> RANK_MAPPER = (rs, rowNum) ->
+        new CommenterRank(rs.getLong("user_id"), rs.getString("username"), rs.getLong("comment_count"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommenterLeaderboardService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** The users with the most comments overall, highest first. */
+    @Transactional(readOnly = true)
+    public List<CommenterRank> topCommenters(int limit) {
+        return jdbcTemplate.query(
+            "SELECT t.user_id, u.username, t.comment_count FROM commenter_totals t " +
+            "JOIN users u ON u.id = t.user_id " +
+            "ORDER BY t.comment_count DESC, t.user_id LIMIT ?",
+            RANK_MAPPER, limit);
+    }
+
+    /** The users with the most comments on the tickets of a project, highest first. */
+    @Transactional(readOnly = true)
+    public List<CommenterRank> topCommenters(Long projectId, int limit) {
+        return jdbcTemplate.query(
+            "SELECT t.user_id, u.username, t.comment_count FROM commenter_project_totals t " +
+            "JOIN users u ON u.id = t.user_id WHERE t.project_id = ? " +
+            "ORDER BY t.comment_count DESC, t.user_id LIMIT ?",
+            RANK_MAPPER, projectId, limit);
+    }
+
+    /**
+     * The users with the most comments over the last {@code days} UTC days, today included.
+     * Only days within the pruner's retention are counted.
+     */
+    @Transactional(readOnly = true)
+    public List<CommenterRank> topCommentersLastDays(int days, int limit) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("days must be positive: " + days);
+        }
+        LocalDate today = dayOf(DateTimeProvider.now());
+        return topCommenters(today.minusDays(days - 1), today, limit);
+    }
+
+    /** The users with the most comments created on the UTC days {@code [from, to]}. */
+    @Transactional(readOnly = true)
+    public List<CommenterRank> topCommenters(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(
+            "SELECT d.user_id, u.username, SUM(d.comment_count) AS comment_count " +
+            "FROM commenter_daily_counts d JOIN users u ON u.id = d.user_id " +
+            "WHERE d.bucket_day BETWEEN ? AND ? " +
+            "GROUP BY d.user_id, u.username " +
+            "ORDER BY comment_count DESC, d.user_id LIMIT ?",
+            RANK_MAPPER, from, to, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public long commentCount(Long userId) {
+        List<Long> counts = jdbcTemplate.queryForList(
+            "SELECT comment_count FROM commenter_totals WHERE user_id = ?", Long.class, userId);
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    /** Drops daily buckets before the given day; the all-time and project totals are unaffected. */
+    @Transactional
+    public int pruneDaily(LocalDate before) {
+        return jdbcTemplate.update("DELETE FROM commenter_daily_counts WHERE bucket_day < ?", before);
+    }
+
+    /** Recomputes every counter from the comments table, for backfills and repairs. */
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM commenter_totals");
+        jdbcTemplate.update("DELETE FROM commenter_project_totals");
+        jdbcTemplate.update("DELETE FROM commenter_daily_counts");
+        jdbcTemplate.update(
+            "INSERT INTO commenter_totals (user_id, comment_count) " +
+            "SELECT commenter_id, COUNT(*) FROM comments GROUP BY commenter_id");
+        jdbcTemplate.update(
+            "INSERT INTO commenter_project_totals (project_id, user_id, comment_count) " +
+            "SELECT t.project_id, c.commenter_id, COUNT(*) FROM comments c " +
+            "JOIN tickets t ON t.id = c.ticket_id GROUP BY t.project_id, c.commenter_id");
+        jdbcTemplate.update(
+            "INSERT INTO commenter_daily_counts (bucket_day, user_id, comment_count) " +
+            "SELECT CAST(c.create_time AT TIME ZONE 'UTC' AS DATE), c.commenter_id, COUNT(*) FROM comments c " +
+            "GROUP BY CAST(c.create_time AT TIME ZONE 'UTC' AS DATE), c.commenter_id");
+    }
+
+    static LocalDate dayOf(ZonedDateTime time) {
+        return time.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
+    // Maintenance - called from the flush of the transaction that wrote the comment
+
+    /** The project a ticket belongs to as of the statements already flushed in this transaction. */
+    Long projectOf(Long ticketId) {
+        return jdbcTemplate.queryForObject("SELECT project_id FROM tickets WHERE id = ?", Long.class, ticketId);
+    }
+
+    void apply(Long userId, Long projectId, ZonedDateTime createTime, int delta) {
+        jdbcTemplate.update(UPSERT_TOTAL, userId, delta);
+        jdbcTemplate.update(UPSERT_PROJECT_TOTAL, projectId, userId, delta);
+        jdbcTemplate.update(UPSERT_DAILY_COUNT, dayOf(createTime), userId, delta);
+        if (delta < 0) {
+            removeEmpty(userId);
+        }
+    }
+
+    /** Moves the comments of a ticket between project totals when the ticket changes project. */
+    void moveTicket(Long ticketId, Long fromProjectId, Long toProjectId) {
+        List<Object[]> deltas = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT commenter_id, COUNT(*) AS comment_count FROM comments WHERE ticket_id = ? GROUP BY commenter_id",
+            rs -> {
+                long userId = rs.getLong("commenter_id");
+                long count = rs.getLong("comment_count");
+                deltas.add(new Object[] {fromProjectId, userId, -count});
+                deltas.add(new Object[] {toProjectId, userId, count});
+                userIds.add(userId);
+            },
+            ticketId);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPSERT_PROJECT_TOTAL, deltas);
+        for (Long userId : userIds) {
+            jdbcTemplate.update(
+                "DELETE FROM commenter_project_totals WHERE project_id = ? AND user_id = ? AND comment_count <= 0",
+                fromProjectId, userId);
+        }
+    }
+
+    private void removeEmpty(Long userId) {
+        jdbcTemplate.update("DELETE FROM commenter_totals WHERE user_id = ? AND comment_count <= 0", userId);
+        jdbcTemplate.update("DELETE FROM commenter_project_totals WHERE user_id = ? AND comment_count <= 0", userId);
+        jdbcTemplate.update("DELETE FROM commenter_daily_counts WHERE user_id = ? AND comment_count <= 0", userId);
+    }
+}
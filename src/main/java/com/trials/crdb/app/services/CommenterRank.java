@@ -0,0 +1,5 @@
+package com.trials.crdb.app.services;
+
+/** One leaderboard entry. */
+public record CommenterRank(Long userId, String username, long commentCount) {
+}
@@ -0,0 +1,19 @@
+package com.trials.crdb.app.services;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Longest chain of unresolved dependent tickets, weighted by remaining hours.
+ *
+ * @param totalHours remaining hours along the path - the earliest the whole scope can be done
+ * @param path the chain, first dependency first
+ * @param slack per ticket in scope, how many hours its finish can slip without moving totalHours
+ * @param skippedTicketIds tickets on a dependency cycle or depending on one, left out of the computation
+ */
+public record CriticalPath(
+        double totalHours,
+        List<CriticalPathStep> path,
+        Map<Long, Double> slack,
+        List<Long> skippedTicketIds) {
+}
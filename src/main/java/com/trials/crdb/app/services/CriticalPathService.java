@@ -0,0 +1,172 @@
+package com.trials.crdb.app.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Critical path of the unresolved tickets of a project or sprint. The scope is loaded in one
+ * query - tickets with their {@code dependent_on_id}, estimate and logged hours from
+ * {@code ticket_work_totals} - and the longest path is found with a topological pass over
+ * primitive arrays. Dependencies outside the scope (resolved, or in another project or sprint)
+ * don't hold anything up.
+ */
+@Service
+public class CriticalPathService {
+
+    private static final String SELECT =
+        "SELECT t.id, t.title, t.dependent_on_id, t.estimated_hours, COALESCE(w.total_hours, 0) AS logged_hours " +
+        "FROM tickets t LEFT JOIN ticket_work_totals w ON w.ticket_id = t.id ";
+
+    private static final String UNRESOLVED = "t.status NOT IN ('RESOLVED', 'CLOSED')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CriticalPathService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public CriticalPath forProject(Long projectId) {
+        return load(SELECT + "WHERE t.project_id = ? AND " + UNRESOLVED, projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public CriticalPath forSprint(Long sprintId) {
+        return load(SELECT + "JOIN sprint_tickets st ON st.ticket_id = t.id WHERE st.sprint_id = ? AND " + UNRESOLVED,
+            sprintId);
+    }
+
+    private CriticalPath load(String sql, Object scopeId) {
+        Scope scope = new Scope();
+        jdbcTemplate.query(sql, rs -> {
+            long dependentOnId = rs.getLong("dependent_on_id");
+            boolean independent = rs.wasNull();
+            double estimate = rs.getDouble("estimated_hours");
+            scope.add(rs.getLong("id"), rs.getString("title"), independent ? 0 : dependentOnId,
+                estimate - rs.getDouble("logged_hours"));
+        }, scopeId);
+        return compute(scope);
+    }
+
+    /** Tickets of one computation in parallel arrays; a parent id of 0 means no dependency. */
+    static final class Scope {
+        int size;
+        long[] ids = new long[256];
+        long[] parentIds = new long[256];
+        double[] remaining = new double[256];
+        List<String> titles = new ArrayList<>();
+
+        void add(long id, String title, long parentId, double remainingHours) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                parentIds = Arrays.copyOf(parentIds, size * 2);
+                remaining = Arrays.copyOf(remaining, size * 2);
+            }
+            ids[size] = id;
+            parentIds[size] = parentId;
+            remaining[size] = Math.max(0, remainingHours);
+            titles.add(title);
+            size++;
+        }
+    }
+
+    static CriticalPath compute(Scope scope) {
+        int n = scope.size;
+        Map<Long, Integer> indexOf = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexOf.put(scope.ids[i], i);
+        }
+        // parent[i] = index of the in-scope ticket i depends on, or -1
+        int[] parent = new int[n];
+        int[] childCount = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            Integer p = scope.parentIds[i] == 0 ? null : indexOf.get(scope.parentIds[i]);
+            parent[i] = p == null ? -1 : p;
+            if (p != null) {
+                childCount[p + 1]++;
+            }
+        }
+        // Children in CSR form: children of i are child[offset[i] .. offset[i + 1])
+        int[] offset = childCount;
+        for (int i = 0; i < n; i++) {
+            offset[i + 1] += offset[i];
+        }
+        int[] child = new int[offset[n]];
+        int[] fill = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (parent[i] >= 0) {
+                child[offset[parent[i]] + fill[parent[i]]++] = i;
+            }
+        }
+
+        // Topological order from the tickets that depend on nothing in scope; cycle members never get queued
+        int[] order = new int[n];
+        int ordered = 0;
+        for (int i = 0; i < n; i++) {
+            if (parent[i] < 0) {
+                order[ordered++] = i;
+            }
+        }
+        double[] earliestFinish = new double[n];
+        for (int head = 0; head < ordered; head++) {
+            int i = order[head];
+            earliestFinish[i] = (parent[i] < 0 ? 0 : earliestFinish[parent[i]]) + scope.remaining[i];
+            for (int c = offset[i]; c < offset[i + 1]; c++) {
+                order[ordered++] = child[c];
+            }
+        }
+
+        double total = 0;
+        int last = -1;
+        for (int k = 0; k < ordered; k++) {
+            int i = order[k];
+            if (last < 0 || earliestFinish[i] > total) {
+                total = earliestFinish[i];
+                last = i;
+            }
+        }
+
+        // Latest finish, backwards: a ticket must be done before any of its dependents can start
+        double[] latestFinish = new double[n];
+        Arrays.fill(latestFinish, total);
+        for (int k = ordered - 1; k >= 0; k--) {
+            int i = order[k];
+            if (parent[i] >= 0) {
+                latestFinish[parent[i]] = Math.min(latestFinish[parent[i]], latestFinish[i] - scope.remaining[i]);
+            }
+        }
+
+        Map<Long, Double> slack = new HashMap<>(ordered * 2);
+        for (int k = 0; k < ordered; k++) {
+            int i = order[k];
+            slack.put(scope.ids[i], latestFinish[i] - earliestFinish[i]);
+        }
+        List<CriticalPathStep> path = new ArrayList<>();
+        for (int i = last; i >= 0; i = parent[i]) {
+            path.add(new CriticalPathStep(scope.ids[i], scope.titles.get(i), scope.remaining[i], earliestFinish[i]));
+        }
+        Collections.reverse(path);
+
+        List<Long> skipped = new ArrayList<>();
+        if (ordered < n) {
+            boolean[] seen = new boolean[n];
+            for (int k = 0; k < ordered; k++) {
+                seen[order[k]] = true;
+            }
+            for (int i = 0; i < n; i++) {
+                if (!seen[i]) {
+                    skipped.add(scope.ids[i]);
+                }
+            }
+        }
+        return new CriticalPath(total, path, slack, skipped);
+    }
+}
@@ -0,0 +1,8 @@
+package com.trials.crdb.app.services;
+
+/**
+ * @param remainingHours estimate minus logged hours, never below 0
+ * @param earliestFinish hours from now until this ticket can be done, its dependencies first
+ */
+public record CriticalPathStep(Long ticketId, String title, double remainingHours, double earliestFinish) {
+}
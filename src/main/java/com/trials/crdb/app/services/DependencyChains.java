@@ -0,0 +1,16 @@
+package com.trials.crdb.app.services;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * "Blocked by" chains of several tickets. Each ticket appears once in {@code nodes} however many
+ * chains it is part of; {@code chains} maps every requested ticket that exists to the ids of
+ * the tickets it depends on, directly first.
+ */
+public record DependencyChains(Map<Long, DependencyNode> nodes, Map<Long, List<Long>> chains) {
+
+    public List<DependencyNode> chain(Long ticketId) {
+        return chains.getOrDefault(ticketId, List.of()).stream().map(nodes::get).toList();
+    }
+}
@@ -0,0 +1,13 @@
+package com.trials.crdb.app.services;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/** The ticket columns a "blocked by" chain shows, shared by every chain the ticket appears in. */
+public record DependencyNode(
+        Long id,
+        String title,
+        TicketStatus status,
+        TicketPriority priority,
+        Long dependentOnId) {
+}
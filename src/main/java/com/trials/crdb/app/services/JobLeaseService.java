@@ -0,0 +1,75 @@
+package com.trials.crdb.app.services;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.trials.crdb.app.model.JobLease;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Time-bounded leases on {@link JobLease} rows so a scheduled job runs on one node at a time.
+ * Acquiring is a single conditional upsert: it succeeds when the row is new, expired or
+ * already ours. Watermark writes are fenced by the owner, so a node that lost its lease (GC
+ * pause, clock skew) can't move progress backwards under the new holder.
+ */
+@Service
+public class JobLeaseService {
+
+    public record Watermark(ZonedDateTime time, long id) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public JobLeaseService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public boolean tryAcquire(String job, Duration leaseDuration) {
+        ZonedDateTime now = DateTimeProvider.now();
+        return jdbcTemplate.update(
+            "INSERT INTO job_leases (name, owner, lease_until) VALUES (?, ?, ?) " +
+            "ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, lease_until = EXCLUDED.lease_until " +
+            "WHERE job_leases.owner = EXCLUDED.owner OR job_leases.lease_until < ?",
+            job, nodeId, timestamp(now.plus(leaseDuration)), timestamp(now)) == 1;
+    }
+
+    /** Stores progress and extends the lease. @return false when another node holds the lease */
+    public boolean advance(String job, Watermark watermark, Duration leaseDuration) {
+        return jdbcTemplate.update(
+            "UPDATE job_leases SET watermark_time = ?, watermark_id = ?, lease_until = ? " +
+            "WHERE name = ? AND owner = ?",
+            timestamp(watermark.time()), watermark.id(),
+            timestamp(DateTimeProvider.now().plus(leaseDuration)), job, nodeId) == 1;
+    }
+
+    /** Lets the next node take over right away instead of waiting for the lease to expire. */
+    public void release(String job) {
+        jdbcTemplate.update("UPDATE job_leases SET lease_until = ? WHERE name = ? AND owner = ?",
+            timestamp(DateTimeProvider.now()), job, nodeId);
+    }
+
+    public Optional<Watermark> watermark(String job) {
+        List<Watermark> rows = jdbcTemplate.query(
+            "SELECT watermark_time, watermark_id FROM job_leases WHERE name = ? AND watermark_time IS NOT NULL",
+            (rs, rowNum) -> new Watermark(
+                rs.getTimestamp(1).toInstant().atZone(ZoneOffset.UTC), rs.getLong(2)),
+            job);
+        return rows.stream().findFirst();
+    }
+
+    private static Timestamp timestamp(ZonedDateTime time) {
+        return Timestamp.from(time.toInstant());
+    }
+}
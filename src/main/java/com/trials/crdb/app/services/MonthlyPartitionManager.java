@@ -0,0 +1,243 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Postgres monthly range partitioning of the append-mostly {@code comments} (by
+ * {@code create_time}) and {@code work_logs} (by {@code start_time}) tables. Time-bounded
+ * queries only read the months they cover, and vacuum and indexes work per month.
+ *
+ * At startup a plain table created by Hibernate is rebuilt as a partitioned one in a single
+ * transaction: rows are copied, and indexes and foreign keys are recreated under their names.
+ * This copies the whole table, so run it in a maintenance window on large databases. The
+ * primary key becomes {@code (id, <partition column>)}, and ids still come from the identity.
+ * Exclusion constraints can't live on a partitioned table, so a {@code work_logs} table with
+ * one is refused.
+ *
+ * Maintenance keeps the coming months' partitions created. Rows outside every month land in a
+ * {@code _default} partition and move into their month once it exists. Months older than a
+ * table's retention are detached and dropped; a zero retention keeps everything. Dropped rows
+ * bypass Hibernate, so the rollups keep counting them, and {@link WorkLogRollupReconciler} only
+ * reconciles the retained weeks.
+ */
+@Component
+@ConditionalOnProperty(name = "app.partitioning.mode", havingValue = "postgres")
+public class MonthlyPartitionManager {
+
+    record PartitionedTable(String name, String column, Period retention) {}
+
+    private static final Logger log = LoggerFactory.getLogger(MonthlyPartitionManager.class);
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("'_p'yyyy'_'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int monthsAhead;
+    private final List<PartitionedTable> tables;
+
+    // The EntityManagerFactory dependency makes sure Hibernate has created the tables first
+    public MonthlyPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${app.partitioning.months-ahead:3}") int monthsAhead,
+            @Value("${app.partitioning.comments.retention:P0D}") Period commentsRetention,
+            @Value("${app.partitioning.work-logs.retention:P0D}") Period workLogsRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.tables = List.of(
+            new PartitionedTable("comments", "create_time", commentsRetention),
+            new PartitionedTable("work_logs", "start_time", workLogsRetention));
+    }
+
+    @PostConstruct
+    void start() {
+        partitionTables();
+        maintain();
+    }
+
+    /** Rebuilds the tables that aren't partitioned yet. @return number of tables converted */
+    public int partitionTables() {
+        int converted = 0;
+        for (PartitionedTable table : tables) {
+            if (!isPartitioned(table.name())) {
+                transaction.executeWithoutResult(status -> convert(table));
+                converted++;
+            }
+        }
+        return converted;
+    }
+
+    @Scheduled(cron = "${app.partitioning.cron:0 0 1 * * *}")
+    public void scheduledMaintain() {
+        maintain();
+    }
+
+    /** Creates the partitions up to {@code months-ahead} and drops expired ones. @return partitions created or dropped */
+    public int maintain() {
+        YearMonth current = YearMonth.from(DateTimeProvider.now().withZoneSameInstant(ZoneOffset.UTC));
+        int changes = 0;
+        for (PartitionedTable table : tables) {
+            for (int i = 0; i <= monthsAhead; i++) {
+                if (createPartition(table, current.plusMonths(i))) {
+                    changes++;
+                }
+            }
+            changes += dropExpired(table);
+        }
+        return changes;
+    }
+
+    /** Name of the partition holding {@code month} of {@code table}, e.g. {@code comments_p2026_03}. */
+    public static String partitionName(String table, YearMonth month) {
+        return table + month.format(SUFFIX);
+    }
+
+    private boolean isPartitioned(String table) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass(?)", Integer.class, table) > 0;
+    }
+
+    private void convert(PartitionedTable table) {
+        String name = table.name();
+        String column = table.column();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'x'",
+                Integer.class, name) > 0) {
+            throw new IllegalStateException("Can't partition " + name + ": exclusion constraints aren't supported " +
+                "on partitioned tables, turn off app.work-log-overlap.exclusion-constraint");
+        }
+        // Captured before the rename, so they still name the original table
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT pg_get_indexdef(i.indexrelid) FROM pg_index i WHERE i.indrelid = to_regclass(?) " +
+            "AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conindid = i.indexrelid)", String.class, name);
+        List<String> foreignKeys = jdbcTemplate.query(
+            "SELECT conname, pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+            (rs, rowNum) -> "ALTER TABLE " + name + " ADD CONSTRAINT " + rs.getString(1) + " " + rs.getString(2), name);
+        String columns = String.join(", ", jdbcTemplate.queryForList(
+            "SELECT column_name FROM information_schema.columns WHERE table_schema = current_schema() " +
+            "AND table_name = ? AND is_generated = 'NEVER' ORDER BY ordinal_position", String.class, name));
+        List<ZonedDateTime> range = jdbcTemplate.queryForObject(
+            "SELECT MIN(" + column + "), MAX(" + column + ") FROM " + name, (rs, rowNum) -> {
+                List<ZonedDateTime> bounds = new ArrayList<>();
+                if (rs.getTimestamp(1) != null) {
+                    bounds.add(rs.getTimestamp(1).toInstant().atZone(ZoneOffset.UTC));
+                    bounds.add(rs.getTimestamp(2).toInstant().atZone(ZoneOffset.UTC));
+                }
+                return bounds;
+            });
+
+        String primaryKey = jdbcTemplate.queryForObject(
+            "SELECT conname FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'p'", String.class, name);
+
+        String old = name + "_unpartitioned";
+        jdbcTemplate.execute("ALTER TABLE " + name + " RENAME TO " + old);
+        // Frees the key's index name for the new table's key
+        jdbcTemplate.execute("ALTER TABLE " + old + " RENAME CONSTRAINT " + primaryKey + " TO " + old + "_pkey");
+        jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + old +
+            " INCLUDING DEFAULTS INCLUDING GENERATED INCLUDING IDENTITY INCLUDING CONSTRAINTS," +
+            " PRIMARY KEY (id, " + column + ")) PARTITION BY RANGE (" + column + ")");
+        jdbcTemplate.execute("CREATE TABLE " + name + "_default PARTITION OF " + name + " DEFAULT");
+        if (!range.isEmpty()) {
+            for (YearMonth month = YearMonth.from(range.get(0)); !month.isAfter(YearMonth.from(range.get(1)));
+                    month = month.plusMonths(1)) {
+                createPartition(table, month);
+            }
+        }
+        jdbcTemplate.execute("INSERT INTO " + name + " (" + columns + ") OVERRIDING SYSTEM VALUE SELECT " +
+            columns + " FROM " + old);
+        jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('" + name + "', 'id'), " +
+            "COALESCE(MAX(id), 0) + 1, false) FROM " + name, Long.class);
+        jdbcTemplate.execute("DROP TABLE " + old);
+        indexes.forEach(jdbcTemplate::execute);
+        foreignKeys.forEach(jdbcTemplate::execute);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_" + name + "_" + column + " ON " + name + " (" + column + ")");
+        log.info("Partitioned {} by month of {}", name, column);
+    }
+
+    // Rows of the month already sitting in the default partition are moved over - the default
+    // is detached meanwhile so attaching the new month doesn't find them
+    private boolean createPartition(PartitionedTable table, YearMonth month) {
+        String name = table.name();
+        String partition = partitionName(name, month);
+        if (jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition)) {
+            return false;
+        }
+        String from = "'" + month.atDay(1) + " 00:00:00+00'";
+        String to = "'" + month.plusMonths(1).atDay(1) + " 00:00:00+00'";
+        String inMonth = table.column() + " >= " + from + " AND " + table.column() + " < " + to;
+        transaction.executeWithoutResult(status -> {
+            boolean moving = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + name + "_default WHERE " + inMonth + ")", Boolean.class);
+            if (moving) {
+                jdbcTemplate.execute("ALTER TABLE " + name + " DETACH PARTITION " + name + "_default");
+            }
+            jdbcTemplate.execute("CREATE TABLE " + partition + " PARTITION OF " + name +
+                " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            if (moving) {
+                String columns = String.join(", ", jdbcTemplate.queryForList(
+                    "SELECT column_name FROM information_schema.columns WHERE table_schema = current_schema() " +
+                    "AND table_name = ? AND is_generated = 'NEVER' ORDER BY ordinal_position", String.class, name));
+                jdbcTemplate.execute("INSERT INTO " + name + " (" + columns + ") OVERRIDING SYSTEM VALUE SELECT " +
+                    columns + " FROM " + name + "_default WHERE " + inMonth);
+                jdbcTemplate.execute("DELETE FROM " + name + "_default WHERE " + inMonth);
+                jdbcTemplate.execute("ALTER TABLE " + name + " ATTACH PARTITION " + name + "_default DEFAULT");
+            }
+        });
+        log.info("Created partition {}", partition);
+        return true;
+    }
+
+    private int dropExpired(PartitionedTable table) {
+        if (table.retention().isZero()) {
+            return 0;
+        }
+        // Only months that ended before now minus the retention
+        LocalDate cutoff = DateTimeProvider.now().withZoneSameInstant(ZoneOffset.UTC).toLocalDate()
+            .minus(table.retention());
+        List<String> partitions = jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname", String.class, table.name());
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = monthOf(table.name(), partition);
+            if (month != null && !month.plusMonths(1).atDay(1).isAfter(cutoff)) {
+                transaction.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                });
+                log.info("Dropped expired partition {}", partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    // Null for partitions not named by this class, e.g. the default one
+    private static YearMonth monthOf(String table, String partition) {
+        String suffix = partition.substring(table.length());
+        if (!suffix.matches("_p\\d{4}_\\d{2}")) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(suffix.substring(2, 6)), Integer.parseInt(suffix.substring(7)));
+    }
+}
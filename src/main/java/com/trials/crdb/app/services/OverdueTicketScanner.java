@@ -0,0 +1,120 @@
+package com.trials.crdb.app.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.events.TicketsOverdueEvent;
+import com.trials.crdb.app.repositories.TicketRepository;
+import com.trials.crdb.app.services.JobLeaseService.Watermark;
+import com.trials.crdb.app.utils.DateTimeProvider;
+import com.trials.crdb.app.utils.TicketIndexes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Publishes {@link TicketsOverdueEvent}s for open tickets whose due date passed since the last
+ * run. Each run holds the {@code overdue-scanner} lease, so one node scans at a time, and reads
+ * the partial index on open tickets' due dates from the stored watermark up to now - a run
+ * only touches tickets that are newly overdue. The watermark moves after every published
+ * batch, so a failed run resumes where it stopped.
+ *
+ * Tickets whose due date is edited to before the watermark, or that are reopened after it
+ * passed, are not reported again.
+ */
+@Component
+@ConditionalOnProperty(name = "app.overdue-scanner.enabled", havingValue = "true", matchIfMissing = true)
+public class OverdueTicketScanner {
+
+    static final String JOB = "overdue-scanner";
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTicketScanner.class);
+    private static final Watermark START = new Watermark(Instant.EPOCH.atZone(ZoneOffset.UTC), 0L);
+
+    private final TicketRepository ticketRepository;
+    private final JobLeaseService leases;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final boolean partialIndex;
+
+    // The EntityManagerFactory dependency makes sure the schema exists before the index is created
+    public OverdueTicketScanner(TicketRepository ticketRepository, JobLeaseService leases,
+            ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${app.overdue-scanner.batch-size:500}") int batchSize,
+            @Value("${app.overdue-scanner.lease:PT5M}") Duration leaseDuration,
+            @Value("${app.open-due-index.partial:true}") boolean partialIndex) {
+        this.ticketRepository = ticketRepository;
+        this.leases = leases;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.partialIndex = partialIndex;
+    }
+
+    @PostConstruct
+    void createIndex() {
+        TicketIndexes.createOpenDueDateIndex(jdbcTemplate, partialIndex);
+    }
+
+    @Scheduled(fixedDelayString = "${app.overdue-scanner.interval:PT1M}",
+               initialDelayString = "${app.overdue-scanner.interval:PT1M}")
+    public void scheduledScan() {
+        scan();
+    }
+
+    /** @return number of tickets reported; 0 as well when another node holds the lease */
+    public int scan() {
+        if (!leases.tryAcquire(JOB, leaseDuration)) {
+            return 0;
+        }
+        try {
+            ZonedDateTime now = DateTimeProvider.now();
+            Watermark after = leases.watermark(JOB).orElse(START);
+            int reported = 0;
+            while (true) {
+                List<Object[]> rows = ticketRepository.findOverdueAfter(
+                    after.time(), after.id(), now, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ticketIds = new ArrayList<>(rows.size());
+                for (Object[] row : rows) {
+                    ticketIds.add(((Number) row[0]).longValue());
+                }
+                eventPublisher.publishEvent(new TicketsOverdueEvent(ticketIds, now));
+                reported += ticketIds.size();
+
+                Object[] last = rows.get(rows.size() - 1);
+                after = new Watermark((ZonedDateTime) last[1], ((Number) last[0]).longValue());
+                if (!leases.advance(JOB, after, leaseDuration)) {
+                    log.warn("Lost the {} lease after reporting {} tickets", JOB, reported);
+                    return reported;
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+            return reported;
+        } finally {
+            leases.release(JOB);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.trials.crdb.app.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.repositories.TicketRepository;
+
+/**
+ * Periodically compares the maintained statistics with the full scan in
+ * {@code calculateProjectEstimationStatistics} and rebuilds rows that drifted
+ * (floating point error, bulk SQL that bypassed Hibernate).
+ */
+@Component
+@ConditionalOnProperty(name = "app.estimation-stats.checker.enabled", havingValue = "true", matchIfMissing = true)
+public class ProjectEstimationStatsChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectEstimationStatsChecker.class);
+    private static final double TOLERANCE = 1e-6;
+
+    private final ProjectEstimationStatsService statsService;
+    private final TicketRepository ticketRepository;
+
+    public ProjectEstimationStatsChecker(ProjectEstimationStatsService statsService,
+            TicketRepository ticketRepository) {
+        this.statsService = statsService;
+        this.ticketRepository = ticketRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${app.estimation-stats.checker.interval:PT1H}",
+               initialDelayString = "${app.estimation-stats.checker.interval:PT1H}")
+    public void scheduledCheck() {
+        List<Long> repaired = verifyAll();
+        if (!repaired.isEmpty()) {
+            log.warn("Rebuilt estimation statistics for projects {}", repaired);
+        }
+    }
+
+    /** @return ids of the projects whose statistics had to be rebuilt */
+    public List<Long> verifyAll() {
+        List<Long> repaired = new ArrayList<>();
+        for (Long projectId : statsService.findTrackedProjectIds()) {
+            if (!verify(projectId)) {
+                statsService.rebuild(projectId);
+                repaired.add(projectId);
+            }
+        }
+        return repaired;
+    }
+
+    public boolean verify(Long projectId) {
+        Map<String, Object> expected = ticketRepository.calculateProjectEstimationStatistics(projectId);
+        Map<String, Object> actual = ProjectEstimationStatsService.toMap(statsService.load(projectId));
+        for (String key : List.of("total", "average", "rms")) {
+            if (!close(expected.get(key), actual.get(key))) {
+                log.info("Estimation statistics drift for project {}: {} expected {} but was {}",
+                    projectId, key, expected.get(key), actual.get(key));
+                return false;
+            }
+        }
+        // A stale maximum is an upper bound by design, only a fresh one must match
+        return statsService.load(projectId).isMaxStale() || close(expected.get("maximum"), actual.get("maximum"));
+    }
+
+    private static boolean close(Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        double a = ((Number) expected).doubleValue();
+        double b = ((Number) actual).doubleValue();
+        return Math.abs(a - b) <= TOLERANCE * Math.max(1.0, Math.abs(a));
+    }
+}
@@ -0,0 +1,93 @@
+package com.trials.crdb.app.services;
+
+import java.util.Objects;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Applies every ticket insert, delete, estimate change and project move to the per-project
+ * estimation statistics inside the writing transaction.
+ */
+@Component
+public class ProjectEstimationStatsMaintainer implements PostInsertEventListener,
+        PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ProjectEstimationStatsService statsService;
+
+    public ProjectEstimationStatsMaintainer(EntityManagerFactory entityManagerFactory,
+            ProjectEstimationStatsService statsService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.statsService = statsService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            statsService.add(ticket.getProject().getId(), 1, ticket.getEstimatedHours());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Double oldHours = (Double) oldState[persister.getPropertyIndex("estimatedHours")];
+        Project oldProject = (Project) oldState[persister.getPropertyIndex("project")];
+        Long oldProjectId = oldProject.getId();
+        Long newProjectId = ticket.getProject().getId();
+        Double newHours = ticket.getEstimatedHours();
+
+        boolean moved = !Objects.equals(oldProjectId, newProjectId);
+        if (!moved && Objects.equals(oldHours, newHours)) {
+            return;
+        }
+        int ticketDelta = moved ? 1 : 0;
+        boolean rebuilt = statsService.remove(oldProjectId, ticketDelta, oldHours);
+        // A rebuild of the same project already counted the new estimate
+        if (moved || !rebuilt) {
+            statsService.add(newProjectId, ticketDelta, newHours);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            Object[] state = event.getDeletedState();
+            EntityPersister persister = event.getPersister();
+            Project project = (Project) state[persister.getPropertyIndex("project")];
+            Double hours = (Double) state[persister.getPropertyIndex("estimatedHours")];
+            statsService.remove(project.getId(), 1, hours);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
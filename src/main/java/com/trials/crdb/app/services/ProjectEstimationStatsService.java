@@ -0,0 +1,162 @@
+package com.trials.crdb.app.services;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.ProjectEstimationStats;
+
+/**
+ * O(1) replacement for {@code TicketRepository.calculateProjectEstimationStatistics}, reading the
+ * {@link ProjectEstimationStats} row kept current by {@link ProjectEstimationStatsMaintainer}.
+ *
+ * Writes go through JDBC so they join the surrounding JPA transaction without triggering a flush.
+ */
+@Service
+public class ProjectEstimationStatsService {
+
+    private static final RowMapper<ProjectEstimationStats> ROW_MAPPER = (rs, rowNum) -> {
+        ProjectEstimationStats stats = new ProjectEstimationStats(rs.getLong("project_id"));
+        stats.setTicketCount(rs.getLong("ticket_count"));
+        stats.setEstimatedCount(rs.getLong("estimated_count"));
+        stats.setSumHours(rs.getDouble("sum_hours"));
+        stats.setSumSquares(rs.getDouble("sum_squares"));
+        double max = rs.getDouble("max_hours");
+        stats.setMaxHours(rs.wasNull() ? null : max);
+        stats.setMaxStale(rs.getBoolean("max_stale"));
+        return stats;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProjectEstimationStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Same keys and semantics as the native aggregate: total, average, maximum, rms (root of the
+     * sum of squares). All null when the project has no estimated tickets.
+     */
+    @Transactional
+    public Map<String, Object> getStatistics(Long projectId) {
+        ProjectEstimationStats stats = load(projectId);
+        if (stats == null) {
+            rebuild(projectId);
+            stats = load(projectId);
+        } else if (stats.isMaxStale()) {
+            recomputeMax(projectId);
+            stats = load(projectId);
+        }
+        return toMap(stats);
+    }
+
+    @Transactional(readOnly = true)
+    public ProjectEstimationStats load(Long projectId) {
+        List<ProjectEstimationStats> rows = jdbcTemplate.query(
+            "SELECT * FROM project_estimation_stats WHERE project_id = ?", ROW_MAPPER, projectId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Long> findTrackedProjectIds() {
+        return jdbcTemplate.queryForList("SELECT project_id FROM project_estimation_stats", Long.class);
+    }
+
+    // Maintenance - called from the flush of the transaction that wrote the ticket. Both return
+    // whether the project had no row yet and was rebuilt instead, which already counts every
+    // flushed change to it
+
+    boolean add(Long projectId, int ticketDelta, Double hours) {
+        int updated;
+        if (hours == null) {
+            updated = jdbcTemplate.update(
+                "UPDATE project_estimation_stats SET ticket_count = ticket_count + ? WHERE project_id = ?",
+                ticketDelta, projectId);
+        } else {
+            updated = jdbcTemplate.update(
+                "UPDATE project_estimation_stats SET " +
+                "ticket_count = ticket_count + ?, " +
+                "estimated_count = estimated_count + 1, " +
+                "sum_hours = sum_hours + ?, " +
+                "sum_squares = sum_squares + ?, " +
+                "max_hours = CASE WHEN max_hours IS NULL OR max_hours < ? THEN ? ELSE max_hours END " +
+                "WHERE project_id = ?",
+                ticketDelta, hours, hours * hours, hours, hours, projectId);
+        }
+        if (updated == 0) {
+            // First write for this project - the scan already sees the flushed row
+            rebuild(projectId);
+            return true;
+        }
+        return false;
+    }
+
+    boolean remove(Long projectId, int ticketDelta, Double hours) {
+        int updated;
+        if (hours == null) {
+            updated = jdbcTemplate.update(
+                "UPDATE project_estimation_stats SET ticket_count = ticket_count - ? WHERE project_id = ?",
+                ticketDelta, projectId);
+        } else {
+            updated = jdbcTemplate.update(
+                "UPDATE project_estimation_stats SET " +
+                "ticket_count = ticket_count - ?, " +
+                "estimated_count = estimated_count - 1, " +
+                "sum_hours = sum_hours - ?, " +
+                "sum_squares = sum_squares - ?, " +
+                "max_stale = CASE WHEN max_hours IS NOT NULL AND max_hours <= ? THEN TRUE ELSE max_stale END " +
+                "WHERE project_id = ?",
+                ticketDelta, hours, hours * hours, hours, projectId);
+        }
+        if (updated == 0) {
+            rebuild(projectId);
+            return true;
+        }
+        return false;
+    }
+
+    /** Full recomputation from {@code tickets} - first use of a project and drift repair. */
+    @Transactional
+    public void rebuild(Long projectId) {
+        jdbcTemplate.update(
+            "INSERT INTO project_estimation_stats " +
+            "(project_id, ticket_count, estimated_count, sum_hours, sum_squares, max_hours, max_stale, update_time) " +
+            "SELECT ?, COUNT(*), COUNT(estimated_hours), " +
+            "COALESCE(SUM(estimated_hours), 0), COALESCE(SUM(estimated_hours * estimated_hours), 0), " +
+            "MAX(estimated_hours), FALSE, CURRENT_TIMESTAMP " +
+            "FROM tickets WHERE project_id = ? " +
+            "ON CONFLICT (project_id) DO UPDATE SET " +
+            "ticket_count = EXCLUDED.ticket_count, " +
+            "estimated_count = EXCLUDED.estimated_count, " +
+            "sum_hours = EXCLUDED.sum_hours, " +
+            "sum_squares = EXCLUDED.sum_squares, " +
+            "max_hours = EXCLUDED.max_hours, " +
+            "max_stale = FALSE, " +
+            "update_time = EXCLUDED.update_time",
+            projectId, projectId);
+    }
+
+    private void recomputeMax(Long projectId) {
+        jdbcTemplate.update(
+            "UPDATE project_estimation_stats SET " +
+            "max_hours = (SELECT MAX(estimated_hours) FROM tickets WHERE project_id = ?), " +
+            "max_stale = FALSE " +
+            "WHERE project_id = ?",
+            projectId, projectId);
+    }
+
+    static Map<String, Object> toMap(ProjectEstimationStats stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        boolean empty = stats.getEstimatedCount() == 0;
+        result.put("total", empty ? null : stats.getSumHours());
+        result.put("average", empty ? null : stats.getSumHours() / stats.getEstimatedCount());
+        result.put("maximum", empty ? null : stats.getMaxHours());
+        result.put("rms", empty ? null : Math.sqrt(Math.max(stats.getSumSquares(), 0.0)));
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package com.trials.crdb.app.services;
+
+import java.time.Duration;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Records {@code resolvedDate - createTime} in the resolution-time sketches when a ticket gets
+ * its resolved date, in the same transaction. Sketches can't forget samples, so later edits
+ * and deletes of resolved tickets leave them unchanged.
+ */
+@Component
+public class ResolutionTimeSketchMaintainer implements PostInsertEventListener, PostUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ResolutionTimeSketchService sketchService;
+
+    public ResolutionTimeSketchMaintainer(EntityManagerFactory entityManagerFactory,
+            ResolutionTimeSketchService sketchService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.sketchService = sketchService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket && ticket.getResolvedDate() != null) {
+            record(ticket);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || ticket.getResolvedDate() == null
+                || event.getOldState() == null) {
+            return;
+        }
+        int index = event.getPersister().getPropertyIndex("resolvedDate");
+        if (event.getOldState()[index] == null) {
+            record(ticket);
+        }
+    }
+
+    private void record(Ticket ticket) {
+        Duration resolutionTime = ticket.getResolutionTime();
+        if (resolutionTime != null) {
+            sketchService.record(ticket.getProject().getId(), ticket.getPriority(),
+                ticket.getResolvedDate(), resolutionTime);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
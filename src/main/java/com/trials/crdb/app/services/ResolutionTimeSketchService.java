@@ -0,0 +1,230 @@
+package com.trials.crdb.app.services;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.trials.crdb.app.model.ResolutionTimeSketch;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+
+/**
+ * Resolution-time percentiles per project and priority from the {@link ResolutionTimeSketch} rows.
+ *
+ * Merged histograms are cached per query. Commits on this node invalidate the cache at once,
+ * writes from other nodes become visible after {@code max-age}. Percentiles are computed in Java,
+ * so they don't depend on {@code percentile_cont} (missing on Spanner).
+ */
+@Service
+public class ResolutionTimeSketchService {
+
+    // 2 significant digits - 1% value error, small enough counts array to merge and scan quickly
+    static final int SIGNIFICANT_DIGITS = 2;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_CACHED_QUERIES = 1024;
+
+    record Query(Set<Long> projectIds, Set<TicketPriority> priorities, LocalDate from, LocalDate to) {}
+
+    private record Cached(long generation, long loadedAtNanos, Histogram histogram) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final long maxAgeNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Query, Cached> cache = new ConcurrentHashMap<>();
+
+    public ResolutionTimeSketchService(JdbcTemplate jdbcTemplate,
+            @Value("${app.resolution-sketch.cache.max-age:1m}") Duration maxAge) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.maxAgeNanos = maxAge.toNanos();
+    }
+
+    /**
+     * @param projectIds null or empty for all projects
+     * @param priorities null or empty for all priorities
+     * @param percentiles e.g. 50.0, 90.0, 99.0
+     * @return resolution time per requested percentile, empty when nothing was resolved
+     */
+    public Map<Double, Duration> percentiles(Collection<Long> projectIds, Collection<TicketPriority> priorities,
+            LocalDate from, LocalDate to, double... percentiles) {
+        Histogram histogram = cachedHistogram(new Query(
+            projectIds == null ? Set.of() : Set.copyOf(projectIds),
+            priorities == null ? Set.of() : Set.copyOf(priorities),
+            from, to));
+        Map<Double, Duration> result = new LinkedHashMap<>();
+        if (histogram.getTotalCount() == 0) {
+            return result;
+        }
+        for (double percentile : percentiles) {
+            result.put(percentile, Duration.ofSeconds(histogram.getValueAtPercentile(percentile)));
+        }
+        return result;
+    }
+
+    public Map<Double, Duration> percentiles(Long projectId, TicketPriority priority,
+            LocalDate from, LocalDate to, double... percentiles) {
+        return percentiles(projectId == null ? null : Set.of(projectId),
+            priority == null ? null : Set.of(priority), from, to, percentiles);
+    }
+
+    /** Merged histogram (seconds) for ad-hoc statistics - a copy, free to modify. */
+    public Histogram histogram(Collection<Long> projectIds, Collection<TicketPriority> priorities,
+            LocalDate from, LocalDate to) {
+        return cachedHistogram(new Query(
+            projectIds == null ? Set.of() : Set.copyOf(projectIds),
+            priorities == null ? Set.of() : Set.copyOf(priorities),
+            from, to)).copy();
+    }
+
+    private Histogram cachedHistogram(Query query) {
+        long now = System.nanoTime();
+        long currentGeneration = generation.get();
+        Cached cached = cache.get(query);
+        if (cached != null && cached.generation() == currentGeneration
+                && now - cached.loadedAtNanos() < maxAgeNanos) {
+            return cached.histogram();
+        }
+        Histogram histogram = load(query);
+        if (cache.size() >= MAX_CACHED_QUERIES) {
+            cache.clear();
+        }
+        cache.put(query, new Cached(currentGeneration, now, histogram));
+        return histogram;
+    }
+
+    private Histogram load(Query query) {
+        StringBuilder sql = new StringBuilder(
+            "SELECT histogram FROM resolution_time_sketches WHERE bucket_day BETWEEN :from AND :to");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("from", query.from())
+            .addValue("to", query.to());
+        if (!query.projectIds().isEmpty()) {
+            sql.append(" AND project_id IN (:projectIds)");
+            params.addValue("projectIds", query.projectIds());
+        }
+        if (!query.priorities().isEmpty()) {
+            sql.append(" AND priority IN (:priorities)");
+            params.addValue("priorities", query.priorities().stream().map(Enum::name).toList());
+        }
+        Histogram merged = newHistogram();
+        for (byte[] bytes : namedJdbcTemplate.queryForList(sql.toString(), params, byte[].class)) {
+            merged.add(decode(bytes));
+        }
+        return merged;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    // Maintenance - called from the flush of the transaction that resolved the ticket
+
+    /**
+     * Optimistic read-modify-write of the day's sketch. Concurrent resolutions of the same project
+     * and priority on the same day retry against the committed histogram.
+     */
+    void record(Long projectId, TicketPriority priority, ZonedDateTime resolvedDate, Duration resolutionTime) {
+        LocalDate day = resolvedDate.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+        long seconds = Math.max(0, resolutionTime.getSeconds());
+
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, histogram, version FROM resolution_time_sketches " +
+                "WHERE project_id = ? AND priority = ? AND bucket_day = ?",
+                projectId, priority.name(), day);
+
+            if (rows.isEmpty()) {
+                Histogram histogram = newHistogram();
+                histogram.recordValue(seconds);
+                int inserted = jdbcTemplate.update(
+                    "INSERT INTO resolution_time_sketches " +
+                    "(project_id, priority, bucket_day, sample_count, histogram, version, update_time) " +
+                    "VALUES (?, ?, ?, 1, ?, 0, CURRENT_TIMESTAMP) " +
+                    "ON CONFLICT (project_id, priority, bucket_day) DO NOTHING",
+                    projectId, priority.name(), day, encode(histogram));
+                if (inserted == 1) {
+                    invalidateAfterCommit();
+                    return;
+                }
+                continue;
+            }
+
+            Map<String, Object> row = rows.get(0);
+            Histogram histogram = decode((byte[]) row.get("histogram"));
+            histogram.recordValue(seconds);
+            long version = ((Number) row.get("version")).longValue();
+            int updated = jdbcTemplate.update(
+                "UPDATE resolution_time_sketches SET histogram = ?, sample_count = ?, " +
+                "version = version + 1, update_time = CURRENT_TIMESTAMP " +
+                "WHERE id = ? AND version = ?",
+                encode(histogram), histogram.getTotalCount(), row.get("id"), version);
+            if (updated == 1) {
+                invalidateAfterCommit();
+                return;
+            }
+        }
+        throw new OptimisticLockingFailureException(
+            "Resolution time sketch for project " + projectId + ", " + priority + ", " + day
+                + " kept changing concurrently");
+    }
+
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        } else {
+            generation.incrementAndGet();
+        }
+    }
+
+    static Histogram newHistogram() {
+        Histogram histogram = new Histogram(SIGNIFICANT_DIGITS);
+        histogram.setAutoResize(true);
+        return histogram;
+    }
+
+    static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static Histogram decode(byte[] bytes) {
+        try {
+            Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(bytes), 0);
+            histogram.setAutoResize(true);
+            return histogram;
+        } catch (DataFormatException e) {
+            throw new DataRetrievalFailureException("Corrupt resolution time sketch", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.trials.crdb.app.services;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @param committedHours estimate of the sprint tickets still open when the sprint started
+ * @param completedHours estimate of the tickets resolved during the sprint - the velocity
+ */
+public record SprintBurndown(
+        Long sprintId,
+        List<BurndownPoint> points,
+        double committedHours,
+        double completedHours,
+        Set<Long> ticketIds) {
+}
@@ -0,0 +1,274 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.SprintChangedEvent;
+import com.trials.crdb.app.events.TicketChangedEvent;
+import com.trials.crdb.app.events.WorkLogChangedEvent;
+import com.trials.crdb.app.model.Sprint;
+import com.trials.crdb.app.repositories.SprintRepository;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Burndown and velocity per sprint, computed in one pass over the sprint's tickets, resolutions
+ * and work logs read as a single time-ordered stream. Results are cached per sprint; committed
+ * changes to a member ticket's estimate or resolution, its work logs, or the sprint itself evict
+ * only the affected sprints.
+ *
+ * Days are UTC dates. {@code sprint_tickets} has no timestamps, so tickets added mid-sprint count
+ * as committed from the start.
+ */
+@Service
+public class SprintBurndownService {
+
+    private static final Set<String> TICKET_INPUTS = Set.of("estimatedHours", "resolvedDate");
+
+    // kind 0: membership with estimate (no time, sorted first), 1: resolution, 2: work log
+    private static final String EVENTS =
+        "SELECT kind, ticket_id, event_time, amount FROM (" +
+        " SELECT 0 AS kind, t.id AS ticket_id, CAST(NULL AS TIMESTAMP WITH TIME ZONE) AS event_time, t.estimated_hours AS amount" +
+        " FROM sprint_tickets st JOIN tickets t ON t.id = st.ticket_id WHERE st.sprint_id = ?" +
+        " UNION ALL" +
+        " SELECT 1, t.id, t.resolved_date, t.estimated_hours" +
+        " FROM sprint_tickets st JOIN tickets t ON t.id = st.ticket_id" +
+        " WHERE st.sprint_id = ? AND t.resolved_date IS NOT NULL AND t.resolved_date < ?" +
+        " UNION ALL" +
+        " SELECT 2, w.ticket_id, w.start_time, w.hours_spent" +
+        " FROM sprint_tickets st JOIN work_logs w ON w.ticket_id = st.ticket_id" +
+        " WHERE st.sprint_id = ? AND w.start_time < ?" +
+        ") events ORDER BY event_time NULLS FIRST, kind, ticket_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SprintRepository sprintRepository;
+    private final Map<Long, SprintBurndown> cache = new ConcurrentHashMap<>();
+    // Bumped on every eviction so a computation racing with a write isn't cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public SprintBurndownService(JdbcTemplate jdbcTemplate, SprintRepository sprintRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sprintRepository = sprintRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public SprintBurndown burndown(Long sprintId) {
+        SprintBurndown cached = cache.get(sprintId);
+        if (cached != null) {
+            return cached;
+        }
+        Sprint sprint = sprintRepository.findById(sprintId)
+            .orElseThrow(() -> new IllegalArgumentException("Sprint not found: " + sprintId));
+        return burndown(sprint);
+    }
+
+    /** Last {@code count} sprints of the project that ended, most recent first. */
+    @Transactional(readOnly = true)
+    public List<SprintVelocity> velocity(Long projectId, int count) {
+        List<SprintVelocity> result = new ArrayList<>();
+        for (Sprint sprint : sprintRepository.findFinishedSprints(
+                projectId, DateTimeProvider.now(), PageRequest.of(0, count))) {
+            SprintBurndown burndown = cache.get(sprint.getId());
+            if (burndown == null) {
+                burndown = burndown(sprint);
+            }
+            result.add(new SprintVelocity(sprint.getId(), sprint.getName(), sprint.getEndDate(),
+                burndown.committedHours(), burndown.completedHours()));
+        }
+        return result;
+    }
+
+    /** Mean completed hours over the last {@code count} finished sprints, 0 when there are none. */
+    @Transactional(readOnly = true)
+    public double averageVelocity(Long projectId, int count) {
+        return velocity(projectId, count).stream()
+            .mapToDouble(SprintVelocity::completedHours)
+            .average()
+            .orElse(0.0);
+    }
+
+    private SprintBurndown burndown(Sprint sprint) {
+        long evictionsBefore = evictions.get();
+        SprintBurndown burndown = compute(sprint);
+        if (evictions.get() == evictionsBefore) {
+            cache.put(sprint.getId(), burndown);
+        }
+        return burndown;
+    }
+
+    private SprintBurndown compute(Sprint sprint) {
+        LocalDate firstDay = utcDate(sprint.getStartDate());
+        LocalDate lastDay = utcDate(sprint.getEndDate());
+        if (lastDay.isBefore(firstDay)) {
+            lastDay = firstDay;
+        }
+        OffsetDateTime sprintStart = firstDay.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime cutoff = lastDay.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC);
+
+        Sweep sweep = new Sweep(firstDay, lastDay, sprintStart);
+        jdbcTemplate.query(EVENTS, rs -> {
+            int kind = rs.getInt("kind");
+            long ticketId = rs.getLong("ticket_id");
+            OffsetDateTime time = rs.getObject("event_time", OffsetDateTime.class);
+            double amount = rs.getDouble("amount");
+            switch (kind) {
+                case 0 -> sweep.member(ticketId, amount);
+                case 1 -> sweep.resolved(ticketId, time);
+                default -> sweep.logged(ticketId, time, amount);
+            }
+        }, sprint.getId(), sprint.getId(), cutoff, sprint.getId(), cutoff);
+        return sweep.finish(sprint.getId());
+    }
+
+    /**
+     * Running state of the single pass. Events before the sprint start only shape the opening
+     * values; each later event first closes the days before it.
+     */
+    private static final class Sweep {
+        private final LocalDate firstDay;
+        private final LocalDate lastDay;
+        private final OffsetDateTime sprintStart;
+        private final Map<Long, Double> estimates = new HashMap<>();
+        private final Map<Long, Double> logged = new HashMap<>();
+        private final Set<Long> resolved = new HashSet<>();
+        private final List<BurndownPoint> points = new ArrayList<>();
+
+        private double remainingEstimate;
+        private double remainingWork;
+        private double committed = Double.NaN;
+        private double completed;
+        private double loggedToday;
+        private int resolvedInSprint;
+        private LocalDate day;
+
+        Sweep(LocalDate firstDay, LocalDate lastDay, OffsetDateTime sprintStart) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.sprintStart = sprintStart;
+            this.day = firstDay;
+        }
+
+        void member(long ticketId, double estimate) {
+            estimates.put(ticketId, estimate);
+            remainingEstimate += estimate;
+            remainingWork += estimate;
+        }
+
+        void resolved(long ticketId, OffsetDateTime time) {
+            advanceTo(time);
+            if (!resolved.add(ticketId)) {
+                return;
+            }
+            double estimate = estimates.getOrDefault(ticketId, 0.0);
+            remainingEstimate -= estimate;
+            remainingWork -= outstanding(ticketId);
+            if (!time.isBefore(sprintStart)) {
+                completed += estimate;
+                resolvedInSprint++;
+            }
+        }
+
+        void logged(long ticketId, OffsetDateTime time, double hours) {
+            advanceTo(time);
+            double before = outstanding(ticketId);
+            logged.merge(ticketId, hours, Double::sum);
+            if (!resolved.contains(ticketId)) {
+                remainingWork -= before - outstanding(ticketId);
+            }
+            if (!time.isBefore(sprintStart)) {
+                loggedToday += hours;
+            }
+        }
+
+        private double outstanding(long ticketId) {
+            return Math.max(0.0, estimates.getOrDefault(ticketId, 0.0) - logged.getOrDefault(ticketId, 0.0));
+        }
+
+        private void advanceTo(OffsetDateTime time) {
+            if (time.isBefore(sprintStart)) {
+                return;
+            }
+            openSprint();
+            LocalDate eventDay = time.atZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+            while (day.isBefore(eventDay)) {
+                closeDay();
+            }
+        }
+
+        private void openSprint() {
+            if (Double.isNaN(committed)) {
+                committed = remainingEstimate;
+            }
+        }
+
+        private void closeDay() {
+            long totalDays = firstDay.until(lastDay).getDays();
+            long elapsed = firstDay.until(day).getDays();
+            double ideal = totalDays == 0 ? 0.0 : committed * (1.0 - (double) elapsed / totalDays);
+            points.add(new BurndownPoint(day, remainingEstimate, remainingWork, loggedToday, ideal, resolvedInSprint));
+            loggedToday = 0.0;
+            day = day.plusDays(1);
+        }
+
+        SprintBurndown finish(Long sprintId) {
+            openSprint();
+            while (!day.isAfter(lastDay)) {
+                closeDay();
+            }
+            return new SprintBurndown(sprintId, List.copyOf(points), committed, completed,
+                Set.copyOf(estimates.keySet()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(TicketChangedEvent event) {
+        if (event.type() == EntityChangeType.INSERT || !event.changedAny(TICKET_INPUTS)) {
+            return;
+        }
+        evictContaining(event.ticketId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWorkLogChanged(WorkLogChangedEvent event) {
+        evictContaining(event.ticketId());
+        if (event.previousTicketId() != null && !event.previousTicketId().equals(event.ticketId())) {
+            evictContaining(event.previousTicketId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSprintChanged(SprintChangedEvent event) {
+        evictions.incrementAndGet();
+        cache.remove(event.sprintId());
+    }
+
+    public void invalidateAll() {
+        evictions.incrementAndGet();
+        cache.clear();
+    }
+
+    private void evictContaining(Long ticketId) {
+        evictions.incrementAndGet();
+        cache.values().removeIf(burndown -> burndown.ticketIds().contains(ticketId));
+    }
+
+    private static LocalDate utcDate(ZonedDateTime dateTime) {
+        return dateTime.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+}
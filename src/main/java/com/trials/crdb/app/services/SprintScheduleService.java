@@ -0,0 +1,158 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.cache.IntervalTree;
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.SprintChangedEvent;
+import com.trials.crdb.app.model.Sprint;
+import com.trials.crdb.app.repositories.SprintRepository;
+import com.trials.crdb.app.utils.ExclusionConstraints;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the sprints of a project from overlapping. Periods are half-open, so a sprint may
+ * start the moment the previous one ends.
+ *
+ * On Postgres, with {@code app.sprint-schedule.exclusion-constraint=true}, the rule is an
+ * exclusion constraint over {@code tstzrange(start_date, end_date)}: the database rejects
+ * conflicting inserts atomically, and overlap queries probe its GiST index. CockroachDB and
+ * Spanner have neither, so scheduling checks for conflicts in a SERIALIZABLE transaction and
+ * overlap queries are answered from per-project {@link IntervalTree}s. The trees load
+ * on first use and follow committed {@link SprintChangedEvent}s; call {@link #reload()} after
+ * bulk SQL. Concurrent conflicting schedules fail with a serialization error there - retry them.
+ */
+@Service
+public class SprintScheduleService {
+
+    private static final Logger log = LoggerFactory.getLogger(SprintScheduleService.class);
+
+    private final SprintRepository sprintRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean exclusionConstraint;
+    private final Map<Long, IntervalTree> trees = new HashMap<>();
+    private final Map<Long, Long> projectOfSprint = new HashMap<>();
+    private volatile boolean loaded;
+
+    public SprintScheduleService(SprintRepository sprintRepository, JdbcTemplate jdbcTemplate,
+            @Value("${app.sprint-schedule.exclusion-constraint:false}") boolean exclusionConstraint) {
+        this.sprintRepository = sprintRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exclusionConstraint = exclusionConstraint;
+    }
+
+    @PostConstruct
+    void createConstraint() {
+        if (exclusionConstraint) {
+            ExclusionConstraints.createPeriodConstraint(jdbcTemplate, "sprints", "excl_sprints_project_period",
+                "project_id", "start_date", "end_date");
+        }
+    }
+
+    /**
+     * Inserts or moves a sprint.
+     *
+     * @throws DataIntegrityViolationException when it overlaps another sprint of its project
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public Sprint schedule(Sprint sprint) {
+        if (!sprint.getEndDate().isAfter(sprint.getStartDate())) {
+            throw new IllegalArgumentException("Sprint must end after it starts");
+        }
+        if (!exclusionConstraint) {
+            List<Long> conflicts = sprintRepository.findIdsOverlappingPeriod(sprint.getProject().getId(),
+                sprint.getStartDate(), sprint.getEndDate(), sprint.getId() == null ? 0L : sprint.getId());
+            if (!conflicts.isEmpty()) {
+                throw new DataIntegrityViolationException(
+                    "Sprint '" + sprint.getName() + "' overlaps sprints " + conflicts);
+            }
+        }
+        // Flushed here so the exclusion constraint is checked inside this call
+        return sprintRepository.saveAndFlush(sprint);
+    }
+
+    /** Sprints of the project overlapping {@code [start, end)}, by start. */
+    public List<Long> overlapping(Long projectId, ZonedDateTime start, ZonedDateTime end) {
+        if (exclusionConstraint) {
+            return sprintRepository.findIdsOverlappingRange(projectId, start, end);
+        }
+        synchronized (this) {
+            ensureLoaded();
+            IntervalTree tree = trees.get(projectId);
+            if (tree == null) {
+                return List.of();
+            }
+            long[] ids = tree.overlapping(millis(start), millis(end));
+            return Arrays.stream(ids).boxed().toList();
+        }
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        trees.clear();
+        projectOfSprint.clear();
+        jdbcTemplate.query("SELECT id, project_id, start_date, end_date FROM sprints", rs -> {
+            put(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).getTime(), rs.getTimestamp(4).getTime());
+        });
+        loaded = true;
+        log.info("Loaded {} sprint periods in {} ms", projectOfSprint.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    private void put(long sprintId, long projectId, long startMillis, long endMillis) {
+        remove(sprintId);
+        trees.computeIfAbsent(projectId, id -> new IntervalTree()).put(sprintId, startMillis, endMillis);
+        projectOfSprint.put(sprintId, projectId);
+    }
+
+    private void remove(long sprintId) {
+        Long projectId = projectOfSprint.remove(sprintId);
+        if (projectId != null) {
+            IntervalTree tree = trees.get(projectId);
+            tree.remove(sprintId);
+            if (tree.size() == 0) {
+                trees.remove(projectId);
+            }
+        }
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    // Serialised with reload(): a change committed while loading is re-read once the load is done
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onSprintChanged(SprintChangedEvent event) {
+        if (!loaded || exclusionConstraint) {
+            return;
+        }
+        if (event.type() == EntityChangeType.DELETE) {
+            remove(event.sprintId());
+            return;
+        }
+        remove(event.sprintId());
+        jdbcTemplate.query("SELECT project_id, start_date, end_date FROM sprints WHERE id = ?", rs -> {
+            put(event.sprintId(), rs.getLong(1), rs.getTimestamp(2).getTime(), rs.getTimestamp(3).getTime());
+        }, event.sprintId());
+    }
+}
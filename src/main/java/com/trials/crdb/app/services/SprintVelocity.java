@@ -0,0 +1,11 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+
+public record SprintVelocity(
+        Long sprintId,
+        String name,
+        ZonedDateTime endDate,
+        double committedHours,
+        double completedHours) {
+}
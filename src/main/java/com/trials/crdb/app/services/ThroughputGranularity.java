@@ -0,0 +1,42 @@
+package com.trials.crdb.app.services;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+import com.trials.crdb.app.model.TicketThroughputBucket.Granularity;
+
+/**
+ * Chart granularities. Weeks (starting Monday) and months are folded from the daily rows.
+ */
+public enum ThroughputGranularity {
+    HOUR(Granularity.HOUR),
+    DAY(Granularity.DAY),
+    WEEK(Granularity.DAY),
+    MONTH(Granularity.DAY);
+
+    private final Granularity source;
+
+    ThroughputGranularity(Granularity source) {
+        this.source = source;
+    }
+
+    public Granularity getSource() {
+        return source;
+    }
+
+    /** Start of the UTC bucket containing the instant. */
+    public Instant bucketStart(Instant instant) {
+        ZonedDateTime utc = instant.atZone(ZoneOffset.UTC);
+        return switch (this) {
+            case HOUR -> utc.truncatedTo(ChronoUnit.HOURS).toInstant();
+            case DAY -> utc.truncatedTo(ChronoUnit.DAYS).toInstant();
+            case WEEK -> utc.truncatedTo(ChronoUnit.DAYS)
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toInstant();
+            case MONTH -> utc.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).toInstant();
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.trials.crdb.app.services;
+
+import java.time.Instant;
+
+public record ThroughputPoint(Instant bucketStart, long created, long resolved, long closed) {
+
+    ThroughputPoint plus(ThroughputPoint other) {
+        return new ThroughputPoint(bucketStart, created + other.created, resolved + other.resolved,
+            closed + other.closed);
+    }
+}
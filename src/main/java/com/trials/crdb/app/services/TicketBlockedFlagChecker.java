@@ -0,0 +1,41 @@
+package com.trials.crdb.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes {@code tickets.blocked} at startup and then periodically. At startup it fills in
+ * the flag of tickets that existed before the column was added, which the column default left
+ * false. Later runs repair flags gone stale through bulk SQL, or through a ticket re-pointed at
+ * a dependency that another transaction resolved at the same time - neither write sees the
+ * other's row.
+ */
+@Component
+@ConditionalOnProperty(name = "app.blocked-flag.checker.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketBlockedFlagChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketBlockedFlagChecker.class);
+
+    private final TicketBlockedFlagMaintainer blockedFlagMaintainer;
+
+    public TicketBlockedFlagChecker(TicketBlockedFlagMaintainer blockedFlagMaintainer) {
+        this.blockedFlagMaintainer = blockedFlagMaintainer;
+    }
+
+    @Scheduled(fixedDelayString = "${app.blocked-flag.checker.interval:PT1H}", initialDelay = 0)
+    public void scheduledCheck() {
+        repair();
+    }
+
+    /** @return number of tickets whose flag was wrong */
+    public int repair() {
+        int repaired = blockedFlagMaintainer.refreshAll();
+        if (repaired > 0) {
+            log.warn("Repaired the blocked flag of {} tickets", repaired);
+        }
+        return repaired;
+    }
+}
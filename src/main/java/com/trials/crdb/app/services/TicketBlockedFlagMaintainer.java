@@ -0,0 +1,99 @@
+package com.trials.crdb.app.services;
+
+import java.util.Objects;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps {@code tickets.blocked} current inside the writing transaction: a ticket's own flag when
+ * it is inserted or its {@code dependentOn} changes, and the flags of its direct dependents when
+ * it moves between unresolved and RESOLVED/CLOSED. Flags are read from the rows, so changes to
+ * either side within one flush settle in whatever order Hibernate executes them.
+ *
+ * The updates go straight to the rows, so {@code Ticket.blocked} of entities already in the
+ * persistence context isn't updated. Concurrent writes to both sides can leave a stale flag,
+ * which {@link TicketBlockedFlagChecker} repairs.
+ */
+@Component
+public class TicketBlockedFlagMaintainer implements PostInsertEventListener, PostUpdateEventListener {
+
+    static final String REFRESH_OWN_FLAG =
+        "UPDATE tickets SET blocked = EXISTS (SELECT 1 FROM tickets d " +
+        "WHERE d.id = tickets.dependent_on_id AND d.status NOT IN ('RESOLVED', 'CLOSED')) WHERE id = ?";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TicketBlockedFlagMaintainer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+    }
+
+    /** Recomputes every flag, after bulk SQL that bypassed Hibernate. @return rows changed */
+    @Transactional
+    public int refreshAll() {
+        return jdbcTemplate.update(
+            "UPDATE tickets SET blocked = NOT blocked WHERE blocked <> EXISTS (SELECT 1 FROM tickets d " +
+            "WHERE d.id = tickets.dependent_on_id AND d.status NOT IN ('RESOLVED', 'CLOSED'))");
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket && ticket.getDependentOn() != null) {
+            jdbcTemplate.update(REFRESH_OWN_FLAG, ticket.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Ticket oldDependentOn = (Ticket) oldState[persister.getPropertyIndex("dependentOn")];
+        if (!Objects.equals(idOf(oldDependentOn), idOf(ticket.getDependentOn()))) {
+            jdbcTemplate.update(REFRESH_OWN_FLAG, ticket.getId());
+        }
+        TicketStatus oldStatus = (TicketStatus) oldState[persister.getPropertyIndex("status")];
+        boolean wasDone = isDone(oldStatus);
+        boolean done = isDone(ticket.getStatus());
+        if (wasDone != done) {
+            jdbcTemplate.update("UPDATE tickets SET blocked = ? WHERE dependent_on_id = ?", !done, ticket.getId());
+        }
+    }
+
+    static boolean isDone(TicketStatus status) {
+        return status == TicketStatus.RESOLVED || status == TicketStatus.CLOSED;
+    }
+
+    private static Long idOf(Ticket ticket) {
+        return ticket == null ? null : ticket.getId();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,40 @@
+package com.trials.crdb.app.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically compares {@code ticket_dependency_closure} with {@code dependent_on_id} and
+ * rebuilds it when they disagree (bulk SQL that bypassed Hibernate, concurrent re-parenting).
+ */
+@Component
+@ConditionalOnProperty(name = "app.dependency-closure.checker.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketDependencyClosureChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketDependencyClosureChecker.class);
+
+    private final TicketDependencyClosureService closureService;
+
+    public TicketDependencyClosureChecker(TicketDependencyClosureService closureService) {
+        this.closureService = closureService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.dependency-closure.checker.interval:PT1H}",
+               initialDelayString = "${app.dependency-closure.checker.interval:PT1H}")
+    public void scheduledCheck() {
+        verifyAndRepair();
+    }
+
+    /** @return number of differences found; the closure has been rebuilt when it isn't 0 */
+    public int verifyAndRepair() {
+        int differences = closureService.verify();
+        if (differences > 0) {
+            int rows = closureService.rebuild();
+            log.warn("Rebuilt ticket dependency closure ({} rows) after {} differences", rows, differences);
+        }
+        return differences;
+    }
+}
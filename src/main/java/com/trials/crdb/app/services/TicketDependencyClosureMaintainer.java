@@ -0,0 +1,76 @@
+package com.trials.crdb.app.services;
+
+import java.util.Objects;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps {@code ticket_dependency_closure} in step with {@code dependent_on_id} inside the
+ * writing transaction.
+ */
+@Component
+public class TicketDependencyClosureMaintainer implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TicketDependencyClosureService closureService;
+
+    public TicketDependencyClosureMaintainer(EntityManagerFactory entityManagerFactory,
+            TicketDependencyClosureService closureService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.closureService = closureService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket && ticket.getDependentOn() != null) {
+            closureService.move(ticket.getId(), null, ticket.getDependentOn().getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        Ticket oldParent = (Ticket) event.getOldState()[event.getPersister().getPropertyIndex("dependentOn")];
+        Long oldParentId = oldParent == null ? null : oldParent.getId();
+        Long newParentId = ticket.getDependentOn() == null ? null : ticket.getDependentOn().getId();
+        if (!Objects.equals(oldParentId, newParentId)) {
+            closureService.move(ticket.getId(), oldParentId, newParentId);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            closureService.remove(ticket.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
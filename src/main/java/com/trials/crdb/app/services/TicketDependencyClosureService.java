@@ -0,0 +1,223 @@
+package com.trials.crdb.app.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+import com.trials.crdb.app.model.TicketDependencyClosure;
+import com.trials.crdb.app.utils.QueryResults;
+
+/**
+ * Ancestor, descendant and subtree queries read from {@link TicketDependencyClosure} with one
+ * indexed lookup each - no recursive CTE, so they run the same on Spanner. Rebuild and verify
+ * walk {@code dependent_on_id} in Java for the same reason.
+ */
+@Service
+public class TicketDependencyClosureService {
+
+    static final String INSERT =
+        "INSERT INTO ticket_dependency_closure (ancestor_id, descendant_id, depth) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TicketDependencyClosureService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /** Tickets the given ticket depends on, directly first. */
+    @Transactional(readOnly = true)
+    public List<Long> ancestors(Long ticketId) {
+        return jdbcTemplate.queryForList(
+            "SELECT ancestor_id FROM ticket_dependency_closure WHERE descendant_id = ? ORDER BY depth",
+            Long.class, ticketId);
+    }
+
+    /** Tickets that depend on the given ticket, directly first. */
+    @Transactional(readOnly = true)
+    public List<Long> descendants(Long ticketId) {
+        return jdbcTemplate.queryForList(
+            "SELECT descendant_id FROM ticket_dependency_closure WHERE ancestor_id = ? ORDER BY depth, descendant_id",
+            Long.class, ticketId);
+    }
+
+    @Transactional(readOnly = true)
+    public int depth(Long ticketId) {
+        Integer depth = jdbcTemplate.queryForObject(
+            "SELECT MAX(depth) FROM ticket_dependency_closure WHERE descendant_id = ?", Integer.class, ticketId);
+        return depth == null ? 0 : depth;
+    }
+
+    /** Number of tickets blocked by the given ticket, directly or transitively. */
+    @Transactional(readOnly = true)
+    public long countDescendants(Long ticketId) {
+        return countDescendants(List.of(ticketId)).getOrDefault(ticketId, 0L);
+    }
+
+    /** Subtree sizes for a page of tickets; tickets nothing depends on are absent. */
+    @Transactional(readOnly = true)
+    public Map<Long, Long> countDescendants(Collection<Long> ticketIds) {
+        if (ticketIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object[]> rows = namedJdbcTemplate.query(
+            "SELECT ancestor_id, COUNT(*) FROM ticket_dependency_closure " +
+            "WHERE ancestor_id IN (:ticketIds) GROUP BY ancestor_id",
+            Map.of("ticketIds", ticketIds),
+            (rs, rowNum) -> new Object[] {rs.getLong(1), rs.getLong(2)});
+        return QueryResults.toLongMap(rows);
+    }
+
+    /**
+     * The dependency chains of a page of tickets in one round trip: a closure join for the
+     * ancestors plus the requested tickets themselves, deduplicated into shared nodes.
+     */
+    @Transactional(readOnly = true)
+    public DependencyChains chains(Collection<Long> ticketIds) {
+        Map<Long, DependencyNode> nodes = new HashMap<>();
+        Map<Long, List<Long>> chains = new LinkedHashMap<>();
+        if (ticketIds.isEmpty()) {
+            return new DependencyChains(nodes, chains);
+        }
+        Map<Long, TreeMap<Integer, Long>> byDepth = new HashMap<>();
+        namedJdbcTemplate.query(
+            "SELECT t.id AS seed_id, 0 AS depth, t.id, t.title, t.status, t.priority, t.dependent_on_id " +
+            "FROM tickets t WHERE t.id IN (:ticketIds) " +
+            "UNION ALL " +
+            "SELECT c.descendant_id, c.depth, t.id, t.title, t.status, t.priority, t.dependent_on_id " +
+            "FROM ticket_dependency_closure c JOIN tickets t ON t.id = c.ancestor_id " +
+            "WHERE c.descendant_id IN (:ticketIds)",
+            Map.of("ticketIds", ticketIds),
+            rs -> {
+                long id = rs.getLong("id");
+                if (!nodes.containsKey(id)) {
+                    nodes.put(id, new DependencyNode(id, rs.getString("title"),
+                        TicketStatus.valueOf(rs.getString("status")),
+                        TicketPriority.valueOf(rs.getString("priority")),
+                        rs.getObject("dependent_on_id", Long.class)));
+                }
+                TreeMap<Integer, Long> chain = byDepth.computeIfAbsent(rs.getLong("seed_id"), seed -> new TreeMap<>());
+                int depth = rs.getInt("depth");
+                if (depth > 0) {
+                    chain.put(depth, id);
+                }
+            });
+        for (Long ticketId : ticketIds) {
+            TreeMap<Integer, Long> chain = byDepth.get(ticketId);
+            if (chain != null) {
+                chains.put(ticketId, List.copyOf(chain.values()));
+            }
+        }
+        return new DependencyChains(nodes, chains);
+    }
+
+    /** Recomputes the closure from {@code dependent_on_id}. @return number of rows written */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int rebuild() {
+        jdbcTemplate.update("DELETE FROM ticket_dependency_closure");
+        List<Object[]> rows = new ArrayList<>();
+        expectedClosure().forEach((pair, depth) -> rows.add(new Object[] {pair.ancestorId(), pair.descendantId(), depth}));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+        return rows.size();
+    }
+
+    /** @return number of closure rows missing, extra or with the wrong depth */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public int verify() {
+        Map<Pair, Integer> expected = expectedClosure();
+        int[] differences = {0};
+        jdbcTemplate.query("SELECT ancestor_id, descendant_id, depth FROM ticket_dependency_closure", rs -> {
+            Integer depth = expected.remove(new Pair(rs.getLong("ancestor_id"), rs.getLong("descendant_id")));
+            if (depth == null || depth != rs.getInt("depth")) {
+                differences[0]++;
+            }
+        });
+        return differences[0] + expected.size();
+    }
+
+    private record Pair(long ancestorId, long descendantId) {}
+
+    private Map<Pair, Integer> expectedClosure() {
+        Map<Long, Long> parents = new HashMap<>();
+        jdbcTemplate.query("SELECT id, dependent_on_id FROM tickets WHERE dependent_on_id IS NOT NULL", rs -> {
+            parents.put(rs.getLong("id"), rs.getLong("dependent_on_id"));
+        });
+        Map<Pair, Integer> closure = new HashMap<>();
+        for (Long ticketId : parents.keySet()) {
+            Set<Long> seen = new HashSet<>();
+            int depth = 1;
+            for (Long ancestor = parents.get(ticketId); ancestor != null && seen.add(ancestor);
+                    ancestor = parents.get(ancestor)) {
+                closure.put(new Pair(ancestor, ticketId), depth++);
+            }
+        }
+        return closure;
+    }
+
+    // Maintenance - called from the flush of the transaction that wrote the ticket
+
+    /**
+     * Re-hangs the subtree rooted at {@code ticketId} from {@code oldParentId} to
+     * {@code newParentId}; either may be null. A new ticket has an empty subtree.
+     */
+    void move(Long ticketId, Long oldParentId, Long newParentId) {
+        List<long[]> subtree = new ArrayList<>();
+        subtree.add(new long[] {ticketId, 0});
+        jdbcTemplate.query(
+            "SELECT descendant_id, depth FROM ticket_dependency_closure WHERE ancestor_id = ?",
+            rs -> {
+                subtree.add(new long[] {rs.getLong("descendant_id"), rs.getInt("depth")});
+            },
+            ticketId);
+
+        if (oldParentId != null) {
+            List<Long> oldAncestors = jdbcTemplate.queryForList(
+                "SELECT ancestor_id FROM ticket_dependency_closure WHERE descendant_id = ?", Long.class, ticketId);
+            if (!oldAncestors.isEmpty()) {
+                List<Long> subtreeIds = subtree.stream().map(node -> node[0]).toList();
+                namedJdbcTemplate.update(
+                    "DELETE FROM ticket_dependency_closure " +
+                    "WHERE ancestor_id IN (:ancestors) AND descendant_id IN (:subtree)",
+                    Map.of("ancestors", oldAncestors, "subtree", subtreeIds));
+            }
+        }
+
+        if (newParentId != null) {
+            List<long[]> newAncestors = new ArrayList<>();
+            newAncestors.add(new long[] {newParentId, 0});
+            jdbcTemplate.query(
+                "SELECT ancestor_id, depth FROM ticket_dependency_closure WHERE descendant_id = ?",
+                rs -> {
+                    newAncestors.add(new long[] {rs.getLong("ancestor_id"), rs.getInt("depth")});
+                },
+                newParentId);
+            List<Object[]> rows = new ArrayList<>(newAncestors.size() * subtree.size());
+            for (long[] ancestor : newAncestors) {
+                for (long[] descendant : subtree) {
+                    rows.add(new Object[] {ancestor[0], descendant[0], ancestor[1] + descendant[1] + 1});
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+
+    void remove(Long ticketId) {
+        jdbcTemplate.update("DELETE FROM ticket_dependency_closure WHERE descendant_id = ?", ticketId);
+        jdbcTemplate.update("DELETE FROM ticket_dependency_closure WHERE ancestor_id = ?", ticketId);
+    }
+}
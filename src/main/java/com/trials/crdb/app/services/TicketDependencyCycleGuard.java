@@ -0,0 +1,113 @@
+package com.trials.crdb.app.services;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Rejects {@code dependentOn} changes that would make a ticket (transitively) depend on itself,
+ * before the row is written. The walk follows the committed edges in
+ * {@link TicketDependencyService}, overlaid with the edges this transaction already flushed, so
+ * a cycle built across several updates of one transaction is caught too. Two transactions
+ * closing a cycle concurrently aren't - each only sees the other's edge after it commits.
+ */
+@Component
+public class TicketDependencyCycleGuard implements PreUpdateEventListener, PostInsertEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TicketDependencyService dependencyService;
+    // ticket id -> dependent_on_id written in this session's transaction, null for none
+    private final Map<SharedSessionContractImplementor, Map<Long, Long>> flushed = new ConcurrentHashMap<>();
+
+    public TicketDependencyCycleGuard(EntityManagerFactory entityManagerFactory,
+            TicketDependencyService dependencyService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dependencyService = dependencyService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.PRE_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket) || event.getOldState() == null) {
+            return false;
+        }
+        int index = event.getPersister().getPropertyIndex("dependentOn");
+        Long oldParentId = idOf(event.getOldState()[index]);
+        Long newParentId = idOf(event.getState()[index]);
+        if (oldParentId == null ? newParentId == null : oldParentId.equals(newParentId)) {
+            return false;
+        }
+        Long ticketId = (Long) event.getId();
+        if (newParentId != null && closesCycle(event.getSession(), ticketId, newParentId)) {
+            throw new DataIntegrityViolationException(
+                "Ticket " + ticketId + " can't depend on ticket " + newParentId + ": it would depend on itself");
+        }
+        overlay(event.getSession()).put(ticketId, newParentId);
+        return false;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Ticket ticket && ticket.getDependentOn() != null) {
+            overlay(event.getSession()).put(ticket.getId(), ticket.getDependentOn().getId());
+        }
+    }
+
+    private boolean closesCycle(SharedSessionContractImplementor session, Long ticketId, Long parentId) {
+        Map<Long, Long> pending = flushed.getOrDefault(session, Map.of());
+        if (pending.isEmpty()) {
+            return dependencyService.wouldCreateCycle(ticketId, parentId);
+        }
+        // Visited set so a cycle committed concurrently elsewhere can't trap the walk
+        Set<Long> visited = new HashSet<>();
+        for (Long current = parentId; current != null && visited.add(current);
+                current = pending.containsKey(current) ? pending.get(current) : dependencyService.dependentOn(current)) {
+            if (current.equals(ticketId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<Long, Long> overlay(EventSource session) {
+        return flushed.computeIfAbsent(session, s -> {
+            session.getActionQueue().registerProcess(
+                (success, completedSession) -> flushed.remove(completedSession));
+            return new HashMap<>();
+        });
+    }
+
+    private static Long idOf(Object ticket) {
+        // getId() on an uninitialised proxy doesn't hit the database
+        return ticket == null ? null : ((Ticket) ticket).getId();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
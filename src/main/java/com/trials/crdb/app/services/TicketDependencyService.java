@@ -0,0 +1,106 @@
+package com.trials.crdb.app.services;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.cache.TicketDependencyGraph;
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.TicketChangedEvent;
+
+/**
+ * Transitive dependency queries answered from an in-process {@link TicketDependencyGraph}
+ * instead of a depth-capped recursive CTE. The graph is loaded from {@code tickets} on first use
+ * and follows committed {@link TicketChangedEvent}s; bulk SQL bypasses the events, so call
+ * {@link #reload()} after it. Each node only sees its own commits - writes made on other nodes
+ * show up after a reload.
+ */
+@Service
+public class TicketDependencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketDependencyService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    // Null until first use; reloads build a new graph and publish it once complete
+    private volatile TicketDependencyGraph graph;
+
+    public TicketDependencyService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Tickets the given ticket depends on, directly first. */
+    public long[] ancestors(Long ticketId) {
+        return loadedGraph().ancestors(ticketId);
+    }
+
+    /** Tickets that depend on the given ticket, directly first. */
+    public long[] descendants(Long ticketId) {
+        return loadedGraph().descendants(ticketId);
+    }
+
+    public int depth(Long ticketId) {
+        return loadedGraph().depth(ticketId);
+    }
+
+    /** Whether {@code ticketId} depending on {@code dependentOnId} would close a cycle among committed edges. */
+    public boolean wouldCreateCycle(Long ticketId, Long dependentOnId) {
+        return dependentOnId != null && loadedGraph().wouldCreateCycle(ticketId, dependentOnId);
+    }
+
+    /** The ticket {@code ticketId} depends on as of the last commit seen, or null. */
+    public Long dependentOn(Long ticketId) {
+        long parentId = loadedGraph().parentOf(ticketId);
+        return parentId == TicketDependencyGraph.NONE ? null : parentId;
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        TicketDependencyGraph loading = new TicketDependencyGraph();
+        jdbcTemplate.query("SELECT id, dependent_on_id FROM tickets WHERE dependent_on_id IS NOT NULL", rs -> {
+            loading.setParent(rs.getLong("id"), rs.getLong("dependent_on_id"));
+        });
+        graph = loading;
+        log.info("Loaded {} ticket dependencies in {} ms", loading.edgeCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private TicketDependencyGraph loadedGraph() {
+        TicketDependencyGraph current = graph;
+        if (current == null) {
+            synchronized (this) {
+                if (graph == null) {
+                    reload();
+                }
+                current = graph;
+            }
+        }
+        return current;
+    }
+
+    // Serialised with reload(): a change committed while loading is re-read once the load is done
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTicketChanged(TicketChangedEvent event) {
+        TicketDependencyGraph current = graph;
+        if (current == null) {
+            return;
+        }
+        if (event.type() == EntityChangeType.DELETE) {
+            current.remove(event.ticketId());
+            return;
+        }
+        if (!event.changed("dependentOn")) {
+            return;
+        }
+        List<Long> parents = jdbcTemplate.queryForList(
+            "SELECT dependent_on_id FROM tickets WHERE id = ?", Long.class, event.ticketId());
+        if (parents.isEmpty()) {
+            current.remove(event.ticketId());
+        } else {
+            Long parentId = parents.get(0);
+            current.setParent(event.ticketId(), parentId == null ? TicketDependencyGraph.NONE : parentId);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.trials.crdb.app.services;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.cache.TicketTimerWheel;
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.TicketChangedEvent;
+import com.trials.crdb.app.events.TicketDueEvent;
+import com.trials.crdb.app.utils.DateTimeProvider;
+import com.trials.crdb.app.utils.TicketIndexes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Fires {@link TicketDueEvent}s from a {@link TicketTimerWheel} instead of polling for due
+ * dates. Every open ticket due within the horizon has a due-soon timer (due date minus the
+ * lead) and an overdue timer. The wheel is loaded on first use, the window is extended by one
+ * indexed range read whenever a quarter of the horizon has passed, and committed
+ * {@link TicketChangedEvent}s reschedule single tickets. Time comes from {@link DateTimeProvider}.
+ *
+ * Timers already in the past when loaded are skipped - the overdue scanner reports those -
+ * but a due date set into the past by a write fires right away. Bulk SQL bypasses the events,
+ * call {@link #reload()} after it.
+ */
+@Service
+@ConditionalOnProperty(name = "app.due-timers.enabled", havingValue = "true")
+public class TicketDueTimerService {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketDueTimerService.class);
+
+    private static final String OPEN_DUE_BETWEEN =
+        "SELECT id, due_date FROM tickets WHERE status NOT IN ('RESOLVED', 'CLOSED') " +
+        "AND due_date > ? AND due_date <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long tickMillis;
+    private final long horizonMillis;
+    private final long dueSoonLeadMillis;
+    private final boolean partialIndex;
+    private final TicketTimerWheel wheel = new TicketTimerWheel(0L);
+    private volatile boolean loaded;
+    private long loadedUntilMillis;
+
+    // The EntityManagerFactory dependency makes sure the schema exists before the index is created
+    public TicketDueTimerService(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${app.due-timers.tick:PT1S}") Duration tick,
+            @Value("${app.due-timers.horizon:PT24H}") Duration horizon,
+            @Value("${app.due-timers.due-soon-lead:PT1H}") Duration dueSoonLead,
+            @Value("${app.open-due-index.partial:true}") boolean partialIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tickMillis = tick.toMillis();
+        this.horizonMillis = horizon.toMillis();
+        this.dueSoonLeadMillis = dueSoonLead.toMillis();
+        this.partialIndex = partialIndex;
+        if (tickMillis <= 0 || horizonMillis / tickMillis >= TicketTimerWheel.SPAN_TICKS / 2) {
+            throw new IllegalArgumentException("Due timer horizon " + horizon + " too long for tick " + tick);
+        }
+    }
+
+    @PostConstruct
+    void createIndex() {
+        TicketIndexes.createOpenDueDateIndex(jdbcTemplate, partialIndex);
+    }
+
+    @Scheduled(fixedDelayString = "${app.due-timers.tick:PT1S}")
+    public void scheduledAdvance() {
+        advance();
+    }
+
+    /** Fires the timers that came due since the previous call. @return number of events published */
+    public int advance() {
+        List<TicketDueEvent> due = new ArrayList<>();
+        synchronized (this) {
+            ensureLoaded();
+            ZonedDateTime now = DateTimeProvider.now();
+            long nowMillis = now.toInstant().toEpochMilli();
+            long horizonEnd = nowMillis + horizonMillis;
+            if (horizonEnd - loadedUntilMillis >= horizonMillis / 4) {
+                loadWindow(loadedUntilMillis, horizonEnd);
+            }
+            for (long key : wheel.advance(Math.floorDiv(nowMillis, tickMillis))) {
+                TicketDueEvent.Kind kind = (key & 1) == 0 ? TicketDueEvent.Kind.DUE_SOON : TicketDueEvent.Kind.OVERDUE;
+                due.add(new TicketDueEvent(key >>> 1, kind, now));
+            }
+        }
+        due.forEach(eventPublisher::publishEvent);
+        return due.size();
+    }
+
+    /** Number of pending due-soon and overdue timers. */
+    public synchronized int scheduledTimers() {
+        return wheel.size();
+    }
+
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        long nowMillis = DateTimeProvider.now().toInstant().toEpochMilli();
+        wheel.clear(Math.floorDiv(nowMillis, tickMillis));
+        loadedUntilMillis = nowMillis;
+        loadWindow(nowMillis, nowMillis + horizonMillis);
+        loaded = true;
+        log.info("Loaded {} ticket due timers in {} ms", wheel.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            reload();
+        }
+    }
+
+    // Open tickets due in (from, to] - a range read of idx_tickets_open_due_date
+    private void loadWindow(long fromMillis, long toMillis) {
+        jdbcTemplate.query(OPEN_DUE_BETWEEN, rs -> {
+            schedule(rs.getLong(1), rs.getTimestamp(2).getTime(), false);
+        }, new Timestamp(fromMillis), new Timestamp(toMillis));
+        loadedUntilMillis = toMillis;
+    }
+
+    // Deadlines round up to the next tick so a timer never fires early
+    private void schedule(long ticketId, long dueMillis, boolean includePast) {
+        long dueSoonTick = Math.ceilDiv(dueMillis - dueSoonLeadMillis, tickMillis);
+        long overdueTick = Math.ceilDiv(dueMillis, tickMillis);
+        if (includePast || dueSoonTick >= wheel.currentTick()) {
+            wheel.schedule(ticketId << 1, dueSoonTick);
+        }
+        if (includePast || overdueTick >= wheel.currentTick()) {
+            wheel.schedule(ticketId << 1 | 1, overdueTick);
+        }
+    }
+
+    private void cancel(long ticketId) {
+        wheel.cancel(ticketId << 1);
+        wheel.cancel(ticketId << 1 | 1);
+    }
+
+    // Serialised with reload() and advance(); tickets due beyond the loaded window are picked
+    // up when the window moves over them
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTicketChanged(TicketChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        if (event.type() == EntityChangeType.DELETE) {
+            cancel(event.ticketId());
+            return;
+        }
+        boolean dueDateChanged = event.changed("dueDate");
+        if (!dueDateChanged && !event.changed("status")) {
+            return;
+        }
+        cancel(event.ticketId());
+        jdbcTemplate.query(
+            "SELECT due_date FROM tickets WHERE id = ? AND status NOT IN ('RESOLVED', 'CLOSED') AND due_date IS NOT NULL",
+            rs -> {
+                long dueMillis = rs.getTimestamp(1).getTime();
+                if (dueMillis <= loadedUntilMillis) {
+                    schedule(event.ticketId(), dueMillis, dueDateChanged);
+                }
+            }, event.ticketId());
+    }
+}
@@ -0,0 +1,115 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.repositories.TicketRepository;
+import com.trials.crdb.app.utils.DateTimeProvider;
+import com.trials.crdb.app.utils.TicketIndexes;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * "Due on a local day" for many timezones at once. Each zone's day is turned into a UTC range
+ * here, and one range read covering all of them fetches the open tickets; they are then
+ * assigned to every zone whose range contains their due date. Zones sharing an offset share a
+ * range, so a few hundred zones cost a few dozen binary searches. Days shortened or stretched
+ * by DST transitions are handled by {@link LocalDate#atStartOfDay(ZoneId)}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TicketDueWindowService {
+
+    private record Window(ZonedDateTime start, ZonedDateTime end) {}
+
+    private final TicketRepository ticketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean partialIndex;
+
+    // The EntityManagerFactory dependency makes sure the schema exists before the index is created
+    public TicketDueWindowService(TicketRepository ticketRepository, JdbcTemplate jdbcTemplate,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${app.open-due-index.partial:true}") boolean partialIndex) {
+        this.ticketRepository = ticketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partialIndex = partialIndex;
+    }
+
+    @PostConstruct
+    void createIndex() {
+        TicketIndexes.createOpenDueDateIndex(jdbcTemplate, partialIndex);
+    }
+
+    /** Open tickets due on the current local date of each zone, in zone order, earliest first. */
+    public Map<ZoneId, List<Ticket>> dueToday(Collection<ZoneId> zones) {
+        ZonedDateTime now = DateTimeProvider.now();
+        return dueWithin(zones, zone -> now.withZoneSameInstant(zone).toLocalDate());
+    }
+
+    /** Open tickets due on {@code date} as observed in each zone. */
+    public Map<ZoneId, List<Ticket>> dueOn(LocalDate date, Collection<ZoneId> zones) {
+        return dueWithin(zones, zone -> date);
+    }
+
+    private Map<ZoneId, List<Ticket>> dueWithin(Collection<ZoneId> zones, Function<ZoneId, LocalDate> day) {
+        Map<ZoneId, List<Ticket>> result = new LinkedHashMap<>();
+        if (zones.isEmpty()) {
+            return result;
+        }
+        Map<Window, List<ZoneId>> zonesByWindow = new LinkedHashMap<>();
+        ZonedDateTime from = null;
+        ZonedDateTime to = null;
+        for (ZoneId zone : zones) {
+            LocalDate date = day.apply(zone);
+            Window window = new Window(
+                date.atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC),
+                date.plusDays(1).atStartOfDay(zone).withZoneSameInstant(ZoneOffset.UTC));
+            zonesByWindow.computeIfAbsent(window, w -> new ArrayList<>()).add(zone);
+            from = from == null || window.start().isBefore(from) ? window.start() : from;
+            to = to == null || window.end().isAfter(to) ? window.end() : to;
+            result.put(zone, List.of());
+        }
+
+        List<Ticket> tickets = ticketRepository.findOpenDueBetween(from, to);
+        for (Map.Entry<Window, List<ZoneId>> entry : zonesByWindow.entrySet()) {
+            Window window = entry.getKey();
+            List<Ticket> due = tickets.subList(
+                firstDueAtOrAfter(tickets, window.start()), firstDueAtOrAfter(tickets, window.end()));
+            if (!due.isEmpty()) {
+                List<Ticket> copy = List.copyOf(due);
+                entry.getValue().forEach(zone -> result.put(zone, copy));
+            }
+        }
+        return result;
+    }
+
+    // Tickets are sorted by due date
+    private static int firstDueAtOrAfter(List<Ticket> tickets, ZonedDateTime time) {
+        int low = 0;
+        int high = tickets.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tickets.get(mid).getDueDate().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
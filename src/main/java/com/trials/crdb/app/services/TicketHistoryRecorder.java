@@ -0,0 +1,174 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Project;
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.TicketEvent;
+import com.trials.crdb.app.model.TicketEvent.Property;
+import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.utils.DateTimeProvider;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Captures {@link TicketEvent}s from Hibernate ticket writes. Rows are buffered per session while
+ * the flush executes and written as one JDBC batch when the flush ends, so they commit or roll
+ * back with the ticket changes. Listeners appended after Hibernate's own flush listeners run once
+ * the entity actions have been executed.
+ */
+@Component
+public class TicketHistoryRecorder implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, FlushEventListener, AutoFlushEventListener {
+
+    private static final String INSERT =
+        "INSERT INTO ticket_events (ticket_id, project_id, event_time, type, property, old_value, new_value) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    static final Map<Property, String> TRACKED = new LinkedHashMap<>();
+    static {
+        TRACKED.put(Property.STATUS, "status");
+        TRACKED.put(Property.PRIORITY, "priority");
+        TRACKED.put(Property.ASSIGNEE, "assignee");
+        TRACKED.put(Property.ESTIMATED_HOURS, "estimatedHours");
+        TRACKED.put(Property.DUE_DATE, "dueDate");
+        TRACKED.put(Property.PROJECT, "project");
+    }
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<SharedSessionContractImplementor, List<Object[]>> pending = new ConcurrentHashMap<>();
+
+    public TicketHistoryRecorder(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.FLUSH, this);
+        HibernateEvents.append(entityManagerFactory, EventType.AUTO_FLUSH, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket)) {
+            return;
+        }
+        ZonedDateTime now = DateTimeProvider.now();
+        Object[] state = event.getState();
+        EntityPersister persister = event.getPersister();
+        Long projectId = ticket.getProject().getId();
+        TRACKED.forEach((property, name) -> buffer(event.getSession(), ticket.getId(), projectId, now,
+            TicketEvent.Type.CREATED, property, null, encode(state[persister.getPropertyIndex(name)])));
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        ZonedDateTime now = DateTimeProvider.now();
+        EntityPersister persister = event.getPersister();
+        Long projectId = ticket.getProject().getId();
+        TRACKED.forEach((property, name) -> {
+            int index = persister.getPropertyIndex(name);
+            String oldValue = encode(event.getOldState()[index]);
+            String newValue = encode(event.getState()[index]);
+            if (!Objects.equals(oldValue, newValue)) {
+                buffer(event.getSession(), ticket.getId(), projectId, now,
+                    TicketEvent.Type.UPDATED, property, oldValue, newValue);
+            }
+        });
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            Project project = (Project) event.getDeletedState()[event.getPersister().getPropertyIndex("project")];
+            buffer(event.getSession(), ticket.getId(), project.getId(), DateTimeProvider.now(),
+                TicketEvent.Type.DELETED, null, null, null);
+        }
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        drain(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        drain(event.getSession());
+    }
+
+    private void buffer(EventSource session, Long ticketId, Long projectId, ZonedDateTime eventTime,
+            TicketEvent.Type type, Property property, String oldValue, String newValue) {
+        pending.computeIfAbsent(session, s -> {
+            // Rows left behind by a failed flush must not outlive the transaction
+            session.getActionQueue().registerProcess(
+                (success, completedSession) -> pending.remove(completedSession));
+            return new ArrayList<>();
+        }).add(new Object[] {ticketId, projectId, eventTime.withZoneSameInstant(ZoneOffset.UTC).toOffsetDateTime(),
+            type.name(), property == null ? null : property.name(), oldValue, newValue});
+    }
+
+    private void drain(EventSource session) {
+        List<Object[]> rows = pending.remove(session);
+        if (rows != null && !rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+        }
+    }
+
+    static String encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof User user) {
+            return String.valueOf(user.getId());
+        }
+        if (value instanceof Project project) {
+            return String.valueOf(project.getId());
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        if (value instanceof ZonedDateTime dateTime) {
+            return dateTime.toInstant().toString();
+        }
+        return value.toString();
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
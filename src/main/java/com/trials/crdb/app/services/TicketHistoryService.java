@@ -0,0 +1,107 @@
+package com.trials.crdb.app.services;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+import com.trials.crdb.app.model.TicketEvent;
+import com.trials.crdb.app.model.TicketEvent.Property;
+import com.trials.crdb.app.repositories.TicketEventRepository;
+
+/**
+ * "As of" reads over {@code ticket_events}: replays a ticket's events up to the requested time.
+ * Tickets created before the history existed have no events and therefore no past state.
+ */
+@Service
+public class TicketHistoryService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TicketEventRepository eventRepository;
+
+    public TicketHistoryService(JdbcTemplate jdbcTemplate, TicketEventRepository eventRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventRepository = eventRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<TicketEvent> history(Long ticketId) {
+        return eventRepository.findByTicketIdOrderByEventTimeAscIdAsc(ticketId);
+    }
+
+    /** @return null when the ticket didn't exist at that time */
+    @Transactional(readOnly = true)
+    public TicketSnapshot stateAsOf(Long ticketId, ZonedDateTime asOf) {
+        List<TicketSnapshot> snapshots = replay(
+            "SELECT ticket_id, type, property, new_value FROM ticket_events " +
+            "WHERE ticket_id = ? AND event_time <= ? ORDER BY event_time, id",
+            asOf, ticketId, utc(asOf));
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    /** Tickets that belonged to the project at that time, in ticket id order. */
+    @Transactional(readOnly = true)
+    public List<TicketSnapshot> projectStateAsOf(Long projectId, ZonedDateTime asOf) {
+        List<TicketSnapshot> snapshots = replay(
+            "SELECT ticket_id, type, property, new_value FROM ticket_events " +
+            "WHERE ticket_id IN (SELECT DISTINCT ticket_id FROM ticket_events " +
+            "                    WHERE project_id = ? AND event_time <= ?) " +
+            "AND event_time <= ? ORDER BY ticket_id, event_time, id",
+            asOf, projectId, utc(asOf), utc(asOf));
+        return snapshots.stream().filter(s -> projectId.equals(s.projectId())).toList();
+    }
+
+    private List<TicketSnapshot> replay(String sql, ZonedDateTime asOf, Object... args) {
+        // Rows come grouped by ticket; null marks a ticket deleted as of the requested time
+        Map<Long, Map<Property, String>> states = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            Long ticketId = rs.getLong("ticket_id");
+            TicketEvent.Type type = TicketEvent.Type.valueOf(rs.getString("type"));
+            if (type == TicketEvent.Type.DELETED) {
+                states.put(ticketId, null);
+                return;
+            }
+            states.computeIfAbsent(ticketId, id -> new LinkedHashMap<>())
+                .put(Property.valueOf(rs.getString("property")), rs.getString("new_value"));
+        }, args);
+
+        List<TicketSnapshot> snapshots = new ArrayList<>();
+        states.forEach((ticketId, state) -> {
+            if (state != null) {
+                snapshots.add(toSnapshot(ticketId, asOf, state));
+            }
+        });
+        return snapshots;
+    }
+
+    private static TicketSnapshot toSnapshot(Long ticketId, ZonedDateTime asOf, Map<Property, String> state) {
+        String status = state.get(Property.STATUS);
+        String priority = state.get(Property.PRIORITY);
+        String assignee = state.get(Property.ASSIGNEE);
+        String hours = state.get(Property.ESTIMATED_HOURS);
+        String dueDate = state.get(Property.DUE_DATE);
+        String project = state.get(Property.PROJECT);
+        return new TicketSnapshot(
+            ticketId,
+            asOf,
+            project == null ? null : Long.valueOf(project),
+            status == null ? null : TicketStatus.valueOf(status),
+            priority == null ? null : TicketPriority.valueOf(priority),
+            assignee == null ? null : Long.valueOf(assignee),
+            hours == null ? null : Double.valueOf(hours),
+            dueDate == null ? null : Instant.parse(dueDate).atZone(asOf.getZone()));
+    }
+
+    private static Object utc(ZonedDateTime dateTime) {
+        return dateTime.withZoneSameInstant(ZoneOffset.UTC).toOffsetDateTime();
+    }
+}
@@ -0,0 +1,20 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/**
+ * Tracked properties of a ticket as they were at {@code asOf}, rebuilt from {@code ticket_events}.
+ */
+public record TicketSnapshot(
+        Long ticketId,
+        ZonedDateTime asOf,
+        Long projectId,
+        TicketStatus status,
+        TicketPriority priority,
+        Long assigneeId,
+        Double estimatedHours,
+        ZonedDateTime dueDate) {
+}
@@ -0,0 +1,81 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.utils.DateTimeProvider;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts ticket creation, resolution (resolved date first set) and closing (status becomes
+ * CLOSED) into the throughput buckets, in the writing transaction. The counters record events,
+ * so deleting a ticket doesn't take it back out of past buckets.
+ */
+@Component
+public class TicketThroughputMaintainer implements PostInsertEventListener, PostUpdateEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TicketThroughputService throughputService;
+
+    public TicketThroughputMaintainer(EntityManagerFactory entityManagerFactory,
+            TicketThroughputService throughputService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.throughputService = throughputService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket)) {
+            return;
+        }
+        Long projectId = ticket.getProject().getId();
+        ZonedDateTime created = ticket.getCreateTime() != null ? ticket.getCreateTime() : DateTimeProvider.now();
+        throughputService.record(projectId, ticket.getPriority(), created.toInstant(), 1, 0, 0);
+        if (ticket.getResolvedDate() != null) {
+            throughputService.record(projectId, ticket.getPriority(), ticket.getResolvedDate().toInstant(), 0, 1, 0);
+        }
+        if (ticket.getStatus() == Ticket.TicketStatus.CLOSED) {
+            throughputService.record(projectId, ticket.getPriority(), created.toInstant(), 0, 0, 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Ticket ticket) || event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Long projectId = ticket.getProject().getId();
+
+        if (ticket.getResolvedDate() != null && oldState[persister.getPropertyIndex("resolvedDate")] == null) {
+            throughputService.record(projectId, ticket.getPriority(), ticket.getResolvedDate().toInstant(), 0, 1, 0);
+        }
+        if (ticket.getStatus() == Ticket.TicketStatus.CLOSED
+                && oldState[persister.getPropertyIndex("status")] != Ticket.TicketStatus.CLOSED) {
+            throughputService.record(projectId, ticket.getPriority(), DateTimeProvider.now().toInstant(), 0, 0, 1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
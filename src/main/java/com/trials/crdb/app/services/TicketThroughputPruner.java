@@ -0,0 +1,44 @@
+package com.trials.crdb.app.services;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Downsamples throughput history: hourly buckets older than the retention are dropped, and
+ * the daily buckets written alongside them remain.
+ */
+@Component
+@ConditionalOnProperty(name = "app.throughput.pruner.enabled", havingValue = "true", matchIfMissing = true)
+public class TicketThroughputPruner {
+
+    private static final Logger log = LoggerFactory.getLogger(TicketThroughputPruner.class);
+
+    private final TicketThroughputService throughputService;
+    private final Duration hourlyRetention;
+
+    public TicketThroughputPruner(TicketThroughputService throughputService,
+            @Value("${app.throughput.hourly-retention:P30D}") Duration hourlyRetention) {
+        this.throughputService = throughputService;
+        this.hourlyRetention = hourlyRetention;
+    }
+
+    @Scheduled(cron = "${app.throughput.pruner.cron:0 15 3 * * *}")
+    public void scheduledPrune() {
+        prune();
+    }
+
+    public int prune() {
+        int deleted = throughputService.pruneHourly(
+            DateTimeProvider.now().toInstant().minus(hourlyRetention));
+        log.info("Pruned {} hourly throughput buckets older than {}", deleted, hourlyRetention);
+        return deleted;
+    }
+}
@@ -0,0 +1,178 @@
+package com.trials.crdb.app.services;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.TicketThroughputBucket;
+import com.trials.crdb.app.model.TicketThroughputBucket.Granularity;
+
+/**
+ * Created / resolved / closed counts over time from {@link TicketThroughputBucket} rows, replacing
+ * raw scans through {@code findTicketsCreatedBetween} for throughput charts. A year at daily
+ * granularity reads at most 366 grouped rows.
+ */
+@Service
+public class TicketThroughputService {
+
+    private static final String UPSERT =
+        "INSERT INTO ticket_throughput_buckets " +
+        "(granularity, project_id, bucket_start, priority, created_count, resolved_count, closed_count) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (granularity, project_id, bucket_start, priority) DO UPDATE SET " +
+        "created_count = ticket_throughput_buckets.created_count + EXCLUDED.created_count, " +
+        "resolved_count = ticket_throughput_buckets.resolved_count + EXCLUDED.resolved_count, " +
+        "closed_count = ticket_throughput_buckets.closed_count + EXCLUDED.closed_count";
+
+    private record BucketKey(Granularity granularity, Long projectId, Instant bucketStart, TicketPriority priority) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TicketThroughputService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * One point per bucket in {@code [from, to)}, including empty buckets.
+     *
+     * @param projectId null for all projects
+     * @param priority null for all priorities
+     */
+    @Transactional(readOnly = true)
+    public List<ThroughputPoint> series(Long projectId, TicketPriority priority,
+            ZonedDateTime from, ZonedDateTime to, ThroughputGranularity granularity) {
+        Instant start = granularity.bucketStart(from.toInstant());
+        Instant end = to.toInstant();
+
+        StringBuilder sql = new StringBuilder(
+            "SELECT bucket_start, SUM(created_count) AS created, SUM(resolved_count) AS resolved, " +
+            "SUM(closed_count) AS closed FROM ticket_throughput_buckets " +
+            "WHERE granularity = :granularity AND bucket_start >= :from AND bucket_start < :to");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("granularity", granularity.getSource().name())
+            .addValue("from", utc(start))
+            .addValue("to", utc(end));
+        if (projectId != null) {
+            sql.append(" AND project_id = :projectId");
+            params.addValue("projectId", projectId);
+        }
+        if (priority != null) {
+            sql.append(" AND priority = :priority");
+            params.addValue("priority", priority.name());
+        }
+        sql.append(" GROUP BY bucket_start ORDER BY bucket_start");
+
+        TreeMap<Instant, ThroughputPoint> points = new TreeMap<>();
+        for (Instant bucket = start; bucket.isBefore(end); bucket = next(bucket, granularity)) {
+            points.put(bucket, new ThroughputPoint(bucket, 0, 0, 0));
+        }
+        namedJdbcTemplate.query(sql.toString(), params, rs -> {
+            Instant bucket = granularity.bucketStart(rs.getObject("bucket_start", OffsetDateTime.class).toInstant());
+            ThroughputPoint point = new ThroughputPoint(bucket,
+                rs.getLong("created"), rs.getLong("resolved"), rs.getLong("closed"));
+            points.merge(bucket, point, ThroughputPoint::plus);
+        });
+        return new ArrayList<>(points.values());
+    }
+
+    /** Drops hourly rows that start before the cutoff; the daily rows keep their totals. */
+    @Transactional
+    public int pruneHourly(Instant before) {
+        return jdbcTemplate.update(
+            "DELETE FROM ticket_throughput_buckets WHERE granularity = ? AND bucket_start < ?",
+            Granularity.HOUR.name(), utc(before));
+    }
+
+    /**
+     * Recomputes the buckets of the whole UTC days covering {@code [from, to)} from the tickets
+     * table, for backfills and repairs. Closing time isn't stored, so closed tickets are counted
+     * at their last update.
+     */
+    @Transactional
+    public void rebuild(ZonedDateTime from, ZonedDateTime to) {
+        Instant start = ThroughputGranularity.DAY.bucketStart(from.toInstant());
+        Instant end = ThroughputGranularity.DAY.bucketStart(to.toInstant());
+        if (end.isBefore(to.toInstant())) {
+            end = end.plus(1, ChronoUnit.DAYS);
+        }
+        jdbcTemplate.update(
+            "DELETE FROM ticket_throughput_buckets WHERE bucket_start >= ? AND bucket_start < ?",
+            utc(start), utc(end));
+
+        Map<BucketKey, long[]> counts = new HashMap<>();
+        OffsetDateTime lower = utc(start);
+        OffsetDateTime upper = utc(end);
+        jdbcTemplate.query(
+            "SELECT project_id, priority, status, create_time, resolved_date, update_time FROM tickets " +
+            "WHERE (create_time >= ? AND create_time < ?) " +
+            "OR (resolved_date >= ? AND resolved_date < ?) " +
+            "OR (status = 'CLOSED' AND update_time >= ? AND update_time < ?)",
+            rs -> {
+                Long projectId = rs.getLong("project_id");
+                TicketPriority priority = TicketPriority.valueOf(rs.getString("priority"));
+                countIfWithin(counts, projectId, priority, rs.getObject("create_time", OffsetDateTime.class), lower, upper, 0);
+                countIfWithin(counts, projectId, priority, rs.getObject("resolved_date", OffsetDateTime.class), lower, upper, 1);
+                if ("CLOSED".equals(rs.getString("status"))) {
+                    countIfWithin(counts, projectId, priority, rs.getObject("update_time", OffsetDateTime.class), lower, upper, 2);
+                }
+            },
+            lower, upper, lower, upper, lower, upper);
+
+        List<Object[]> batch = new ArrayList<>(counts.size());
+        counts.forEach((key, value) -> batch.add(new Object[] {
+            key.granularity().name(), key.projectId(), utc(key.bucketStart()), key.priority().name(),
+            value[0], value[1], value[2]}));
+        jdbcTemplate.batchUpdate(UPSERT, batch);
+    }
+
+    private static void countIfWithin(Map<BucketKey, long[]> counts, Long projectId, TicketPriority priority,
+            OffsetDateTime at, OffsetDateTime lower, OffsetDateTime upper, int column) {
+        if (at == null || at.isBefore(lower) || !at.isBefore(upper)) {
+            return;
+        }
+        Instant instant = at.toInstant();
+        counts.computeIfAbsent(new BucketKey(Granularity.HOUR, projectId,
+            ThroughputGranularity.HOUR.bucketStart(instant), priority), k -> new long[3])[column]++;
+        counts.computeIfAbsent(new BucketKey(Granularity.DAY, projectId,
+            ThroughputGranularity.DAY.bucketStart(instant), priority), k -> new long[3])[column]++;
+    }
+
+    // Maintenance - called from the flush of the transaction that wrote the ticket
+
+    void record(Long projectId, TicketPriority priority, Instant at, int created, int resolved, int closed) {
+        jdbcTemplate.batchUpdate(UPSERT, List.of(
+            new Object[] {Granularity.HOUR.name(), projectId, utc(ThroughputGranularity.HOUR.bucketStart(at)),
+                priority.name(), created, resolved, closed},
+            new Object[] {Granularity.DAY.name(), projectId, utc(ThroughputGranularity.DAY.bucketStart(at)),
+                priority.name(), created, resolved, closed}));
+    }
+
+    private static Instant next(Instant bucket, ThroughputGranularity granularity) {
+        return switch (granularity) {
+            case HOUR -> bucket.plus(1, ChronoUnit.HOURS);
+            case DAY -> bucket.plus(1, ChronoUnit.DAYS);
+            case WEEK -> bucket.plus(7, ChronoUnit.DAYS);
+            case MONTH -> bucket.atZone(ZoneOffset.UTC).plusMonths(1).toInstant();
+        };
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,161 @@
+package com.trials.crdb.app.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.TicketWorkTotal;
+import com.trials.crdb.app.model.UserWorkRollup;
+import com.trials.crdb.app.model.UserWorkRollup.Granularity;
+
+/**
+ * Timesheets and ticket effort read from the {@link TicketWorkTotal} and {@link UserWorkRollup}
+ * rows instead of scanning {@code work_logs}. Work logs are bucketed by the UTC date of their
+ * start time.
+ */
+@Service
+public class TimesheetService {
+
+    static final String UPSERT_TICKET_TOTAL =
+        "INSERT INTO ticket_work_totals (ticket_id, total_hours, log_count) VALUES (?, ?, ?) " +
+        "ON CONFLICT (ticket_id) DO UPDATE SET " +
+        "total_hours = ticket_work_totals.total_hours + EXCLUDED.total_hours, " +
+        "log_count = ticket_work_totals.log_count + EXCLUDED.log_count";
+
+    static final String UPSERT_USER_ROLLUP =
+        "INSERT INTO user_work_rollups (granularity, user_id, bucket_start, hours, log_count) VALUES (?, ?, ?, ?, ?) " +
+        "ON CONFLICT (granularity, user_id, bucket_start) DO UPDATE SET " +
+        "hours = user_work_rollups.hours + EXCLUDED.hours, " +
+        "log_count = user_work_rollups.log_count + EXCLUDED.log_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TimesheetService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /** Hours per day in {@code [from, to]}, days without work logs included as 0. */
+    @Transactional(readOnly = true)
+    public SortedMap<LocalDate, Double> dailyHours(Long userId, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Double> result = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            result.put(day, 0.0);
+        }
+        readRollups(Granularity.DAY, userId, from, to, result);
+        return result;
+    }
+
+    /** Hours per week (keyed by Monday) for the weeks overlapping {@code [from, to]}. */
+    @Transactional(readOnly = true)
+    public SortedMap<LocalDate, Double> weeklyHours(Long userId, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, Double> result = new TreeMap<>();
+        LocalDate firstWeek = weekOf(from);
+        for (LocalDate week = firstWeek; !week.isAfter(to); week = week.plusWeeks(1)) {
+            result.put(week, 0.0);
+        }
+        readRollups(Granularity.WEEK, userId, firstWeek, to, result);
+        return result;
+    }
+
+    private void readRollups(Granularity granularity, Long userId, LocalDate from, LocalDate to,
+            SortedMap<LocalDate, Double> result) {
+        jdbcTemplate.query(
+            "SELECT bucket_start, hours FROM user_work_rollups " +
+            "WHERE granularity = ? AND user_id = ? AND bucket_start BETWEEN ? AND ?",
+            rs -> {
+                result.put(rs.getObject("bucket_start", LocalDate.class), rs.getDouble("hours"));
+            },
+            granularity.name(), userId, from, to);
+    }
+
+    @Transactional(readOnly = true)
+    public double ticketHours(Long ticketId) {
+        return ticketHours(List.of(ticketId)).getOrDefault(ticketId, 0.0);
+    }
+
+    /** Logged hours for a page of tickets; tickets without work logs map to 0. */
+    @Transactional(readOnly = true)
+    public Map<Long, Double> ticketHours(Collection<Long> ticketIds) {
+        Map<Long, Double> result = new HashMap<>();
+        if (ticketIds.isEmpty()) {
+            return result;
+        }
+        ticketIds.forEach(id -> result.put(id, 0.0));
+        namedJdbcTemplate.query(
+            "SELECT ticket_id, total_hours FROM ticket_work_totals WHERE ticket_id IN (:ticketIds)",
+            Map.of("ticketIds", ticketIds),
+            rs -> {
+                result.put(rs.getLong("ticket_id"), rs.getDouble("total_hours"));
+            });
+        return result;
+    }
+
+    static LocalDate dayOf(ZonedDateTime startTime) {
+        return startTime.withZoneSameInstant(ZoneOffset.UTC).toLocalDate();
+    }
+
+    static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // Maintenance - called from the flush of the transaction that wrote the work log
+
+    void apply(Long ticketId, Long userId, ZonedDateTime startTime, double hours, int logDelta) {
+        jdbcTemplate.update(UPSERT_TICKET_TOTAL, ticketId, hours, logDelta);
+        LocalDate day = dayOf(startTime);
+        jdbcTemplate.batchUpdate(UPSERT_USER_ROLLUP, List.of(
+            new Object[] {Granularity.DAY.name(), userId, day, hours, logDelta},
+            new Object[] {Granularity.WEEK.name(), userId, weekOf(day), hours, logDelta}));
+        if (logDelta < 0) {
+            jdbcTemplate.update("DELETE FROM ticket_work_totals WHERE ticket_id = ? AND log_count <= 0", ticketId);
+            jdbcTemplate.update("DELETE FROM user_work_rollups WHERE user_id = ? AND log_count <= 0", userId);
+        }
+    }
+
+    /**
+     * Called before a ticket row is deleted. Work logs Hibernate already removed are gone by now;
+     * the rest would go through {@code ON DELETE CASCADE} without events, so subtract them here.
+     */
+    void removeRemainingForTicket(Long ticketId) {
+        List<Object[]> deltas = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>();
+        jdbcTemplate.query(
+            "SELECT user_id, start_time, hours_spent FROM work_logs WHERE ticket_id = ?",
+            rs -> {
+                LocalDate day = rs.getObject("start_time", OffsetDateTime.class)
+                    .withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+                long userId = rs.getLong("user_id");
+                double hours = rs.getDouble("hours_spent");
+                deltas.add(new Object[] {Granularity.DAY.name(), userId, day, -hours, -1});
+                deltas.add(new Object[] {Granularity.WEEK.name(), userId, weekOf(day), -hours, -1});
+                userIds.add(userId);
+            },
+            ticketId);
+        if (!deltas.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_USER_ROLLUP, deltas);
+            for (Long userId : userIds) {
+                jdbcTemplate.update("DELETE FROM user_work_rollups WHERE user_id = ? AND log_count <= 0", userId);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM ticket_work_totals WHERE ticket_id = ?", ticketId);
+    }
+}
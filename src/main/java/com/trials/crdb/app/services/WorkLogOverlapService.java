@@ -0,0 +1,159 @@
+package com.trials.crdb.app.services;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.trials.crdb.app.cache.IntervalTree;
+import com.trials.crdb.app.events.EntityChangeType;
+import com.trials.crdb.app.events.WorkLogChangedEvent;
+import com.trials.crdb.app.model.WorkLog;
+import com.trials.crdb.app.repositories.WorkLogRepository;
+import com.trials.crdb.app.utils.ExclusionConstraints;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps a user's work logs from overlapping. Periods are half-open, so one log may start the
+ * moment the previous one ends.
+ *
+ * Writes are checked by the database: with {@code app.work-log-overlap.exclusion-constraint=true}
+ * (Postgres) an exclusion constraint over {@code tstzrange(start_time, end_time)} rejects
+ * conflicts atomically; elsewhere {@link #log} probes {@code idx_work_logs_user_period} in a
+ * SERIALIZABLE transaction, and concurrent conflicting logs fail with a serialization error -
+ * retry them. The probe only reads back as far as {@code app.work-log-overlap.max-duration},
+ * the longest log {@link #log} accepts. Only writes through {@link #log} are checked; logs
+ * saved directly may overlap, and the probes find those as well unless they are longer than
+ * the max duration. Read-only checks ({@link #overlapping}) are answered from an {@link IntervalTree}
+ * per recently active user, loaded on first use and updated from committed
+ * {@link WorkLogChangedEvent}s, so they take microseconds. Each node only sees its own commits
+ * there; set {@code app.work-log-overlap.cached-users=0} to always ask the database.
+ */
+@Service
+public class WorkLogOverlapService {
+
+    private final WorkLogRepository workLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean exclusionConstraint;
+    private final Duration maxDuration;
+    private final int cachedUsers;
+    private final Map<Long, IntervalTree> trees;
+
+    public WorkLogOverlapService(WorkLogRepository workLogRepository, JdbcTemplate jdbcTemplate,
+            @Value("${app.work-log-overlap.exclusion-constraint:false}") boolean exclusionConstraint,
+            @Value("${app.work-log-overlap.max-duration:PT24H}") Duration maxDuration,
+            @Value("${app.work-log-overlap.cached-users:1000}") int cachedUsers) {
+        this.workLogRepository = workLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.exclusionConstraint = exclusionConstraint;
+        this.maxDuration = maxDuration;
+        this.cachedUsers = cachedUsers;
+        // Least recently checked users are dropped first
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, IntervalTree> eldest) {
+                return size() > cachedUsers;
+            }
+        };
+    }
+
+    @PostConstruct
+    void createConstraint() {
+        if (exclusionConstraint) {
+            ExclusionConstraints.createPeriodConstraint(jdbcTemplate, "work_logs", "excl_work_logs_user_period",
+                "user_id", "start_time", "end_time");
+        }
+    }
+
+    /**
+     * Inserts or moves a work log.
+     *
+     * @throws DataIntegrityViolationException when it overlaps another work log of its user
+     * @throws IllegalArgumentException when it doesn't end after it starts or is longer than the max duration
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public WorkLog log(WorkLog workLog) {
+        if (!workLog.getEndTime().isAfter(workLog.getStartTime())) {
+            throw new IllegalArgumentException("Work log must end after it starts");
+        }
+        if (workLog.getEndTime().isAfter(workLog.getStartTime().plus(maxDuration))) {
+            throw new IllegalArgumentException("Work log must not be longer than " + maxDuration);
+        }
+        if (!exclusionConstraint) {
+            List<Long> conflicts = workLogRepository.findIdsOverlappingPeriod(workLog.getUser().getId(),
+                workLog.getStartTime().minus(maxDuration), workLog.getStartTime(), workLog.getEndTime(),
+                workLog.getId() == null ? 0L : workLog.getId());
+            if (!conflicts.isEmpty()) {
+                throw new DataIntegrityViolationException("Work log overlaps work logs " + conflicts);
+            }
+        }
+        // Callers already inside a transaction would otherwise only hit excl_work_logs_user_period
+        // when they commit, after log() has returned
+        return workLogRepository.saveAndFlush(workLog);
+    }
+
+    /** The user's work logs overlapping {@code [start, end)}, by start. */
+    public List<Long> overlapping(Long userId, ZonedDateTime start, ZonedDateTime end) {
+        if (cachedUsers == 0) {
+            return exclusionConstraint
+                ? workLogRepository.findIdsOverlappingRange(userId, start, end)
+                : workLogRepository.findIdsOverlappingPeriod(userId, start.minus(maxDuration), start, end, 0L);
+        }
+        synchronized (this) {
+            long[] ids = treeOf(userId).overlapping(millis(start), millis(end));
+            return Arrays.stream(ids).boxed().toList();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        trees.clear();
+    }
+
+    private IntervalTree treeOf(Long userId) {
+        IntervalTree tree = trees.get(userId);
+        if (tree == null) {
+            IntervalTree loaded = new IntervalTree();
+            jdbcTemplate.query("SELECT id, start_time, end_time FROM work_logs WHERE user_id = ?", rs -> {
+                loaded.put(rs.getLong(1), rs.getTimestamp(2).getTime(), rs.getTimestamp(3).getTime());
+            }, userId);
+            trees.put(userId, loaded);
+            tree = loaded;
+        }
+        return tree;
+    }
+
+    private static long millis(ZonedDateTime time) {
+        return time.toInstant().toEpochMilli();
+    }
+
+    // Work logs rarely change user, so every cached tree is checked for the old period
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onWorkLogChanged(WorkLogChangedEvent event) {
+        if (trees.isEmpty()) {
+            return;
+        }
+        for (IntervalTree tree : trees.values()) {
+            tree.remove(event.workLogId());
+        }
+        if (event.type() == EntityChangeType.DELETE) {
+            return;
+        }
+        jdbcTemplate.query("SELECT user_id, start_time, end_time FROM work_logs WHERE id = ?", rs -> {
+            IntervalTree tree = trees.get(rs.getLong(1));
+            if (tree != null) {
+                tree.put(event.workLogId(), rs.getTimestamp(2).getTime(), rs.getTimestamp(3).getTime());
+            }
+        }, event.workLogId());
+    }
+}
@@ -0,0 +1,106 @@
+package com.trials.crdb.app.services;
+
+import java.time.ZonedDateTime;
+
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.event.spi.PreDeleteEvent;
+import org.hibernate.event.spi.PreDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import com.trials.crdb.app.model.Ticket;
+import com.trials.crdb.app.model.User;
+import com.trials.crdb.app.model.WorkLog;
+import com.trials.crdb.app.utils.HibernateEvents;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Keeps the work log rollups in step with work log inserts, updates and deletes, and with the
+ * database cascade when a ticket is deleted, inside the writing transaction.
+ */
+@Component
+public class WorkLogRollupMaintainer implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener, PreDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final TimesheetService timesheetService;
+
+    public WorkLogRollupMaintainer(EntityManagerFactory entityManagerFactory, TimesheetService timesheetService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.timesheetService = timesheetService;
+    }
+
+    @PostConstruct
+    void register() {
+        HibernateEvents.append(entityManagerFactory, EventType.POST_INSERT, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_UPDATE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.POST_DELETE, this);
+        HibernateEvents.append(entityManagerFactory, EventType.PRE_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof WorkLog workLog) {
+            timesheetService.apply(workLog.getTicket().getId(), workLog.getUser().getId(),
+                workLog.getStartTime(), workLog.getHoursSpent(), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof WorkLog workLog) || event.getOldState() == null) {
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        Ticket oldTicket = (Ticket) oldState[persister.getPropertyIndex("ticket")];
+        User oldUser = (User) oldState[persister.getPropertyIndex("user")];
+        ZonedDateTime oldStart = (ZonedDateTime) oldState[persister.getPropertyIndex("startTime")];
+        Double oldHours = (Double) oldState[persister.getPropertyIndex("hoursSpent")];
+
+        boolean unchanged = oldTicket.getId().equals(workLog.getTicket().getId())
+            && oldUser.getId().equals(workLog.getUser().getId())
+            && TimesheetService.dayOf(oldStart).equals(TimesheetService.dayOf(workLog.getStartTime()))
+            && oldHours.equals(workLog.getHoursSpent());
+        if (unchanged) {
+            return;
+        }
+        timesheetService.apply(oldTicket.getId(), oldUser.getId(), oldStart, -oldHours, -1);
+        timesheetService.apply(workLog.getTicket().getId(), workLog.getUser().getId(),
+            workLog.getStartTime(), workLog.getHoursSpent(), 1);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof WorkLog) {
+            EntityPersister persister = event.getPersister();
+            Object[] state = event.getDeletedState();
+            Ticket ticket = (Ticket) state[persister.getPropertyIndex("ticket")];
+            User user = (User) state[persister.getPropertyIndex("user")];
+            ZonedDateTime startTime = (ZonedDateTime) state[persister.getPropertyIndex("startTime")];
+            Double hours = (Double) state[persister.getPropertyIndex("hoursSpent")];
+            timesheetService.apply(ticket.getId(), user.getId(), startTime, -hours, -1);
+        }
+    }
+
+    @Override
+    public boolean onPreDelete(PreDeleteEvent event) {
+        if (event.getEntity() instanceof Ticket ticket) {
+            timesheetService.removeRemainingForTicket(ticket.getId());
+        }
+        return false;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.Period;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.trials.crdb.app.model.UserWorkRollup.Granularity;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+/**
+ * Recomputes the work log rollups from {@code work_logs} and repairs rows that drifted, e.g. after
+ * bulk SQL or work logs written before the rollups existed (doubles as the backfill).
+ *
+ * Runs under REPEATABLE READ so a concurrent work log write makes the run fail and retry on the
+ * next schedule, rather than have its delta overwritten.
+ *
+ * With a work log retention (see {@link MonthlyPartitionManager} and {@link CockroachTimeSeriesLayout})
+ * expired logs disappear without the rollups noticing, and the rollups are meant to keep them.
+ * Only the whole weeks that are still fully retained are reconciled then, and ticket totals,
+ * which span every week, are left alone.
+ */
+@Component
+@ConditionalOnProperty(name = "app.work-log-rollups.reconciler.enabled", havingValue = "true", matchIfMissing = true)
+public class WorkLogRollupReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkLogRollupReconciler.class);
+    private static final double TOLERANCE = 1e-6;
+
+    private record Totals(double hours, long count) {
+
+        Totals plus(Totals other) {
+            return new Totals(hours + other.hours, count + other.count);
+        }
+
+        boolean matches(Totals other) {
+            return count == other.count && Math.abs(hours - other.hours) <= TOLERANCE;
+        }
+    }
+
+    private record UserBucket(Granularity granularity, long userId, LocalDate bucketStart) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String partitioningMode;
+    private final Period workLogsRetention;
+
+    public WorkLogRollupReconciler(JdbcTemplate jdbcTemplate,
+            @Value("${app.partitioning.mode:none}") String partitioningMode,
+            @Value("${app.partitioning.work-logs.retention:P0D}") Period workLogsRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitioningMode = partitioningMode;
+        this.workLogsRetention = workLogsRetention;
+    }
+
+    @Scheduled(cron = "${app.work-log-rollups.reconciler.cron:0 45 2 * * *}")
+    public void scheduledReconcile() {
+        int repaired = reconcile();
+        if (repaired > 0) {
+            log.warn("Repaired {} work log rollup rows", repaired);
+        }
+    }
+
+    /** @return number of rollup rows inserted, corrected or deleted */
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public int reconcile() {
+        LocalDate since = retainedSince();
+        if (since != null) {
+            return reconcileUserRollups(since);
+        }
+        return reconcileTicketTotals() + reconcileUserRollups(LocalDate.EPOCH);
+    }
+
+    /**
+     * First day from which no work log has expired, rounded up to a week start so that no day or
+     * week bucket is compared with part of its logs. Null when work logs are kept forever.
+     */
+    LocalDate retainedSince() {
+        if ("none".equals(partitioningMode) || workLogsRetention.isZero()) {
+            return null;
+        }
+        LocalDate cutoff = DateTimeProvider.now().withZoneSameInstant(ZoneOffset.UTC).toLocalDate()
+            .minus(workLogsRetention);
+        // Postgres drops whole months that ended by the cutoff, the TTL rows older than it
+        LocalDate since = "postgres".equals(partitioningMode) ? cutoff.withDayOfMonth(1) : cutoff.plusDays(1);
+        LocalDate week = TimesheetService.weekOf(since);
+        return week.equals(since) ? since : week.plusWeeks(1);
+    }
+
+    private int reconcileTicketTotals() {
+        Map<Long, Totals> expected = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT ticket_id, SUM(hours_spent) AS hours, COUNT(*) AS log_count FROM work_logs GROUP BY ticket_id",
+            rs -> {
+                expected.put(rs.getLong("ticket_id"), new Totals(rs.getDouble("hours"), rs.getLong("log_count")));
+            });
+        Map<Long, Totals> stored = new HashMap<>();
+        jdbcTemplate.query("SELECT ticket_id, total_hours, log_count FROM ticket_work_totals", rs -> {
+            stored.put(rs.getLong("ticket_id"), new Totals(rs.getDouble("total_hours"), rs.getLong("log_count")));
+        });
+
+        List<Object[]> upserts = new ArrayList<>();
+        expected.forEach((ticketId, totals) -> {
+            Totals current = stored.get(ticketId);
+            if (current == null || !totals.matches(current)) {
+                upserts.add(new Object[] {ticketId, totals.hours(), totals.count()});
+            }
+        });
+        List<Object[]> deletes = new ArrayList<>();
+        stored.keySet().stream()
+            .filter(ticketId -> !expected.containsKey(ticketId))
+            .forEach(ticketId -> deletes.add(new Object[] {ticketId}));
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO ticket_work_totals (ticket_id, total_hours, log_count) VALUES (?, ?, ?) " +
+            "ON CONFLICT (ticket_id) DO UPDATE SET total_hours = EXCLUDED.total_hours, log_count = EXCLUDED.log_count",
+            upserts);
+        jdbcTemplate.batchUpdate("DELETE FROM ticket_work_totals WHERE ticket_id = ?", deletes);
+        return upserts.size() + deletes.size();
+    }
+
+    private int reconcileUserRollups(LocalDate since) {
+        Map<UserBucket, Totals> expected = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, start_time, hours_spent FROM work_logs WHERE start_time >= ?", rs -> {
+            long userId = rs.getLong("user_id");
+            LocalDate day = rs.getObject("start_time", OffsetDateTime.class)
+                .withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+            Totals totals = new Totals(rs.getDouble("hours_spent"), 1);
+            expected.merge(new UserBucket(Granularity.DAY, userId, day), totals, Totals::plus);
+            expected.merge(new UserBucket(Granularity.WEEK, userId, TimesheetService.weekOf(day)), totals, Totals::plus);
+        }, since.atStartOfDay().atOffset(ZoneOffset.UTC));
+        Map<UserBucket, Totals> stored = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT granularity, user_id, bucket_start, hours, log_count FROM user_work_rollups WHERE bucket_start >= ?",
+            rs -> {
+                stored.put(new UserBucket(Granularity.valueOf(rs.getString("granularity")), rs.getLong("user_id"),
+                        rs.getObject("bucket_start", LocalDate.class)),
+                    new Totals(rs.getDouble("hours"), rs.getLong("log_count")));
+            }, since);
+
+        List<Object[]> upserts = new ArrayList<>();
+        expected.forEach((bucket, totals) -> {
+            Totals current = stored.get(bucket);
+            if (current == null || !totals.matches(current)) {
+                upserts.add(new Object[] {bucket.granularity().name(), bucket.userId(), bucket.bucketStart(),
+                    totals.hours(), totals.count()});
+            }
+        });
+        List<Object[]> deletes = new ArrayList<>();
+        stored.keySet().stream()
+            .filter(bucket -> !expected.containsKey(bucket))
+            .forEach(bucket -> deletes.add(new Object[] {
+                bucket.granularity().name(), bucket.userId(), bucket.bucketStart()}));
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO user_work_rollups (granularity, user_id, bucket_start, hours, log_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (granularity, user_id, bucket_start) DO UPDATE SET " +
+            "hours = EXCLUDED.hours, log_count = EXCLUDED.log_count",
+            upserts);
+        jdbcTemplate.batchUpdate(
+            "DELETE FROM user_work_rollups WHERE granularity = ? AND user_id = ? AND bucket_start = ?", deletes);
+        return upserts.size() + deletes.size();
+    }
+}
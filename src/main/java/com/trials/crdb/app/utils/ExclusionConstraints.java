@@ -0,0 +1,28 @@
+package com.trials.crdb.app.utils;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Postgres exclusion constraints that keep the half-open periods of rows sharing an owner
+ * column from overlapping.
+ */
+public class ExclusionConstraints {
+
+    private ExclusionConstraints() {}
+
+    /**
+     * Adds {@code name} to {@code table} unless it exists: no two rows with equal
+     * {@code ownerColumn} may have overlapping {@code [startColumn, endColumn)} periods. The
+     * btree_gist extension provides the GiST equality operator for the owner column.
+     */
+    public static void createPeriodConstraint(JdbcTemplate jdbcTemplate, String table, String name,
+            String ownerColumn, String startColumn, String endColumn) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+        Integer existing = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, name);
+        if (existing == 0) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT " + name + " EXCLUDE USING gist (" +
+                ownerColumn + " WITH =, tstzrange(" + startColumn + ", " + endColumn + ", '[)') WITH &&)");
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.trials.crdb.app.utils;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Registers Hibernate event listeners from Spring beans. Used by components that maintain
+ * derived state (caches, counters, rollups) from entity writes.
+ */
+public class HibernateEvents {
+
+    private HibernateEvents() {}
+
+    @SafeVarargs
+    public static <T> void append(EntityManagerFactory entityManagerFactory, EventType<T> type, T... listeners) {
+        registry(entityManagerFactory).appendListeners(type, listeners);
+    }
+
+    private static EventListenerRegistry registry(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getEventEngine()
+            .getListenerRegistry();
+    }
+}
@@ -0,0 +1,25 @@
+package com.trials.crdb.app.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for the {@code List<Object[]>} projections returned by native and aggregate queries.
+ */
+public class QueryResults {
+
+    private QueryResults() {}
+
+    /**
+     * Turns {@code [id, count]} rows into a map. Numeric columns come back as Integer, Long
+     * or BigInteger depending on the backend, so everything is normalised through Number.
+     */
+    public static Map<Long, Long> toLongMap(List<Object[]> rows) {
+        Map<Long, Long> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put(((Number) row[0]).longValue(), ((Number) row[1]).longValue());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,22 @@
+package com.trials.crdb.app.utils;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Ticket indexes JPA can't declare, created by every component whose queries read them so they
+ * exist whichever of those components are enabled.
+ */
+public class TicketIndexes {
+
+    private TicketIndexes() {}
+
+    /**
+     * Creates {@code idx_tickets_open_due_date} on {@code (due_date, id)} unless it exists, read
+     * by the overdue scan, the due timers and the due windows. With {@code partial} it only holds
+     * open tickets; Spanner has no partial indexes, so there it covers every ticket instead.
+     */
+    public static void createOpenDueDateIndex(JdbcTemplate jdbcTemplate, boolean partial) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_tickets_open_due_date ON tickets (due_date, id)" +
+            (partial ? " WHERE status NOT IN ('RESOLVED', 'CLOSED')" : ""));
+    }
+}
@@ -0,0 +1,157 @@
+package com.trials.crdb.app.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Ancestor and subtree queries on Postgres (Testcontainers, needs Docker): the recursive CTE of
+ * {@code TicketRepository.findTicketDependencyChain} against single lookups on
+ * {@code ticket_dependency_closure}. Tickets form {@code chains} chains of {@code chainLength}.
+ * The CTE runs uncapped here so both sides return the full chain.
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.trials.crdb.app.benchmarks.TicketDependencyClosureBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicketDependencyClosureBenchmark {
+
+    private static final String ANCESTORS_CTE =
+        "WITH RECURSIVE ticket_chain AS (" +
+        "  SELECT id, dependent_on_id, 1 AS depth FROM tickets WHERE id = ? " +
+        "  UNION ALL " +
+        "  SELECT t.id, t.dependent_on_id, tc.depth + 1 FROM tickets t " +
+        "  JOIN ticket_chain tc ON t.id = tc.dependent_on_id" +
+        ") SELECT id FROM ticket_chain WHERE depth > 1 ORDER BY depth";
+
+    private static final String ANCESTORS_CLOSURE =
+        "SELECT ancestor_id FROM ticket_dependency_closure WHERE descendant_id = ? ORDER BY depth";
+
+    private static final String SUBTREE_COUNT_CTE =
+        "WITH RECURSIVE subtree AS (" +
+        "  SELECT id FROM tickets WHERE dependent_on_id = ? " +
+        "  UNION ALL " +
+        "  SELECT t.id FROM tickets t JOIN subtree s ON t.dependent_on_id = s.id" +
+        ") SELECT COUNT(*) FROM subtree";
+
+    private static final String SUBTREE_COUNT_CLOSURE =
+        "SELECT COUNT(*) FROM ticket_dependency_closure WHERE ancestor_id = ?";
+
+    @Param("10000")
+    public int chains;
+
+    @Param({"10", "50"})
+    public int chainLength;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private PreparedStatement ancestorsCte, ancestorsClosure, subtreeCountCte, subtreeCountClosure;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        long tickets = (long) chains * chainLength;
+        try (Statement statement = connection.createStatement()) {
+            // Ticket chain * L + p (p = 1..L) depends on chain * L + p - 1; p = 1 starts the chain
+            statement.execute("CREATE TABLE tickets (id BIGINT PRIMARY KEY, dependent_on_id BIGINT)");
+            statement.execute("INSERT INTO tickets SELECT g, " +
+                "CASE WHEN (g - 1) % " + chainLength + " = 0 THEN NULL ELSE g - 1 END " +
+                "FROM generate_series(1, " + tickets + ") g");
+            statement.execute("CREATE INDEX idx_bench_dependent_on ON tickets (dependent_on_id)");
+            statement.execute("CREATE TABLE ticket_dependency_closure (ancestor_id BIGINT NOT NULL, " +
+                "descendant_id BIGINT NOT NULL, depth INT NOT NULL, PRIMARY KEY (ancestor_id, descendant_id))");
+            statement.execute("INSERT INTO ticket_dependency_closure " +
+                "SELECT g - d, g, d FROM generate_series(1, " + tickets + ") g, " +
+                "generate_series(1, " + (chainLength - 1) + ") d WHERE d <= (g - 1) % " + chainLength);
+            statement.execute("CREATE INDEX idx_bench_closure_descendant ON ticket_dependency_closure (descendant_id, depth)");
+            statement.execute("ANALYZE tickets");
+            statement.execute("ANALYZE ticket_dependency_closure");
+        }
+        ancestorsCte = connection.prepareStatement(ANCESTORS_CTE);
+        ancestorsClosure = connection.prepareStatement(ANCESTORS_CLOSURE);
+        subtreeCountCte = connection.prepareStatement(SUBTREE_COUNT_CTE);
+        subtreeCountClosure = connection.prepareStatement(SUBTREE_COUNT_CLOSURE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    // Walks the chains round robin: the last ticket for ancestors, the first for subtrees
+    private long nextChain() {
+        next = (next + 7919) % chains;
+        return next * chainLength;
+    }
+
+    @Benchmark
+    public List<Long> ancestorsRecursiveCte() throws SQLException {
+        return ids(ancestorsCte, nextChain() + chainLength);
+    }
+
+    @Benchmark
+    public List<Long> ancestorsClosure() throws SQLException {
+        return ids(ancestorsClosure, nextChain() + chainLength);
+    }
+
+    @Benchmark
+    public List<Long> subtreeCountRecursiveCte() throws SQLException {
+        return ids(subtreeCountCte, nextChain() + 1);
+    }
+
+    @Benchmark
+    public List<Long> subtreeCountClosure() throws SQLException {
+        return ids(subtreeCountClosure, nextChain() + 1);
+    }
+
+    private static List<Long> ids(PreparedStatement statement, long ticketId) throws SQLException {
+        statement.setLong(1, ticketId);
+        List<Long> result = new ArrayList<>();
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                result.add(rs.getLong(1));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TicketDependencyClosureBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
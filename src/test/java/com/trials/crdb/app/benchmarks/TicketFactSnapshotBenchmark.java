@@ -0,0 +1,172 @@
+package com.trials.crdb.app.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.cache.TicketFact;
+import com.trials.crdb.app.cache.TicketFactAggregate;
+import com.trials.crdb.app.cache.TicketFactDimension;
+import com.trials.crdb.app.cache.TicketFactFilter;
+import com.trials.crdb.app.cache.TicketFactTable;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+/**
+ * Dashboard aggregates over the same synthetic tickets, answered by the {@link TicketFactTable}
+ * and by SQL on Postgres (Testcontainers, needs Docker).
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.trials.crdb.app.benchmarks.TicketFactSnapshotBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+public class TicketFactSnapshotBenchmark {
+
+    private static final TicketStatus[] STATUSES = TicketStatus.values();
+    private static final TicketPriority[] PRIORITIES = TicketPriority.values();
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    @Param("5000000")
+    public int tickets;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private TicketFactTable table;
+    private ForkJoinPool pool;
+    private TicketFactFilter projectFilter;
+
+    // Same deterministic columns for the table and the SQL generate_series below
+    private static long project(long id) { return id % 200 + 1; }
+    private static int status(long id) { return (int) (id % STATUSES.length); }
+    private static int priority(long id) { return (int) (id / 7 % PRIORITIES.length); }
+    private static long assignee(long id) { return id % 1000; }     // 0 = unassigned
+    private static long createdDay(long id) { return id % 730; }
+    private static double hours(long id) { return id % 40 / 2.0; }
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        table = new TicketFactTable(tickets, pool);
+        for (long id = 1; id <= tickets; id++) {
+            long created = EPOCH + createdDay(id) * DAY_MILLIS;
+            boolean resolved = STATUSES[status(id)] == TicketStatus.RESOLVED || STATUSES[status(id)] == TicketStatus.CLOSED;
+            table.upsert(new TicketFact(id, project(id), STATUSES[status(id)], PRIORITIES[priority(id)],
+                assignee(id) == 0 ? null : assignee(id),
+                Instant.ofEpochMilli(created),
+                resolved ? Instant.ofEpochMilli(created + 3 * DAY_MILLIS) : null,
+                id % 5 == 0 ? null : hours(id),
+                null));
+        }
+        projectFilter = TicketFactFilter.ALL.withProjects(Set.of(42L));
+
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE tickets (id BIGINT PRIMARY KEY, project_id BIGINT NOT NULL, " +
+                "status VARCHAR(20) NOT NULL, priority VARCHAR(20) NOT NULL, assignee_id BIGINT, " +
+                "create_time TIMESTAMPTZ NOT NULL, resolved_date TIMESTAMPTZ, estimated_hours DOUBLE PRECISION)");
+            statement.execute("INSERT INTO tickets SELECT g, g % 200 + 1, " +
+                "(ARRAY['OPEN','IN_PROGRESS','REVIEW','RESOLVED','CLOSED'])[g % 5 + 1], " +
+                "(ARRAY['LOW','MEDIUM','HIGH','CRITICAL'])[g / 7 % 4 + 1], " +
+                "NULLIF(g % 1000, 0), " +
+                "TIMESTAMPTZ '2024-01-01 00:00:00+00' + (g % 730) * INTERVAL '1 day', " +
+                "CASE WHEN g % 5 >= 3 THEN TIMESTAMPTZ '2024-01-01 00:00:00+00' + (g % 730 + 3) * INTERVAL '1 day' END, " +
+                "CASE WHEN g % 5 <> 0 THEN (g % 40) / 2.0 END " +
+                "FROM generate_series(1, " + tickets + ") g");
+            statement.execute("CREATE INDEX idx_bench_project ON tickets (project_id)");
+            statement.execute("ANALYZE tickets");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<Object, TicketFactAggregate> snapshotPriorityForProject() {
+        return table.groupBy(TicketFactDimension.PRIORITY, projectFilter);
+    }
+
+    @Benchmark
+    public Map<Object, Object> sqlPriorityForProject() throws SQLException {
+        return groupBy("SELECT priority, COUNT(*) FROM tickets WHERE project_id = 42 GROUP BY priority");
+    }
+
+    @Benchmark
+    public Map<Object, TicketFactAggregate> snapshotHoursByCreatedDay() {
+        return table.groupBy(TicketFactDimension.CREATED_DAY,
+            TicketFactFilter.ALL.withStatuses(Set.of(TicketStatus.OPEN, TicketStatus.IN_PROGRESS)));
+    }
+
+    @Benchmark
+    public Map<Object, Object> sqlHoursByCreatedDay() throws SQLException {
+        return groupBy("SELECT CAST(create_time AT TIME ZONE 'UTC' AS DATE), SUM(estimated_hours) FROM tickets " +
+            "WHERE status IN ('OPEN', 'IN_PROGRESS') GROUP BY 1");
+    }
+
+    @Benchmark
+    public Map<Object, TicketFactAggregate> snapshotStatusByAssignee() {
+        return table.groupBy(TicketFactDimension.ASSIGNEE,
+            TicketFactFilter.ALL.withStatuses(Set.of(TicketStatus.OPEN)));
+    }
+
+    @Benchmark
+    public Map<Object, Object> sqlStatusByAssignee() throws SQLException {
+        return groupBy("SELECT assignee_id, COUNT(*) FROM tickets WHERE status = 'OPEN' GROUP BY assignee_id");
+    }
+
+    private Map<Object, Object> groupBy(String sql) throws SQLException {
+        Map<Object, Object> result = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                result.put(rs.getObject(1), rs.getObject(2));
+            }
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TicketFactSnapshotBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
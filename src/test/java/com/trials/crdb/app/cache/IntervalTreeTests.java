@@ -0,0 +1,60 @@
+package com.trials.crdb.app.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalTreeTests {
+
+    @Test
+    public void testHalfOpenOverlaps() {
+        IntervalTree tree = new IntervalTree();
+        tree.put(1L, 0L, 10L);
+        tree.put(2L, 10L, 20L);
+        tree.put(3L, 5L, 30L);
+
+        assertThat(tree.overlapping(10L, 11L)).containsExactly(3L, 2L);
+        // Touching periods don't overlap
+        assertThat(tree.overlapping(20L, 25L)).containsExactly(3L);
+        assertThat(tree.overlapping(30L, 40L)).isEmpty();
+
+        // Moving and removing sprints
+        tree.put(3L, 40L, 50L);
+        assertThat(tree.overlapping(10L, 11L)).containsExactly(2L);
+        assertThat(tree.remove(2L)).isTrue();
+        assertThat(tree.remove(2L)).isFalse();
+        assertThat(tree.overlapping(0L, 100L)).containsExactly(1L, 3L);
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testMatchesABruteForceScan() {
+        Random random = new Random(7);
+        IntervalTree tree = new IntervalTree();
+        Map<Long, long[]> reference = new HashMap<>();
+        for (int round = 0; round < 20_000; round++) {
+            long id = random.nextInt(300);
+            if (random.nextInt(3) == 0) {
+                assertThat(tree.remove(id)).isEqualTo(reference.remove(id) != null);
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(random.nextBoolean() ? 50 : 2_000);
+                tree.put(id, start, end);
+                reference.put(id, new long[] {start, end});
+            }
+
+            long start = random.nextInt(10_000);
+            long end = start + 1 + random.nextInt(500);
+            long[] expected = reference.entrySet().stream()
+                .filter(entry -> entry.getValue()[0] < end && entry.getValue()[1] > start)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+            assertThat(tree.overlapping(start, end)).containsExactlyInAnyOrder(expected);
+            assertThat(tree.size()).isEqualTo(reference.size());
+        }
+    }
+}
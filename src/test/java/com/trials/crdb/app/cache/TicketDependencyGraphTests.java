@@ -0,0 +1,142 @@
+package com.trials.crdb.app.cache;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketDependencyGraphTests {
+
+    @Test
+    public void testAncestorsAndDescendants() {
+        TicketDependencyGraph graph = new TicketDependencyGraph();
+        graph.setParent(2L, 1L);
+        graph.setParent(3L, 2L);
+        graph.setParent(4L, 2L);
+        graph.setParent(5L, 3L);
+
+        assertThat(graph.parentOf(3L)).isEqualTo(2L);
+        assertThat(graph.parentOf(1L)).isEqualTo(TicketDependencyGraph.NONE);
+        assertThat(graph.ancestors(5L)).containsExactly(3L, 2L, 1L);
+        assertThat(graph.descendants(2L)).containsExactlyInAnyOrder(3L, 4L, 5L);
+        assertThat(graph.depth(5L)).isEqualTo(3);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+        assertThat(graph.wouldCreateCycle(1L, 5L)).isTrue();
+        assertThat(graph.wouldCreateCycle(4L, 5L)).isFalse();
+        assertThat(graph.wouldCreateCycle(7L, 7L)).isTrue();
+
+        // Re-pointing moves the whole subtree
+        graph.setParent(3L, 4L);
+        assertThat(graph.ancestors(5L)).containsExactly(3L, 4L, 2L, 1L);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+        graph.setParent(3L, 4L);
+        assertThat(graph.edgeCount()).isEqualTo(4);
+
+        // Clearing the last edge of a ticket forgets it
+        graph.setParent(5L, TicketDependencyGraph.NONE);
+        assertThat(graph.descendants(3L)).isEmpty();
+        assertThat(graph.ancestors(5L)).isEmpty();
+    }
+
+    @Test
+    public void testRemoveDropsEdgesBothWays() {
+        TicketDependencyGraph graph = new TicketDependencyGraph();
+        graph.setParent(2L, 1L);
+        graph.setParent(3L, 2L);
+        graph.setParent(4L, 2L);
+
+        graph.remove(2L);
+        assertThat(graph.edgeCount()).isZero();
+        assertThat(graph.parentOf(3L)).isEqualTo(TicketDependencyGraph.NONE);
+        assertThat(graph.descendants(1L)).isEmpty();
+        graph.remove(2L);
+
+        // Released nodes are reused
+        for (long id = 10; id < 20; id++) {
+            graph.setParent(id, id - 1);
+        }
+        assertThat(graph.ancestors(19L)).hasSize(10);
+        assertThat(graph.edgeCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void testClearThenReload() {
+        TicketDependencyGraph graph = new TicketDependencyGraph(16);
+        for (long id = 2; id <= 1_000; id++) {
+            graph.setParent(id, id / 2);
+        }
+        graph.clear();
+        assertThat(graph.edgeCount()).isZero();
+        assertThat(graph.ancestors(1_000L)).isEmpty();
+        assertThat(graph.descendants(1L)).isEmpty();
+
+        for (long id = 2; id <= 1_000; id++) {
+            graph.setParent(id, id / 2);
+        }
+        assertThat(graph.ancestors(1_000L)).containsExactly(500L, 250L, 125L, 62L, 31L, 15L, 7L, 3L, 1L);
+        assertThat(graph.descendants(1L)).hasSize(999);
+    }
+
+    @Test
+    public void testMatchesAReferenceMapUnderChurn() {
+        // Starts small, so the table grows and the backward-shift delete runs many times
+        Random random = new Random(3);
+        TicketDependencyGraph graph = new TicketDependencyGraph(16);
+        Map<Long, Long> reference = new HashMap<>();
+        for (int round = 0; round < 50_000; round++) {
+            long id = 1 + random.nextInt(2_000);
+            int action = random.nextInt(10);
+            if (action < 6) {
+                long parentId = 1 + random.nextInt(2_000);
+                if (graph.wouldCreateCycle(id, parentId)) {
+                    continue;
+                }
+                graph.setParent(id, parentId);
+                reference.put(id, parentId);
+            } else if (action < 8) {
+                graph.setParent(id, TicketDependencyGraph.NONE);
+                reference.remove(id);
+            } else {
+                graph.remove(id);
+                reference.remove(id);
+                reference.values().removeIf(parentId -> parentId == id);
+            }
+            if (round % 5_000 == 0) {
+                assertMatches(graph, reference);
+            }
+        }
+        assertMatches(graph, reference);
+    }
+
+    private static void assertMatches(TicketDependencyGraph graph, Map<Long, Long> reference) {
+        assertThat(graph.edgeCount()).isEqualTo(reference.size());
+        Map<Long, List<Long>> children = new HashMap<>();
+        reference.forEach((id, parentId) -> children.computeIfAbsent(parentId, p -> new ArrayList<>()).add(id));
+        for (long id = 1; id <= 2_000; id++) {
+            assertThat(graph.parentOf(id)).isEqualTo(reference.getOrDefault(id, TicketDependencyGraph.NONE));
+
+            List<Long> ancestors = new ArrayList<>();
+            for (Long parentId = reference.get(id); parentId != null; parentId = reference.get(parentId)) {
+                ancestors.add(parentId);
+            }
+            assertThat(graph.ancestors(id)).containsExactly(ancestors.stream().mapToLong(Long::longValue).toArray());
+
+            List<Long> descendants = new ArrayList<>();
+            Deque<Long> queue = new ArrayDeque<>(children.getOrDefault(id, List.of()));
+            while (!queue.isEmpty()) {
+                Long next = queue.poll();
+                descendants.add(next);
+                queue.addAll(children.getOrDefault(next, List.of()));
+            }
+            assertThat(graph.descendants(id)).containsExactlyInAnyOrder(
+                descendants.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.trials.crdb.app.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TicketTimerWheelTests {
+
+    @Test
+    public void testFiresAtTheDeadlineAcrossLevels() {
+        TicketTimerWheel wheel = new TicketTimerWheel(1_000L);
+        wheel.schedule(1L, 1_010L);
+        wheel.schedule(2L, 1_000L + 5_000L);
+        wheel.schedule(3L, 1_000L + 300_000L);
+
+        assertThat(wheel.advance(1_009L)).isEmpty();
+        assertThat(wheel.advance(1_010L)).containsExactly(1L);
+        assertThat(wheel.advance(5_999L)).isEmpty();
+        assertThat(wheel.advance(6_000L)).containsExactly(2L);
+        assertThat(wheel.advance(300_999L)).isEmpty();
+        assertThat(wheel.advance(301_000L)).containsExactly(3L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testCancelRescheduleAndPastDeadlines() {
+        TicketTimerWheel wheel = new TicketTimerWheel(0L);
+        wheel.schedule(1L, 100L);
+        wheel.schedule(2L, 100L);
+        assertThat(wheel.cancel(1L)).isTrue();
+        assertThat(wheel.cancel(1L)).isFalse();
+
+        // Rescheduling replaces the earlier timer
+        wheel.schedule(2L, 200L);
+        assertThat(wheel.advance(150L)).isEmpty();
+
+        // Deadlines already passed fire with the next tick processed
+        wheel.schedule(3L, 10L);
+        assertThat(wheel.advance(151L)).containsExactly(3L);
+        assertThat(wheel.advance(200L)).containsExactly(2L);
+
+        assertThat(wheel.schedule(4L, wheel.currentTick() + TicketTimerWheel.SPAN_TICKS)).isFalse();
+        assertThat(wheel.contains(4L)).isFalse();
+    }
+
+    @Test
+    public void testMatchesASortedReference() {
+        Random random = new Random(42);
+        TicketTimerWheel wheel = new TicketTimerWheel(123_456L);
+        Map<Long, Long> reference = new TreeMap<>();
+        long now = 123_455L;
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = 0; i < 20; i++) {
+                long key = random.nextInt(5_000);
+                if (random.nextInt(4) == 0) {
+                    assertThat(wheel.cancel(key)).isEqualTo(reference.remove(key) != null);
+                } else {
+                    // Mostly near deadlines, some far enough out for the upper levels
+                    long delta = random.nextInt(3) == 0 ? random.nextInt(2_000_000) : random.nextInt(500);
+                    long deadline = now + 1 + delta;
+                    wheel.schedule(key, deadline);
+                    reference.put(key, deadline);
+                }
+            }
+            now += 1 + random.nextInt(random.nextInt(10) == 0 ? 50_000 : 200);
+
+            List<Long> expected = new ArrayList<>();
+            long limit = now;
+            reference.entrySet().stream()
+                .filter(entry -> entry.getValue() <= limit)
+                .sorted(Map.Entry.comparingByValue())
+                .forEach(entry -> expected.add(entry.getKey()));
+            expected.forEach(reference::remove);
+
+            long[] fired = wheel.advance(now);
+            assertThat(fired).containsExactlyInAnyOrder(expected.stream().mapToLong(Long::longValue).toArray());
+            assertThat(wheel.size()).isEqualTo(reference.size());
+        }
+    }
+}
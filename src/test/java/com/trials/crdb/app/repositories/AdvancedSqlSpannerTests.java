@@ -197,6 +197,8 @@ public class AdvancedSqlSpannerTests {
                     "description TEXT," +
                     "status VARCHAR(20) NOT NULL," +
                     "priority VARCHAR(20) NOT NULL," +
+                    "priority_rank BIGINT GENERATED ALWAYS AS (CASE priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 " +
+                        "WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 END) STORED," +
                     "metadata JSONB," +
                     "assignee_id BIGINT," +
                     "reporter_id BIGINT NOT NULL," +
@@ -208,10 +210,12 @@ public class AdvancedSqlSpannerTests {
                     "estimated_hours FLOAT," +
                     "resolved_date TIMESTAMPTZ," +
                     "dependent_on_id BIGINT," +
+                    "blocked BOOLEAN NOT NULL DEFAULT false," +
                     "tags TEXT[]," +
                     "version BIGINT NOT NULL DEFAULT 0," +
                     "PRIMARY KEY (id)" +
                     ")");
+                stmt.execute("CREATE INDEX idx_tickets_project_status_rank ON tickets (project_id, status, priority_rank, id)");
             }
         }
         
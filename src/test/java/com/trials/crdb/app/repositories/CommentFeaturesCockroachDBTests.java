@@ -6,6 +6,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -206,6 +207,26 @@ public class CommentFeaturesCockroachDBTests extends TimeBasedTest {
         assertThat(user1CommentCount).isEqualTo(3);
     }
 
+    @Test
+    public void testBatchedCommentCountsWithoutLoadingComments() {
+        commentRepository.saveAll(List.of(
+            new Comment("First comment on ticket1", ticket1, user1),
+            new Comment("Second comment on ticket1", ticket1, user2),
+            new Comment("First comment on ticket2", ticket2, user3)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // One grouped query for a whole page of tickets
+        Map<Long, Long> counts = commentRepository.countByTicketIds(List.of(ticket1.getId(), ticket2.getId()));
+        assertThat(counts).containsEntry(ticket1.getId(), 2L);
+        assertThat(counts).containsEntry(ticket2.getId(), 1L);
+
+        // Size of the lazy collection comes from a COUNT, the comments stay unloaded
+        Ticket reloaded = ticketRepository.findById(ticket1.getId()).orElseThrow();
+        assertThat(reloaded.getCommentCount()).isEqualTo(2);
+        assertThat(Hibernate.isInitialized(reloaded.getComments())).isFalse();
+    }
+
     @Test
     public void testRecentComments() {
         // Clean existing comments
@@ -6,6 +6,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.hibernate.Hibernate;
+import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -33,6 +35,7 @@ import com.trials.crdb.app.utils.PostgresCompatibilityInspector;
 import org.springframework.core.env.MapPropertySource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @Testcontainers
 @DataJpaTest
@@ -207,6 +210,30 @@ public class CommentFeaturesPostgresTests extends TimeBasedTest {
         assertThat(user1CommentCount).isEqualTo(3);
     }
 
+    @Test
+    public void testBatchedCommentCountsWithoutLoadingComments() {
+        commentRepository.saveAll(List.of(
+            new Comment("First comment on ticket1", ticket1, user1),
+            new Comment("Second comment on ticket1", ticket1, user2),
+            new Comment("First comment on ticket2", ticket2, user3)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // One grouped query for a whole page of tickets
+        Map<Long, Long> counts = commentRepository.countByTicketIds(List.of(ticket1.getId(), ticket2.getId()));
+        assertThat(counts).containsEntry(ticket1.getId(), 2L);
+        assertThat(counts).containsEntry(ticket2.getId(), 1L);
+
+        // Size of the lazy collection comes from a COUNT, the comments stay unloaded
+        Ticket reloaded = ticketRepository.findById(ticket1.getId()).orElseThrow();
+        assertThat(reloaded.getCommentCount()).isEqualTo(2);
+        assertThat(Hibernate.isInitialized(reloaded.getComments())).isFalse();
+
+        // Once detached there's no session left to count with
+        entityManager.detach(reloaded);
+        assertThatThrownBy(reloaded::getCommentCount).isInstanceOf(LazyInitializationException.class);
+    }
+
     @Test
     public void testRecentComments() {
         // Clean existing comments
@@ -281,6 +308,34 @@ public class CommentFeaturesPostgresTests extends TimeBasedTest {
         assertThat(((Long) topCommenter[1])).isEqualTo(3L);
     }
 
+    @Test
+    public void testStoredContentLength() {
+        jdbcTemplate.execute("DELETE FROM comments");
+
+        Comment saved = commentRepository.saveAndFlush(new Comment("Ünïcödé ✓", ticket1, user1));
+        assertThat(saved.getContentLength()).isEqualTo(9);
+
+        // Rows written without Hibernate get the length from the generated column
+        for (String content : List.of("a", "abc", "x".repeat(12), "y".repeat(25))) {
+            jdbcTemplate.update(
+                "INSERT INTO comments (content, ticket_id, commenter_id, create_time) VALUES (?, ?, ?, ?)",
+                content, ticket2.getId(), user2.getId(), java.sql.Timestamp.from(baseTime.toInstant()));
+        }
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT content_length FROM comments WHERE id = ?", Integer.class, saved.getId())).isEqualTo(9);
+
+        assertThat(commentRepository.findLongComments(10)).hasSize(2);
+        assertThat(commentRepository.getAverageCommentLength()).isEqualTo((9 + 1 + 3 + 12 + 25) / 5.0);
+        assertThat(commentRepository.contentLengthHistogram(10))
+            .containsExactly(Map.entry(0L, 3L), Map.entry(10L, 1L), Map.entry(20L, 1L));
+
+        // Updating the content recomputes the stored length
+        saved.setContent("short");
+        commentRepository.saveAndFlush(saved);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT content_length FROM comments WHERE id = ?", Integer.class, saved.getId())).isEqualTo(5);
+    }
+
     @Test
     public void testPaginatedComments() {
         // Create many comments for pagination testing
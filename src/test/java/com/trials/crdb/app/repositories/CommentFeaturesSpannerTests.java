@@ -10,8 +10,10 @@ import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -191,6 +193,8 @@ public class CommentFeaturesSpannerTests extends TimeBasedTest {
                     "description TEXT," +
                     "status VARCHAR(20) NOT NULL," +
                     "priority VARCHAR(20) NOT NULL," +
+                    "priority_rank BIGINT GENERATED ALWAYS AS (CASE priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 " +
+                        "WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 END) STORED," +
                     "metadata JSONB," +
                     "assignee_id BIGINT," +
                     "reporter_id BIGINT NOT NULL," +
@@ -202,6 +206,7 @@ public class CommentFeaturesSpannerTests extends TimeBasedTest {
                     "estimated_hours FLOAT," +
                     "resolved_date TIMESTAMPTZ," +
                     "dependent_on_id BIGINT," +
+                    "blocked BOOLEAN NOT NULL DEFAULT false," +
                     "tags TEXT[]," +
                     "version BIGINT NOT NULL DEFAULT 0," +
                     "PRIMARY KEY (id)" +
@@ -211,12 +216,14 @@ public class CommentFeaturesSpannerTests extends TimeBasedTest {
                 stmt.execute("CREATE TABLE comments (" +
                     "id BIGINT GENERATED BY DEFAULT AS IDENTITY (BIT_REVERSED_POSITIVE)," +
                     "content TEXT NOT NULL," +
+                    "content_length BIGINT GENERATED ALWAYS AS (LENGTH(content)) STORED," +
                     "ticket_id BIGINT NOT NULL," +
                     "commenter_id BIGINT NOT NULL," +
                     "create_time TIMESTAMPTZ NOT NULL," +
                     "update_time TIMESTAMPTZ," +
                     "PRIMARY KEY (id)" +
                     ")");
+                stmt.execute("CREATE INDEX idx_comments_content_length ON comments (content_length)");
             }
         }
         
@@ -326,6 +333,26 @@ public class CommentFeaturesSpannerTests extends TimeBasedTest {
         assertThat(user1CommentCount).isEqualTo(3);
     }
 
+    @Test
+    public void testBatchedCommentCountsWithoutLoadingComments() {
+        commentRepository.saveAll(List.of(
+            new Comment("First comment on ticket1", ticket1, user1),
+            new Comment("Second comment on ticket1", ticket1, user2),
+            new Comment("First comment on ticket2", ticket2, user3)));
+        entityManager.flush();
+        entityManager.clear();
+
+        // One grouped query for a whole page of tickets
+        Map<Long, Long> counts = commentRepository.countByTicketIds(List.of(ticket1.getId(), ticket2.getId()));
+        assertThat(counts).containsEntry(ticket1.getId(), 2L);
+        assertThat(counts).containsEntry(ticket2.getId(), 1L);
+
+        // Size of the lazy collection comes from a COUNT, the comments stay unloaded
+        Ticket reloaded = ticketRepository.findById(ticket1.getId()).orElseThrow();
+        assertThat(reloaded.getCommentCount()).isEqualTo(2);
+        assertThat(Hibernate.isInitialized(reloaded.getComments())).isFalse();
+    }
+
     @Test
     public void testRecentComments() {
         // Clean existing comments
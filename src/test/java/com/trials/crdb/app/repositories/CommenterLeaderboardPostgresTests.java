@@ -0,0 +1,177 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.CommenterLeaderboardMaintainer;
+import com.trials.crdb.app.services.CommenterLeaderboardService;
+import com.trials.crdb.app.services.CommenterRank;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = CommenterLeaderboardPostgresTests.DataSourceInitializer.class)
+@Import({CommenterLeaderboardService.class, CommenterLeaderboardMaintainer.class})
+public class CommenterLeaderboardPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_commenter_leaderboard")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private CommenterLeaderboardService leaderboardService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User alice, bob, carol;
+    private Project project1, project2;
+    private Ticket ticket1, ticket2;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(new User("alice", "alice@example.com", "Alice"));
+        bob = userRepository.save(new User("bob", "bob@example.com", "Bob"));
+        carol = userRepository.save(new User("carol", "carol@example.com", "Carol"));
+        project1 = projectRepository.save(new Project("Talkative", "First project"));
+        project2 = projectRepository.save(new Project("Quiet", "Second project"));
+        ticket1 = ticketRepository.save(new Ticket("First", "First ticket", alice, project1));
+        ticket2 = ticketRepository.save(new Ticket("Second", "Second ticket", alice, project2));
+    }
+
+    private Comment comment(Ticket ticket, User commenter) {
+        return commentRepository.saveAndFlush(new Comment("Comment", ticket, commenter));
+    }
+
+    @Test
+    public void testLeaderboardsMatchGroupBy() {
+        comment(ticket1, alice);
+        comment(ticket1, bob);
+        comment(ticket1, bob);
+        comment(ticket2, bob);
+        comment(ticket2, carol);
+        comment(ticket2, carol);
+        comment(ticket2, carol);
+
+        List<CommenterRank> top = leaderboardService.topCommenters(2);
+        assertThat(top).extracting(CommenterRank::username).containsExactly("bob", "carol");
+        assertThat(top).extracting(CommenterRank::commentCount).containsExactly(3L, 3L);
+
+        List<Object[]> fromGroupBy = commentRepository.findTopCommenters(PageRequest.of(0, 3));
+        for (Object[] row : fromGroupBy) {
+            User user = (User) row[0];
+            assertThat(leaderboardService.commentCount(user.getId())).isEqualTo(((Number) row[1]).longValue());
+        }
+
+        assertThat(leaderboardService.topCommenters(project1.getId(), 10))
+            .containsExactly(new CommenterRank(bob.getId(), "bob", 2), new CommenterRank(alice.getId(), "alice", 1));
+
+        assertThat(leaderboardService.topCommentersLastDays(7, 1))
+            .containsExactly(new CommenterRank(bob.getId(), "bob", 3));
+        LocalDate lastMonth = LocalDate.now(ZoneOffset.UTC).minusMonths(1);
+        assertThat(leaderboardService.topCommenters(lastMonth.minusDays(7), lastMonth, 10)).isEmpty();
+    }
+
+    @Test
+    public void testDeletesAndProjectMovesKeepCountersInStep() {
+        Comment first = comment(ticket1, alice);
+        comment(ticket1, bob);
+        comment(ticket1, bob);
+
+        commentRepository.delete(first);
+        commentRepository.flush();
+        assertThat(leaderboardService.commentCount(alice.getId())).isZero();
+        assertThat(leaderboardService.topCommenters(10)).extracting(CommenterRank::username).containsExactly("bob");
+
+        ticket1.setProject(project2);
+        ticketRepository.saveAndFlush(ticket1);
+        assertThat(leaderboardService.topCommenters(project1.getId(), 10)).isEmpty();
+        assertThat(leaderboardService.topCommenters(project2.getId(), 10))
+            .containsExactly(new CommenterRank(bob.getId(), "bob", 2));
+
+        // Deleting the ticket cascades to its comments through Hibernate
+        entityManager.clear();
+        ticketRepository.delete(ticketRepository.findById(ticket1.getId()).orElseThrow());
+        ticketRepository.flush();
+        assertThat(leaderboardService.topCommenters(10)).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM commenter_daily_counts", Long.class)).isZero();
+    }
+
+    @Test
+    public void testRebuildReproducesMaintainedCounters() {
+        comment(ticket1, alice);
+        comment(ticket1, bob);
+        comment(ticket2, bob);
+        List<CommenterRank> maintained = leaderboardService.topCommenters(10);
+        List<CommenterRank> project2Maintained = leaderboardService.topCommenters(project2.getId(), 10);
+        List<CommenterRank> weekMaintained = leaderboardService.topCommentersLastDays(7, 10);
+
+        jdbcTemplate.update("UPDATE commenter_totals SET comment_count = 99");
+        leaderboardService.rebuild();
+
+        assertThat(leaderboardService.topCommenters(10)).isEqualTo(maintained);
+        assertThat(leaderboardService.topCommenters(project2.getId(), 10)).isEqualTo(project2Maintained);
+        assertThat(leaderboardService.topCommentersLastDays(7, 10)).isEqualTo(weekMaintained);
+    }
+}
@@ -228,6 +228,8 @@ public class ConstraintSpannerTests extends TimeBasedTest {
                     "description TEXT," +
                     "status VARCHAR(20) NOT NULL," +
                     "priority VARCHAR(20) NOT NULL," +
+                    "priority_rank BIGINT GENERATED ALWAYS AS (CASE priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 " +
+                        "WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 END) STORED," +
                     "metadata JSONB," +
                     "assignee_id BIGINT," +
                     "reporter_id BIGINT NOT NULL," +
@@ -238,6 +240,7 @@ public class ConstraintSpannerTests extends TimeBasedTest {
                     "resolved_date TIMESTAMPTZ," +
                     "estimated_hours FLOAT," +
                     "dependent_on_id BIGINT," +
+                    "blocked BOOLEAN NOT NULL DEFAULT false," +
                     "tags TEXT[]," +
                     "version BIGINT NOT NULL DEFAULT 0," +
                     "PRIMARY KEY (id)" +
@@ -246,6 +249,7 @@ public class ConstraintSpannerTests extends TimeBasedTest {
                 stmt.execute("CREATE TABLE comments (" +
                     "id BIGINT GENERATED BY DEFAULT AS IDENTITY (BIT_REVERSED_POSITIVE)," +
                     "content TEXT NOT NULL," +
+                    "content_length BIGINT GENERATED ALWAYS AS (LENGTH(content)) STORED," +
                     "ticket_id BIGINT NOT NULL," +
                     "commenter_id BIGINT NOT NULL," +
                     "create_time TIMESTAMPTZ NOT NULL," +
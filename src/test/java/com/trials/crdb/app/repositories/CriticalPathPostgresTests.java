@@ -0,0 +1,153 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.CriticalPath;
+import com.trials.crdb.app.services.CriticalPathService;
+import com.trials.crdb.app.services.CriticalPathStep;
+import com.trials.crdb.app.services.TimesheetService;
+import com.trials.crdb.app.services.WorkLogRollupMaintainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = CriticalPathPostgresTests.DataSourceInitializer.class)
+@Import({CriticalPathService.class, TimesheetService.class, WorkLogRollupMaintainer.class})
+public class CriticalPathPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_critical_path")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private CriticalPathService criticalPathService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static final ZonedDateTime WORK_START = ZonedDateTime.of(2024, 5, 15, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("planner", "planner@example.com", "Release Planner"));
+        project = projectRepository.save(new Project("Release", "Release planning project"));
+    }
+
+    private Ticket ticket(String title, Ticket dependentOn, Double estimate) {
+        Ticket ticket = new Ticket(title, title, user, project);
+        ticket.setDependentOn(dependentOn);
+        ticket.setEstimatedHours(estimate);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    private void log(Ticket ticket, double hours) {
+        workLogRepository.saveAndFlush(new WorkLog(ticket, user, WORK_START,
+            WORK_START.plusMinutes((long) (hours * 60)), "Work", hours));
+    }
+
+    @Test
+    public void testLongestRemainingChainAndSlack() {
+        // design(8) -> api(10, 7 logged) -> ui(5)
+        //           -> schema(6) -> migration(3)
+        Ticket design = ticket("Design", null, 8.0);
+        Ticket api = ticket("API", design, 10.0);
+        Ticket ui = ticket("UI", api, 5.0);
+        Ticket schema = ticket("Schema", design, 6.0);
+        Ticket migration = ticket("Migration", schema, 3.0);
+        log(api, 7.0);
+
+        CriticalPath result = criticalPathService.forProject(project.getId());
+
+        assertThat(result.totalHours()).isEqualTo(17.0);
+        assertThat(result.path()).extracting(CriticalPathStep::title).containsExactly("Design", "Schema", "Migration");
+        assertThat(result.slack()).containsEntry(design.getId(), 0.0)
+            .containsEntry(migration.getId(), 0.0)
+            .containsEntry(api.getId(), 1.0)
+            .containsEntry(ui.getId(), 1.0);
+        assertThat(result.skippedTicketIds()).isEmpty();
+
+        // Resolving the design removes it from scope; its dependents no longer wait for it
+        design.resolve();
+        ticketRepository.saveAndFlush(design);
+        result = criticalPathService.forProject(project.getId());
+        assertThat(result.totalHours()).isEqualTo(9.0);
+        assertThat(result.path()).extracting(CriticalPathStep::title).containsExactly("Schema", "Migration");
+        assertThat(result.slack()).doesNotContainKey(design.getId()).containsEntry(ui.getId(), 1.0);
+    }
+
+    @Test
+    public void testSprintScopeAndSlack() {
+        Ticket base = ticket("Base", null, 4.0);
+        Ticket longBranch = ticket("Long", base, 10.0);
+        Ticket shortBranch = ticket("Short", base, 2.0);
+        ticket("Outside", longBranch, 50.0);
+
+        Sprint sprint = new Sprint("Sprint 1", "Critical path sprint", WORK_START, WORK_START.plusDays(14), project);
+        sprint.addTicket(base);
+        sprint.addTicket(longBranch);
+        sprint.addTicket(shortBranch);
+        sprintRepository.saveAndFlush(sprint);
+
+        CriticalPath result = criticalPathService.forSprint(sprint.getId());
+        assertThat(result.totalHours()).isEqualTo(14.0);
+        assertThat(result.path()).extracting(CriticalPathStep::title).containsExactly("Base", "Long");
+        assertThat(result.slack()).hasSize(3).containsEntry(shortBranch.getId(), 8.0);
+    }
+}
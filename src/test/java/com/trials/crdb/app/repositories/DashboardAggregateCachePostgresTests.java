@@ -0,0 +1,171 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.cache.DashboardAggregateCache;
+import com.trials.crdb.app.events.TicketChangeEventPublisher;
+import com.trials.crdb.app.model.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = DashboardAggregateCachePostgresTests.DataSourceInitializer.class)
+@Import({DashboardAggregateCache.class, TicketChangeEventPublisher.class, SimpleMeterRegistry.class})
+// Invalidation happens after commit, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DashboardAggregateCachePostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_dashboard_cache")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+            properties.put("spring.jpa.show-sql", "true");
+            // Never wait for the recompute - makes stale-while-revalidate observable
+            properties.put("app.dashboard-cache.refresh-wait", "0ms");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private DashboardAggregateCache dashboardCache;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private User reporter;
+    private Project project1, project2;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        reporter = userRepository.save(new User("dashboard", "dashboard@example.com", "Dashboard User"));
+        project1 = projectRepository.save(new Project("Dashboard One", "First project"));
+        project2 = projectRepository.save(new Project("Dashboard Two", "Second project"));
+        ticketRepository.save(new Ticket("Existing", "Open ticket", reporter, project1));
+
+        dashboardCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Long awaitCount(Project project, long expected) throws InterruptedException {
+        Long count = dashboardCache.countByProjectAndStatus(project, Ticket.TicketStatus.OPEN);
+        for (int i = 0; i < 50 && count != expected; i++) {
+            Thread.sleep(100);
+            count = dashboardCache.countByProjectAndStatus(project, Ticket.TicketStatus.OPEN);
+        }
+        return count;
+    }
+
+    @Test
+    public void whenAggregateRequestedTwice_thenSecondCallIsServedFromCache() {
+        assertThat(dashboardCache.countByProjectAndStatus(project1, Ticket.TicketStatus.OPEN)).isEqualTo(1L);
+        double hitsBefore = meterRegistry.get("dashboard.cache.requests").tag("result", "hit").counter().count();
+        statistics.clear();
+
+        assertThat(dashboardCache.countByProjectAndStatus(project1, Ticket.TicketStatus.OPEN)).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(meterRegistry.get("dashboard.cache.requests").tag("result", "hit").counter().count())
+            .isEqualTo(hitsBefore + 1);
+    }
+
+    @Test
+    public void whenOtherProjectWritten_thenEntryStaysFresh() {
+        dashboardCache.countByProjectAndStatus(project1, Ticket.TicketStatus.OPEN);
+
+        ticketRepository.save(new Ticket("Elsewhere", "Different project", reporter, project2));
+        statistics.clear();
+
+        assertThat(dashboardCache.countByProjectAndStatus(project1, Ticket.TicketStatus.OPEN)).isEqualTo(1L);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    public void whenSameProjectWritten_thenStaleValueServedUntilRecomputed() throws InterruptedException {
+        dashboardCache.countByProjectAndStatus(project1, Ticket.TicketStatus.OPEN);
+        dashboardCache.countByStatus(Ticket.TicketStatus.OPEN);
+
+        ticketRepository.save(new Ticket("Second", "Another open ticket", reporter, project1));
+
+        // Recompute runs in the background, the eventual value reflects the write
+        assertThat(awaitCount(project1, 2L)).isEqualTo(2L);
+        assertThat(dashboardCache.countByStatus(Ticket.TicketStatus.OPEN)).isIn(1L, 2L);
+        assertThat(meterRegistry.get("dashboard.cache.recompute").timers()).isNotEmpty();
+    }
+
+    @Test
+    public void whenUnrelatedPropertyUpdated_thenCountsStayCached() {
+        Ticket ticket = ticketRepository.findByProject(project1).get(0);
+        dashboardCache.countByPriority();
+
+        ticket.setTitle("Renamed");
+        ticketRepository.save(ticket);
+        statistics.clear();
+
+        dashboardCache.countByPriority();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+}
@@ -0,0 +1,208 @@
+package com.trials.crdb.app.repositories;
+
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.events.TicketsOverdueEvent;
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.JobLeaseService;
+import com.trials.crdb.app.services.OverdueTicketScanner;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = OverdueTicketScannerPostgresTests.DataSourceInitializer.class)
+@Import({OverdueTicketScanner.class, JobLeaseService.class, OverdueTicketScannerPostgresTests.OverdueEvents.class})
+// The scanner reads committed tickets and its own lease row, so let every call commit
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OverdueTicketScannerPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_overdue_scanner")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.overdue-scanner.batch-size", "2");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @TestConfiguration
+    static class OverdueEvents {
+        final List<TicketsOverdueEvent> received = new ArrayList<>();
+
+        @EventListener
+        void on(TicketsOverdueEvent event) {
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private OverdueTicketScanner scanner;
+
+    @Autowired
+    private JobLeaseService leases;
+
+    @Autowired
+    private OverdueEvents events;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reporter;
+    private Project project;
+    private ZonedDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("scheduler", "scheduler@example.com", "Scheduler"));
+        project = projectRepository.save(new Project("Overdue", "Overdue scanner project"));
+        start = ZonedDateTime.now();
+        events.received.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DateTimeProvider.useSystemClock();
+        jdbcTemplate.update("DELETE FROM job_leases");
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    // Due dates must lie after the creation time, so tickets are due in the future and the
+    // scanner's clock is moved past them instead
+    private Ticket ticketDueIn(String title, int hours) {
+        Ticket ticket = new Ticket(title, title, reporter, project);
+        ticket.setDueDate(start.plusHours(hours));
+        return ticketRepository.save(ticket);
+    }
+
+    private List<Long> reportedIds() {
+        return events.received.stream().flatMap(event -> event.ticketIds().stream()).toList();
+    }
+
+    @Test
+    public void testPartialIndexCoversOpenTickets() {
+        String definition = jdbcTemplate.queryForObject(
+            "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_tickets_open_due_date'", String.class);
+        assertThat(definition).contains("(due_date, id)").contains("WHERE");
+
+        // The scan starts at the watermark instead of the oldest open overdue ticket (seq scans
+        // off - the table is tiny)
+        String plan;
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id, due_date FROM tickets WHERE status NOT IN ('RESOLVED', 'CLOSED') " +
+                "AND due_date < '2026-03-02 12:00:00+00' AND due_date >= '2026-03-01 12:00:00+00' " +
+                "AND (due_date > '2026-03-01 12:00:00+00' OR (due_date = '2026-03-01 12:00:00+00' AND id > 7)) " +
+                "ORDER BY due_date, id LIMIT 2", String.class));
+        } finally {
+            jdbcTemplate.execute("SET enable_seqscan = on");
+        }
+        assertThat(plan).contains("idx_tickets_open_due_date").doesNotContain("Sort");
+        assertThat(plan.lines().filter(line -> line.contains("Index Cond")))
+            .singleElement().asString().contains("due_date >=").contains("due_date <");
+    }
+
+    @Test
+    public void testReportsOnlyNewlyOverdueTicketsInBatches() {
+        Ticket first = ticketDueIn("First", 1);
+        Ticket second = ticketDueIn("Second", 2);
+        Ticket third = ticketDueIn("Third", 3);
+        Ticket resolved = ticketDueIn("Resolved", 1);
+        resolved.resolve();
+        ticketRepository.save(resolved);
+        Ticket later = ticketDueIn("Later", 10);
+
+        DateTimeProvider.useFixedClockAt(start.plusHours(5));
+        assertThat(scanner.scan()).isEqualTo(3);
+        // Batch size 2 - the third ticket comes in a second event
+        assertThat(events.received).hasSize(2);
+        assertThat(events.received.get(0).ticketIds()).hasSize(2);
+        assertThat(reportedIds()).containsExactly(first.getId(), second.getId(), third.getId());
+
+        // Nothing new until the clock passes the next due date
+        events.received.clear();
+        assertThat(scanner.scan()).isZero();
+        assertThat(events.received).isEmpty();
+
+        DateTimeProvider.useFixedClockAt(start.plusHours(11));
+        assertThat(scanner.scan()).isEqualTo(1);
+        assertThat(reportedIds()).containsExactly(later.getId());
+        assertThat(leases.watermark("overdue-scanner")).get()
+            .extracting(JobLeaseService.Watermark::id).isEqualTo(later.getId());
+    }
+
+    @Test
+    public void testSkipsWhileAnotherNodeHoldsTheLease() {
+        ticketDueIn("Overdue", 1);
+        DateTimeProvider.useFixedClockAt(start.plusHours(2));
+        jdbcTemplate.update("INSERT INTO job_leases (name, owner, lease_until) VALUES (?, ?, ?)",
+            "overdue-scanner", "other-node", Timestamp.from(start.plusHours(3).toInstant()));
+
+        assertThat(scanner.scan()).isZero();
+        assertThat(events.received).isEmpty();
+
+        // Once the other node's lease has expired this node takes over
+        DateTimeProvider.useFixedClockAt(start.plusHours(4));
+        assertThat(scanner.scan()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT owner FROM job_leases WHERE name = 'overdue-scanner'", String.class))
+            .isEqualTo(leases.nodeId());
+    }
+}
@@ -0,0 +1,170 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.Period;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.MonthlyPartitionManager;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Converts tables that already hold rows, as happens when partitioning is turned on for an
+ * existing database. Partitioning is off in this context, the manager is run by hand after seeding.
+ */
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = PartitionConversionPostgresTests.DataSourceInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PartitionConversionPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_partition_conversion")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.partitioning.mode", "none");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        workLogRepository.deleteAll();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = ?", String.class, table);
+    }
+
+    private List<String> foreignKeys(String table) {
+        return jdbcTemplate.queryForList(
+            "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = to_regclass(?) AND contype = 'f'",
+            String.class, table);
+    }
+
+    @Test
+    public void testConvertsTablesWithRows() {
+        User developer = userRepository.save(new User("developer", "developer@example.com", "Developer"));
+        Project project = projectRepository.save(new Project("Legacy", "Project from before partitioning"));
+        Ticket ticket = ticketRepository.save(new Ticket("Work", "Logged work", developer, project));
+        Ticket other = ticketRepository.save(new Ticket("Other", "Other work", developer, project));
+        List<Long> commentIds = List.of(
+            commentRepository.save(new Comment("First", ticket, developer)).getId(),
+            commentRepository.save(new Comment("Second comment", ticket, developer)).getId());
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        List<Long> workLogIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ZonedDateTime start = current.minusMonths(i * 2).atDay(3).atTime(9, 0).atZone(ZoneOffset.UTC);
+            workLogIds.add(workLogRepository.save(
+                new WorkLog(i == 0 ? other : ticket, developer, start, start.plusHours(1), "Work", 1.0)).getId());
+        }
+        List<String> commentForeignKeys = foreignKeys("comments");
+        List<String> workLogForeignKeys = foreignKeys("work_logs");
+
+        MonthlyPartitionManager manager = new MonthlyPartitionManager(jdbcTemplate, transactionManager,
+            entityManagerFactory, 1, Period.ZERO, Period.ZERO);
+        assertThat(manager.partitionTables()).isEqualTo(2);
+        assertThat(manager.partitionTables()).isZero();
+        manager.maintain();
+
+        // Same rows under the same ids, spread over their months
+        assertThat(commentRepository.findAll()).extracting(Comment::getId).containsExactlyInAnyOrderElementsOf(commentIds);
+        assertThat(jdbcTemplate.queryForList("SELECT content_length FROM comments ORDER BY id", Integer.class))
+            .containsExactly(5, 14);
+        assertThat(workLogRepository.findAll()).extracting(WorkLog::getId).containsExactlyInAnyOrderElementsOf(workLogIds);
+        assertThat(jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM work_logs WHERE id = ?",
+            String.class, workLogIds.get(2))).isEqualTo(MonthlyPartitionManager.partitionName("work_logs", current.minusMonths(4)));
+
+        // The identity carries on after the copied ids
+        long nextComment = commentRepository.save(new Comment("Third", ticket, developer)).getId();
+        assertThat(nextComment).isEqualTo(commentIds.get(1) + 1);
+        ZonedDateTime now = ZonedDateTime.now();
+        long nextWorkLog = workLogRepository.save(new WorkLog(ticket, developer, now, now.plusHours(1), "Work", 1.0)).getId();
+        assertThat(nextWorkLog).isEqualTo(workLogIds.get(2) + 1);
+
+        // Indexes and foreign keys are back on the partitioned tables
+        assertThat(indexes("comments")).contains("idx_comments_content_length", "idx_comments_create_time");
+        assertThat(indexes("work_logs")).contains("idx_work_logs_ticket_start", "idx_work_logs_user_period",
+            "idx_work_logs_start_time");
+        assertThat(foreignKeys("comments")).containsExactlyInAnyOrderElementsOf(commentForeignKeys);
+        assertThat(foreignKeys("work_logs")).containsExactlyInAnyOrderElementsOf(workLogForeignKeys)
+            .anySatisfy(definition -> assertThat(definition).contains("ON DELETE CASCADE"));
+
+        // Including the cascade from tickets
+        jdbcTemplate.update("DELETE FROM tickets WHERE id = ?", other.getId());
+        assertThat(workLogRepository.findById(workLogIds.get(0))).isEmpty();
+        assertThat(workLogRepository.count()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,96 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.Period;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.CockroachContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.services.CockroachTimeSeriesLayout;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = PartitioningCockroachDBTests.DataSourceInitializer.class)
+@Import(CockroachTimeSeriesLayout.class)
+// Schema changes don't run inside the test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PartitioningCockroachDBTests {
+
+    @Container
+    static final CockroachContainer cockroachContainer = 
+        new CockroachContainer(DockerImageName.parse("cockroachdb/cockroach:latest"))
+            .withCommand("start-single-node --insecure");
+
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", cockroachContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", cockroachContainer.getUsername());
+            properties.put("spring.datasource.password", cockroachContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.CockroachDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.partitioning.mode", "cockroachdb");
+            properties.put("app.partitioning.comments.retention", "P90D");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-cockroachdb", properties));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String createStatement(String table) {
+        return jdbcTemplate.queryForObject("SELECT create_statement FROM [SHOW CREATE TABLE " + table + "]", String.class);
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT index_name FROM [SHOW INDEXES FROM " + table + "]", String.class);
+    }
+
+    @Test
+    public void testTimeIndexesAreShardedAndRetentionIsTtl() {
+        assertThat(indexes("comments")).contains("idx_comments_create_time_sharded");
+        assertThat(indexes("work_logs")).contains("idx_work_logs_start_time_sharded");
+        assertThat(createStatement("comments")).contains("USING HASH")
+            .contains("ttl_expiration_expression").contains("create_time").contains("@daily");
+        // Zero retention on a table that never had a TTL leaves it alone
+        assertThat(createStatement("work_logs")).doesNotContain("ttl_expiration_expression");
+
+        // Re-applied with other retentions, e.g. after a configuration change
+        CockroachTimeSeriesLayout changed = new CockroachTimeSeriesLayout(jdbcTemplate, entityManagerFactory,
+            Period.ZERO, Period.of(1, 2, 3));
+        changed.apply();
+        changed.apply();
+        assertThat(createStatement("comments")).doesNotContain("ttl_expiration_expression");
+        assertThat(createStatement("work_logs")).contains("ttl_expiration_expression").contains("start_time");
+    }
+}
@@ -0,0 +1,228 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.MonthlyPartitionManager;
+import com.trials.crdb.app.services.TimesheetService;
+import com.trials.crdb.app.services.WorkLogRollupMaintainer;
+import com.trials.crdb.app.services.WorkLogRollupReconciler;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = PartitioningPostgresTests.DataSourceInitializer.class)
+@Import({MonthlyPartitionManager.class, TimesheetService.class, WorkLogRollupMaintainer.class,
+    WorkLogRollupReconciler.class})
+// Partition maintenance runs DDL in its own transactions, so let every call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PartitioningPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_partitioning")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.partitioning.mode", "postgres");
+            properties.put("app.partitioning.months-ahead", "2");
+            properties.put("app.partitioning.work-logs.retention", "P6M");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private MonthlyPartitionManager partitionManager;
+
+    @Autowired
+    private WorkLogRollupReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User developer;
+    private Ticket ticket;
+    private YearMonth currentMonth;
+
+    @BeforeEach
+    void setUp() {
+        developer = userRepository.save(new User("developer", "developer@example.com", "Developer"));
+        Project project = projectRepository.save(new Project("Archive", "Partitioned project"));
+        ticket = ticketRepository.save(new Ticket("Work", "Logged work", developer, project));
+        currentMonth = YearMonth.now(ZoneOffset.UTC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DateTimeProvider.useSystemClock();
+        commentRepository.deleteAll();
+        workLogRepository.deleteAll();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM ticket_work_totals");
+        jdbcTemplate.update("DELETE FROM user_work_rollups");
+    }
+
+    private List<String> partitions(String table) {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass(?)", String.class, table);
+    }
+
+    private WorkLog workLogIn(YearMonth month) {
+        ZonedDateTime start = month.atDay(10).atTime(9, 0).atZone(ZoneOffset.UTC);
+        return workLogRepository.save(new WorkLog(ticket, developer, start, start.plusHours(2), "Work", 2.0));
+    }
+
+    private String partitionOf(String table, Long id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM " + table + " WHERE id = ?",
+            String.class, id);
+    }
+
+    @Test
+    public void testTablesArePartitionedAhead() {
+        for (String table : List.of("comments", "work_logs")) {
+            assertThat(partitions(table)).contains(table + "_default",
+                MonthlyPartitionManager.partitionName(table, currentMonth),
+                MonthlyPartitionManager.partitionName(table, currentMonth.plusMonths(2)));
+        }
+        // Maintenance is idempotent
+        assertThat(partitionManager.maintain()).isZero();
+
+        Comment comment = commentRepository.save(new Comment("First", ticket, developer));
+        assertThat(partitionOf("comments", comment.getId()))
+            .isEqualTo(MonthlyPartitionManager.partitionName("comments", currentMonth));
+        assertThat(commentRepository.findRecentCommentsSince(ZonedDateTime.now().minusDays(1), PageRequest.of(0, 10)))
+            .extracting(Comment::getId).containsExactly(comment.getId());
+    }
+
+    @Test
+    public void testRowsMoveOutOfTheDefaultPartition() {
+        YearMonth past = currentMonth.minusMonths(3);
+        WorkLog old = workLogIn(past);
+        assertThat(partitionOf("work_logs", old.getId())).isEqualTo("work_logs_default");
+
+        // Maintenance as of that month creates its partition and moves the row over
+        DateTimeProvider.useFixedClockAt(past.atDay(1).atStartOfDay(ZoneOffset.UTC));
+        assertThat(partitionManager.maintain()).isPositive();
+        assertThat(partitionOf("work_logs", old.getId()))
+            .isEqualTo(MonthlyPartitionManager.partitionName("work_logs", past));
+        assertThat(workLogRepository.findById(old.getId())).isPresent();
+
+        // A query bounded to the current month doesn't visit the old one
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+            "EXPLAIN SELECT * FROM work_logs WHERE start_time >= '" + currentMonth.atDay(1) + " 00:00:00+00' " +
+            "AND start_time <= '" + currentMonth.atEndOfMonth() + " 00:00:00+00'", String.class));
+        assertThat(plan).contains(MonthlyPartitionManager.partitionName("work_logs", currentMonth))
+            .doesNotContain(MonthlyPartitionManager.partitionName("work_logs", past));
+    }
+
+    @Test
+    public void testExpiredPartitionsAreDropped() {
+        YearMonth expired = currentMonth.minusMonths(8);
+        WorkLog old = workLogIn(expired);
+        WorkLog recent = workLogIn(currentMonth);
+        DateTimeProvider.useFixedClockAt(expired.atDay(1).atStartOfDay(ZoneOffset.UTC));
+        partitionManager.maintain();
+        assertThat(partitions("work_logs")).contains(MonthlyPartitionManager.partitionName("work_logs", expired));
+
+        // Back to now, the month is past the six month retention - comments keep everything
+        DateTimeProvider.useSystemClock();
+        assertThat(partitionManager.maintain()).isPositive();
+        assertThat(partitions("work_logs")).doesNotContain(MonthlyPartitionManager.partitionName("work_logs", expired));
+        assertThat(workLogRepository.findById(old.getId())).isEmpty();
+        assertThat(workLogRepository.findById(recent.getId())).isPresent();
+    }
+
+    @Test
+    public void testReconcilerKeepsRollupsOfDroppedPartitions() {
+        YearMonth expired = currentMonth.minusMonths(8);
+        workLogIn(expired);
+        workLogIn(currentMonth);
+        DateTimeProvider.useFixedClockAt(expired.atDay(1).atStartOfDay(ZoneOffset.UTC));
+        partitionManager.maintain();
+        DateTimeProvider.useSystemClock();
+        partitionManager.maintain();
+        assertThat(partitions("work_logs")).doesNotContain(MonthlyPartitionManager.partitionName("work_logs", expired));
+
+        String totals = "SELECT total_hours || '/' || log_count FROM ticket_work_totals WHERE ticket_id = ?";
+        String rollups = "SELECT granularity || ' ' || bucket_start || ' ' || hours || '/' || log_count " +
+            "FROM user_work_rollups WHERE user_id = ? ORDER BY 1";
+        String totalsBefore = jdbcTemplate.queryForObject(totals, String.class, ticket.getId());
+        List<String> rollupsBefore = jdbcTemplate.queryForList(rollups, String.class, developer.getId());
+        assertThat(totalsBefore).isEqualTo("4/2");
+        assertThat(rollupsBefore).hasSize(4);
+
+        // The dropped month is outside the retained window, so nothing is "repaired"
+        assertThat(reconciler.reconcile()).isZero();
+        assertThat(jdbcTemplate.queryForObject(totals, String.class, ticket.getId())).isEqualTo(totalsBefore);
+        assertThat(jdbcTemplate.queryForList(rollups, String.class, developer.getId()))
+            .containsExactlyElementsOf(rollupsBefore);
+
+        // Drift inside the window is still repaired
+        jdbcTemplate.update("UPDATE user_work_rollups SET hours = hours + 1 WHERE user_id = ? AND bucket_start >= ?",
+            developer.getId(), currentMonth.minusMonths(1).atDay(1));
+        assertThat(reconciler.reconcile()).isPositive();
+        assertThat(jdbcTemplate.queryForList(rollups, String.class, developer.getId()))
+            .containsExactlyElementsOf(rollupsBefore);
+    }
+}
@@ -0,0 +1,193 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.ProjectEstimationStatsChecker;
+import com.trials.crdb.app.services.ProjectEstimationStatsMaintainer;
+import com.trials.crdb.app.services.ProjectEstimationStatsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = ProjectEstimationStatsPostgresTests.DataSourceInitializer.class)
+@Import({ProjectEstimationStatsService.class, ProjectEstimationStatsMaintainer.class, ProjectEstimationStatsChecker.class})
+public class ProjectEstimationStatsPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_estimation_stats")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private ProjectEstimationStatsService statsService;
+
+    @Autowired
+    private ProjectEstimationStatsChecker statsChecker;
+
+    @Autowired
+    private ProjectEstimationStatsRepository statsRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reporter;
+    private Project project1, project2;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("estimator", "estimator@example.com", "Estimator"));
+        project1 = projectRepository.save(new Project("Estimation One", "First project"));
+        project2 = projectRepository.save(new Project("Estimation Two", "Second project"));
+    }
+
+    private Ticket createTicket(String title, Project project, Double hours) {
+        Ticket ticket = new Ticket(title, "Estimated work", reporter, project);
+        ticket.setEstimatedHours(hours);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    private void assertMatchesFullScan(Project project) {
+        Map<String, Object> expected = ticketRepository.calculateProjectEstimationStatistics(project.getId());
+        Map<String, Object> actual = statsService.getStatistics(project.getId());
+        for (String key : new String[] {"total", "average", "maximum", "rms"}) {
+            if (expected.get(key) == null) {
+                assertThat(actual.get(key)).as(key).isNull();
+            } else {
+                assertThat(((Number) actual.get(key)).doubleValue()).as(key)
+                    .isCloseTo(((Number) expected.get(key)).doubleValue(), within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testStatisticsFollowTicketWrites() {
+        createTicket("A", project1, 4.0);
+        Ticket b = createTicket("B", project1, 10.0);
+        createTicket("C", project1, null);
+        Ticket d = createTicket("D", project1, 2.5);
+        assertMatchesFullScan(project1);
+        assertThat(statsRepository.findById(project1.getId()).orElseThrow().getTicketCount()).isEqualTo(4);
+
+        b.setEstimatedHours(6.0);
+        ticketRepository.saveAndFlush(b);
+        assertMatchesFullScan(project1);
+
+        d.setProject(project2);
+        ticketRepository.saveAndFlush(d);
+        assertMatchesFullScan(project1);
+        assertMatchesFullScan(project2);
+
+        ticketRepository.delete(b);
+        ticketRepository.flush();
+        assertMatchesFullScan(project1);
+        assertThat(statsRepository.findById(project1.getId()).orElseThrow().getTicketCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testFirstWriteIsAnEstimateUpdate() {
+        createTicket("A", project1, 4.0);
+        Ticket b = createTicket("B", project1, 10.0);
+        // A project whose tickets predate the stats table has no row yet
+        statsRepository.deleteAll();
+        statsRepository.flush();
+
+        b.setEstimatedHours(6.0);
+        ticketRepository.saveAndFlush(b);
+        assertThat(statsRepository.findById(project1.getId()).orElseThrow().getEstimatedCount()).isEqualTo(2);
+        assertMatchesFullScan(project1);
+
+        // Same for a project move - both sides are counted once
+        statsRepository.deleteAll();
+        statsRepository.flush();
+        b.setProject(project2);
+        ticketRepository.saveAndFlush(b);
+        assertThat(statsRepository.findById(project1.getId()).orElseThrow().getTicketCount()).isEqualTo(1);
+        assertThat(statsRepository.findById(project2.getId()).orElseThrow().getTicketCount()).isEqualTo(1);
+        assertMatchesFullScan(project1);
+        assertMatchesFullScan(project2);
+    }
+
+    @Test
+    public void testRemovingMaximumIsRecomputedOnRead() {
+        createTicket("Small", project1, 3.0);
+        Ticket big = createTicket("Big", project1, 20.0);
+
+        ticketRepository.delete(big);
+        ticketRepository.flush();
+        assertThat(statsService.load(project1.getId()).isMaxStale()).isTrue();
+
+        assertThat(statsService.getStatistics(project1.getId()).get("maximum")).isEqualTo(3.0);
+        assertThat(statsService.load(project1.getId()).isMaxStale()).isFalse();
+    }
+
+    @Test
+    public void testEmptyProjectMatchesAggregateNulls() {
+        createTicket("Unestimated", project2, null);
+        assertMatchesFullScan(project2);
+        assertThat(statsService.getStatistics(project2.getId()).get("total")).isNull();
+    }
+
+    @Test
+    public void testCheckerRepairsDrift() {
+        createTicket("A", project1, 5.0);
+        createTicket("B", project1, 7.0);
+        assertThat(statsChecker.verifyAll()).isEmpty();
+
+        // Bulk SQL that bypasses Hibernate leaves the counters behind
+        jdbcTemplate.update("UPDATE tickets SET estimated_hours = 1.0 WHERE project_id = ?", project1.getId());
+        assertThat(statsChecker.verify(project1.getId())).isFalse();
+
+        assertThat(statsChecker.verifyAll()).containsExactly(project1.getId());
+        assertMatchesFullScan(project1);
+    }
+}
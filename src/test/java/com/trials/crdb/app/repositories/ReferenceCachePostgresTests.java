@@ -0,0 +1,182 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.cache.ReferenceCacheInvalidationChannel;
+import com.trials.crdb.app.cache.ReferenceCacheStatistics;
+import com.trials.crdb.app.model.*;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = ReferenceCachePostgresTests.DataSourceInitializer.class)
+@Import({ReferenceCacheStatistics.class, ReferenceCacheInvalidationChannel.class})
+// The query cache only serves results written by committed transactions, so every repository call commits
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReferenceCachePostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_reference_cache")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.properties.hibernate.cache.use_second_level_cache", "true");
+            properties.put("spring.jpa.properties.hibernate.cache.use_query_cache", "true");
+            properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+            properties.put("app.cache.invalidation.enabled", "true");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserProjectRoleRepository roleRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ReferenceCacheStatistics cacheStatistics;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        User user = userRepository.save(new User("cached", "cached@example.com", "Cached User"));
+        Project project = projectRepository.save(new Project("Cached Project", "Reference data"));
+        roleRepository.save(new UserProjectRole(user, project, "DEVELOPER"));
+
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        roleRepository.deleteAll();
+        userRepository.deleteAll();
+        projectRepository.deleteAll();
+    }
+
+    @Test
+    public void whenReferenceLookupRepeated_thenDatabaseIsNotTouched() {
+        Project first = projectRepository.findByName("Cached Project").orElseThrow();
+        User user = userRepository.findByUsername("cached").orElseThrow();
+        roleRepository.findByUserAndProject(user, first).orElseThrow();
+        long statementsAfterWarmUp = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 5; i++) {
+            Project project = projectRepository.findByName("Cached Project").orElseThrow();
+            User again = userRepository.findByUsername("cached").orElseThrow();
+            UserProjectRole role = roleRepository.findByUserAndProject(again, project).orElseThrow();
+            assertThat(role.getRoleName()).isEqualTo("DEVELOPER");
+        }
+
+        System.out.println("Reference cache: " + cacheStatistics.snapshot());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterWarmUp);
+        assertThat(cacheStatistics.getQueryCacheHitCount()).isGreaterThanOrEqualTo(15);
+        assertThat(cacheStatistics.snapshot().get(Project.CACHE_REGION).hits()).isPositive();
+    }
+
+    @Test
+    public void whenReferenceEntityUpdated_thenCachedLookupSeesNewValue() {
+        Project project = projectRepository.findByName("Cached Project").orElseThrow();
+        project.setDescription("Changed");
+        projectRepository.save(project);
+
+        assertThat(projectRepository.findByName("Cached Project").orElseThrow().getDescription())
+            .isEqualTo("Changed");
+    }
+
+    @Test
+    public void whenLookedUpByNaturalId_thenServedFromNaturalIdCache() {
+        Project project = projectRepository.loadByName("Cached Project").orElseThrow();
+        User user = userRepository.loadByUsername("cached").orElseThrow();
+        long statementsAfterWarmUp = statistics.getPrepareStatementCount();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(projectRepository.loadByName("Cached Project").orElseThrow().getId()).isEqualTo(project.getId());
+            assertThat(userRepository.loadByUsername("cached").orElseThrow().getId()).isEqualTo(user.getId());
+        }
+        assertThat(projectRepository.loadByName("Missing")).isEmpty();
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isGreaterThanOrEqualTo(10);
+        // Only the miss for the unknown name went to the database
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsAfterWarmUp + 1);
+    }
+
+    @Test
+    public void whenOtherNodeAnnouncesWrite_thenCachedEntriesAreEvicted() throws InterruptedException {
+        Project project = projectRepository.loadByName("Cached Project").orElseThrow();
+        projectRepository.findByName("Cached Project").orElseThrow();
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        assertThat(cache.containsEntity(Project.class, project.getId())).isTrue();
+
+        // Same payload a node's channel publishes after committing a write
+        jdbcTemplate.execute("SELECT pg_notify('reference_cache', 'other-node|" + Project.class.getName() + "|" +
+            project.getId() + "')");
+        for (int i = 0; i < 50 && cache.containsEntity(Project.class, project.getId()); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(cache.containsEntity(Project.class, project.getId())).isFalse();
+
+        // Natural-id and query results are gone as well, so the next lookups read the row again
+        statistics.clear();
+        projectRepository.loadByName("Cached Project").orElseThrow();
+        projectRepository.findByName("Cached Project").orElseThrow();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+}
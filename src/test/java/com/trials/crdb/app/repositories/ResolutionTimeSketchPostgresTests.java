@@ -0,0 +1,167 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.services.ResolutionTimeSketchMaintainer;
+import com.trials.crdb.app.services.ResolutionTimeSketchService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = ResolutionTimeSketchPostgresTests.DataSourceInitializer.class)
+@Import({ResolutionTimeSketchService.class, ResolutionTimeSketchMaintainer.class})
+// Cache invalidation happens after commit, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ResolutionTimeSketchPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_resolution_sketch")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private ResolutionTimeSketchService sketchService;
+
+    @Autowired
+    private ResolutionTimeSketchRepository sketchRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User reporter;
+    private Project project1, project2;
+    private LocalDate from, to;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("resolver", "resolver@example.com", "Resolver"));
+        project1 = projectRepository.save(new Project("Sketch One", "First project"));
+        project2 = projectRepository.save(new Project("Sketch Two", "Second project"));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        from = today.minusDays(1);
+        to = today.plusDays(30);
+        sketchService.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sketchRepository.deleteAll();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private void resolveAfter(Project project, TicketPriority priority, Duration resolutionTime) {
+        Ticket ticket = new Ticket("Resolved", "Resolved ticket", reporter, project);
+        ticket.setPriority(priority);
+        ticket = ticketRepository.saveAndFlush(ticket);
+        ticket.setStatus(Ticket.TicketStatus.RESOLVED);
+        ticket.setResolvedDate(ticket.getCreateTime().plus(resolutionTime));
+        ticketRepository.saveAndFlush(ticket);
+    }
+
+    private static void assertWithinOnePercent(Duration actual, Duration expected) {
+        assertThat((double) actual.getSeconds())
+            .isBetween(expected.getSeconds() * 0.99, expected.getSeconds() * 1.01);
+    }
+
+    @Test
+    public void testPercentilesPerProjectAndPriority() {
+        for (int hours = 1; hours <= 100; hours++) {
+            resolveAfter(project1, TicketPriority.HIGH, Duration.ofHours(hours));
+        }
+        resolveAfter(project1, TicketPriority.LOW, Duration.ofDays(20));
+
+        Map<Double, Duration> result = sketchService.percentiles(
+            project1.getId(), TicketPriority.HIGH, from, to, 50.0, 90.0, 99.0);
+
+        assertWithinOnePercent(result.get(50.0), Duration.ofHours(50));
+        assertWithinOnePercent(result.get(90.0), Duration.ofHours(90));
+        assertWithinOnePercent(result.get(99.0), Duration.ofHours(99));
+        assertThat(sketchService.histogram(List.of(project1.getId()), null, from, to).getTotalCount())
+            .isEqualTo(101);
+    }
+
+    @Test
+    public void testSketchesMergeAcrossProjects() {
+        resolveAfter(project1, TicketPriority.MEDIUM, Duration.ofHours(1));
+        resolveAfter(project2, TicketPriority.MEDIUM, Duration.ofHours(3));
+
+        Map<Double, Duration> project1Only = sketchService.percentiles(project1.getId(), null, from, to, 100.0);
+        Map<Double, Duration> both = sketchService.percentiles(
+            Set.of(project1.getId(), project2.getId()), null, from, to, 100.0);
+
+        assertWithinOnePercent(project1Only.get(100.0), Duration.ofHours(1));
+        assertWithinOnePercent(both.get(100.0), Duration.ofHours(3));
+    }
+
+    @Test
+    public void testCommittedResolutionInvalidatesCache() {
+        resolveAfter(project1, TicketPriority.HIGH, Duration.ofHours(2));
+        assertThat(sketchService.histogram(null, null, from, to).getTotalCount()).isEqualTo(1);
+
+        resolveAfter(project1, TicketPriority.HIGH, Duration.ofHours(4));
+        assertThat(sketchService.histogram(null, null, from, to).getTotalCount()).isEqualTo(2);
+        assertThat(sketchRepository.findByProjectId(project1.getId())).hasSize(1);
+    }
+
+    @Test
+    public void testUnresolvedProjectHasNoPercentiles() {
+        ticketRepository.save(new Ticket("Open", "Still open", reporter, project2));
+        assertThat(sketchService.percentiles(project2.getId(), null, from, to, 50.0)).isEmpty();
+    }
+}
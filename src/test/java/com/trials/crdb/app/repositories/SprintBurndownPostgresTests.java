@@ -0,0 +1,201 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.events.SprintChangeEventPublisher;
+import com.trials.crdb.app.events.TicketChangeEventPublisher;
+import com.trials.crdb.app.events.WorkLogChangeEventPublisher;
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.BurndownPoint;
+import com.trials.crdb.app.services.SprintBurndown;
+import com.trials.crdb.app.services.SprintBurndownService;
+import com.trials.crdb.app.services.SprintVelocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = SprintBurndownPostgresTests.DataSourceInitializer.class)
+@Import({SprintBurndownService.class, TicketChangeEventPublisher.class, WorkLogChangeEventPublisher.class,
+         SprintChangeEventPublisher.class})
+// Eviction happens after commit, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SprintBurndownPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_sprint_burndown")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private SprintBurndownService burndownService;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Monday to Friday
+    private static final ZonedDateTime SPRINT_START = ZonedDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final ZonedDateTime SPRINT_END = ZonedDateTime.of(2024, 1, 5, 18, 0, 0, 0, ZoneOffset.UTC);
+
+    private User user;
+    private Project project;
+    private Ticket ticket1, ticket2, ticket3;
+    private Sprint sprint;
+
+    @BeforeEach
+    void setUp() {
+        burndownService.invalidateAll();
+        user = userRepository.save(new User("burner", "burner@example.com", "Burner"));
+        project = projectRepository.save(new Project("Burndown", "Sprint project"));
+        ticket1 = ticket("First", 8.0, SPRINT_START.plusDays(2).plusHours(10));
+        ticket2 = ticket("Second", 4.0, null);
+        // Done before the sprint started - not part of the commitment
+        ticket3 = ticket("Third", 6.0, SPRINT_START.minusDays(3));
+
+        sprint = transactionTemplate.execute(status -> {
+            Sprint created = new Sprint("Sprint 1", "First sprint", SPRINT_START, SPRINT_END, project);
+            created.addTicket(ticketRepository.findById(ticket1.getId()).orElseThrow());
+            created.addTicket(ticketRepository.findById(ticket2.getId()).orElseThrow());
+            created.addTicket(ticketRepository.findById(ticket3.getId()).orElseThrow());
+            return sprintRepository.save(created);
+        });
+
+        log(ticket1, SPRINT_START.plusDays(1).plusHours(9), 3.0);
+        log(ticket2, SPRINT_START.plusDays(3).plusHours(9), 5.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sprintRepository.deleteAll();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Ticket ticket(String title, double hours, ZonedDateTime resolvedDate) {
+        Ticket ticket = new Ticket(title, "Sprint ticket", user, project);
+        ticket.setEstimatedHours(hours);
+        if (resolvedDate != null) {
+            ticket.setStatus(Ticket.TicketStatus.RESOLVED);
+            ticket.setResolvedDate(resolvedDate);
+        }
+        return ticketRepository.save(ticket);
+    }
+
+    private WorkLog log(Ticket ticket, ZonedDateTime start, double hours) {
+        return workLogRepository.save(new WorkLog(ticket, user, start, start.plusHours((long) hours), "Work", hours));
+    }
+
+    @Test
+    public void testBurndownSeries() {
+        SprintBurndown burndown = burndownService.burndown(sprint.getId());
+
+        assertThat(burndown.committedHours()).isEqualTo(12.0);
+        assertThat(burndown.completedHours()).isEqualTo(8.0);
+        assertThat(burndown.points()).containsExactly(
+            new BurndownPoint(LocalDate.of(2024, 1, 1), 12.0, 12.0, 0.0, 12.0, 0),
+            new BurndownPoint(LocalDate.of(2024, 1, 2), 12.0, 9.0, 3.0, 9.0, 0),
+            new BurndownPoint(LocalDate.of(2024, 1, 3), 4.0, 4.0, 0.0, 6.0, 1),
+            // Logging more than the estimate doesn't push remaining work below 0
+            new BurndownPoint(LocalDate.of(2024, 1, 4), 4.0, 0.0, 5.0, 3.0, 1),
+            new BurndownPoint(LocalDate.of(2024, 1, 5), 4.0, 0.0, 0.0, 0.0, 1));
+    }
+
+    @Test
+    public void testCachedUntilInputsChange() {
+        SprintBurndown first = burndownService.burndown(sprint.getId());
+        assertThat(burndownService.burndown(sprint.getId())).isSameAs(first);
+
+        // Unrelated property - stays cached
+        Ticket loaded = ticketRepository.findById(ticket2.getId()).orElseThrow();
+        loaded.setTitle("Renamed");
+        ticketRepository.save(loaded);
+        assertThat(burndownService.burndown(sprint.getId())).isSameAs(first);
+
+        log(ticket2, SPRINT_START.plusHours(9), 1.0);
+        SprintBurndown afterLog = burndownService.burndown(sprint.getId());
+        assertThat(afterLog).isNotSameAs(first);
+        assertThat(afterLog.points().get(0).loggedHours()).isEqualTo(1.0);
+
+        loaded = ticketRepository.findById(ticket2.getId()).orElseThrow();
+        loaded.setEstimatedHours(10.0);
+        ticketRepository.save(loaded);
+        assertThat(burndownService.burndown(sprint.getId()).committedHours()).isEqualTo(18.0);
+    }
+
+    @Test
+    public void testVelocityOverLastSprints() {
+        Sprint later = transactionTemplate.execute(status -> {
+            Sprint created = new Sprint("Sprint 2", "Second sprint", SPRINT_START.plusWeeks(1),
+                SPRINT_END.plusWeeks(1), projectRepository.findById(project.getId()).orElseThrow());
+            created.addTicket(ticketRepository.findById(ticket2.getId()).orElseThrow());
+            return sprintRepository.save(created);
+        });
+
+        List<SprintVelocity> velocity = burndownService.velocity(project.getId(), 5);
+        assertThat(velocity).extracting(SprintVelocity::sprintId).containsExactly(later.getId(), sprint.getId());
+        assertThat(velocity).extracting(SprintVelocity::completedHours).containsExactly(0.0, 8.0);
+        assertThat(burndownService.averageVelocity(project.getId(), 5)).isEqualTo(4.0);
+        assertThat(burndownService.velocity(project.getId(), 1)).hasSize(1);
+    }
+}
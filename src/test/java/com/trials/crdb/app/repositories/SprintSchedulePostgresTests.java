@@ -0,0 +1,149 @@
+package com.trials.crdb.app.repositories;
+
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.SprintScheduleService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = SprintSchedulePostgresTests.DataSourceInitializer.class)
+@Import(SprintScheduleService.class)
+// Conflicts are checked against committed sprints, so let every call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SprintSchedulePostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_sprint_schedule")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.sprint-schedule.exclusion-constraint", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private SprintScheduleService scheduleService;
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Project project;
+    private Project otherProject;
+    private ZonedDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        project = projectRepository.save(new Project("Scheduling", "Sprint scheduling project"));
+        otherProject = projectRepository.save(new Project("Other", "Another project"));
+        start = ZonedDateTime.parse("2026-03-02T09:00:00Z");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sprintRepository.deleteAll();
+        projectRepository.deleteAll();
+    }
+
+    private Sprint sprint(String name, Project project, int fromDay, int toDay) {
+        return new Sprint(name, name, start.plusDays(fromDay), start.plusDays(toDay), project);
+    }
+
+    @Test
+    public void testExclusionConstraintRejectsOverlaps() {
+        Sprint first = scheduleService.schedule(sprint("Sprint 1", project, 0, 14));
+        // Back-to-back and other projects are fine
+        Sprint second = scheduleService.schedule(sprint("Sprint 2", project, 14, 28));
+        scheduleService.schedule(sprint("Parallel", otherProject, 7, 21));
+
+        assertThatThrownBy(() -> scheduleService.schedule(sprint("Overlapping", project, 10, 20)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        // Enforced by the database, so writes that bypass the service are rejected as well
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO sprints (name, start_date, end_date, project_id, create_time) VALUES (?, ?, ?, ?, ?)",
+                "Raw", Timestamp.from(start.plusDays(27).toInstant()), Timestamp.from(start.plusDays(30).toInstant()),
+                project.getId(), Timestamp.from(start.toInstant())))
+            .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(scheduleService.overlapping(project.getId(), start.plusDays(13), start.plusDays(15)))
+            .containsExactly(first.getId(), second.getId());
+        assertThat(scheduleService.overlapping(project.getId(), start.plusDays(28), start.plusDays(30))).isEmpty();
+        assertThat(sprintRepository.findAll()).hasSize(3);
+    }
+
+    @Test
+    public void testMovingASprint() {
+        Sprint first = scheduleService.schedule(sprint("Sprint 1", project, 0, 14));
+        scheduleService.schedule(sprint("Sprint 2", project, 14, 28));
+
+        first.setEndDate(start.plusDays(10));
+        scheduleService.schedule(first);
+        assertThat(scheduleService.overlapping(project.getId(), start.plusDays(11), start.plusDays(12))).isEmpty();
+
+        first.setEndDate(start.plusDays(15));
+        assertThatThrownBy(() -> scheduleService.schedule(first))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> scheduleService.schedule(sprint("Backwards", project, 40, 30)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testOverlappingSprintsSingleRange() {
+        scheduleService.schedule(sprint("Sprint 1", project, 0, 14));
+        // The legacy query keeps its closed intervals - touching counts as overlapping
+        assertThat(sprintRepository.findOverlappingSprints(project, start.plusDays(14), start.plusDays(20))).hasSize(1);
+        assertThat(sprintRepository.findOverlappingSprints(project, start.minusDays(5), start.plusDays(20))).hasSize(1);
+        assertThat(sprintRepository.findOverlappingSprints(project, start.plusDays(15), start.plusDays(20))).isEmpty();
+    }
+}
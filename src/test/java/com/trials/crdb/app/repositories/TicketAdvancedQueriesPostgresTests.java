@@ -423,6 +423,56 @@ public class TicketAdvancedQueriesPostgresTests {
         assertThat(sortedByPriority.get(0).getTitle()).isEqualTo("Database Optimization");
     }
     
+    @Test
+    public void testPriorityRankIndexQueries() {
+        Ticket lowOpen = new Ticket("Footer Links", "Fix footer links", user2, project1);
+        lowOpen.setPriority(Ticket.TicketPriority.LOW);
+        Ticket highOpen = new Ticket("Search Box", "Add a search box", user2, project1);
+        highOpen.setPriority(Ticket.TicketPriority.HIGH);
+        entityManager.persist(lowOpen);
+        entityManager.persist(highOpen);
+        entityManager.flush();
+        entityManager.clear();
+
+        Integer storedRank = jdbcTemplate.queryForObject(
+            "SELECT priority_rank FROM tickets WHERE id = ?", Integer.class, highOpen.getId());
+        assertThat(storedRank).isEqualTo(Ticket.TicketPriority.HIGH.rank());
+
+        assertThat(ticketRepository.findTopOpenByPriority(project1.getId(), 2))
+            .extracting(Ticket::getTitle).containsExactly("Database Optimization", "Search Box");
+
+        List<Ticket> firstPage = ticketRepository.findBacklogPage(project1.getId(), Ticket.TicketStatus.OPEN, null, 3);
+        assertThat(firstPage).extracting(Ticket::getTitle)
+            .containsExactly("Database Optimization", "Search Box", "API Integration");
+        List<Ticket> secondPage = ticketRepository.findBacklogPage(
+            project1.getId(), Ticket.TicketStatus.OPEN, firstPage.get(2), 3);
+        assertThat(secondPage).extracting(Ticket::getTitle).containsExactly("Footer Links");
+
+        assertThat(ticketRepository.findTopByPriorityPerProject(Ticket.TicketStatus.OPEN.name(), 1))
+            .extracting(Ticket::getTitle).containsExactly("Database Optimization");
+
+        // The plan walks the composite index instead of sorting (seq scans off - the table is tiny)
+        String plan;
+        String keysetPlan;
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tickets WHERE project_id = " + project1.getId() +
+                " AND status = 'OPEN' ORDER BY priority_rank, id LIMIT 2", String.class));
+            keysetPlan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tickets WHERE project_id = " + project1.getId() +
+                " AND status = 'OPEN' AND priority_rank >= 2 AND (priority_rank > 2 OR (priority_rank = 2 AND id > 1))" +
+                " ORDER BY priority_rank, id LIMIT 2", String.class));
+        } finally {
+            jdbcTemplate.execute("SET enable_seqscan = on");
+        }
+        assertThat(plan).contains("idx_tickets_project_status_rank").doesNotContain("Sort");
+        // Later pages start the index range at the previous page's rank instead of rescanning
+        assertThat(keysetPlan).contains("idx_tickets_project_status_rank").doesNotContain("Sort");
+        assertThat(keysetPlan.lines().filter(line -> line.contains("Index Cond")))
+            .singleElement().asString().contains("priority_rank >= 2");
+    }
+
     @Test
     public void testPaginationAndSorting() {
         // Test pagination combined with sorting
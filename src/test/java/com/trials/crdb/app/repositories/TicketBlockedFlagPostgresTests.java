@@ -0,0 +1,217 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+import com.trials.crdb.app.services.TicketBlockedFlagChecker;
+import com.trials.crdb.app.services.TicketBlockedFlagMaintainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketBlockedFlagPostgresTests.DataSourceInitializer.class)
+@Import({TicketBlockedFlagMaintainer.class, TicketBlockedFlagChecker.class})
+// The flag is written straight to the rows, so let every repository call commit and re-read them
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketBlockedFlagPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_ticket_blocked_flag")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketBlockedFlagMaintainer blockedFlagMaintainer;
+
+    @Autowired
+    private TicketBlockedFlagChecker blockedFlagChecker;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reporter;
+    private User developer;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("lead", "lead@example.com", "Lead"));
+        developer = userRepository.save(new User("developer", "developer@example.com", "Developer"));
+        project = projectRepository.save(new Project("Blocked", "Blocked tickets project"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE tickets SET dependent_on_id = NULL");
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Ticket ticket(String title, Ticket dependentOn) {
+        Ticket ticket = new Ticket(title, title, reporter, project);
+        ticket.assignTo(developer);
+        ticket.setDependentOn(dependentOn);
+        return ticketRepository.save(ticket);
+    }
+
+    private boolean blocked(Ticket ticket) {
+        return ticketRepository.findById(ticket.getId()).orElseThrow().isBlocked();
+    }
+
+    private void setStatus(Ticket ticket, TicketStatus status) {
+        Ticket current = ticketRepository.findById(ticket.getId()).orElseThrow();
+        current.setStatus(status);
+        ticketRepository.save(current);
+    }
+
+    @Test
+    public void testFlagFollowsBothSidesOfTheDependency() {
+        Ticket api = ticket("API", null);
+        Ticket client = ticket("Client", api);
+        Ticket docs = ticket("Docs", api);
+
+        assertThat(blocked(api)).isFalse();
+        assertThat(blocked(client)).isTrue();
+        assertThat(blocked(docs)).isTrue();
+
+        setStatus(api, TicketStatus.RESOLVED);
+        assertThat(blocked(client)).isFalse();
+        assertThat(blocked(docs)).isFalse();
+
+        // Reopening blocks the dependents again; CLOSED counts as done as well
+        setStatus(api, TicketStatus.IN_PROGRESS);
+        assertThat(blocked(client)).isTrue();
+        setStatus(api, TicketStatus.CLOSED);
+        assertThat(blocked(client)).isFalse();
+
+        // Moving a ticket onto an open dependency blocks it, clearing the dependency frees it
+        Ticket schema = ticket("Schema", null);
+        Ticket movedDocs = ticketRepository.findById(docs.getId()).orElseThrow();
+        movedDocs.setDependentOn(schema);
+        ticketRepository.save(movedDocs);
+        assertThat(blocked(docs)).isTrue();
+
+        movedDocs = ticketRepository.findById(docs.getId()).orElseThrow();
+        movedDocs.setDependentOn(null);
+        ticketRepository.save(movedDocs);
+        assertThat(blocked(docs)).isFalse();
+    }
+
+    @Test
+    public void testBlockedAndReadyToStartQueries() {
+        Ticket api = ticket("API", null);
+        Ticket client = ticket("Client", api);
+        Ticket review = ticket("Review", api);
+        setStatus(review, TicketStatus.IN_PROGRESS);
+        Ticket unassigned = ticketRepository.save(new Ticket("Unassigned", "Unassigned", reporter, project));
+
+        assertThat(ticketRepository.findBlockedByProject(project.getId()))
+            .extracting(Ticket::getId).containsExactlyInAnyOrder(client.getId(), review.getId());
+        assertThat(ticketRepository.countBlockedByProject(project.getId())).isEqualTo(2);
+        assertThat(ticketRepository.findReadyToStartByProject(project.getId()))
+            .extracting(Ticket::getId).containsExactlyInAnyOrder(api.getId(), unassigned.getId());
+        assertThat(ticketRepository.findBlockedByAssignee(developer.getId()))
+            .extracting(Ticket::getId).containsExactlyInAnyOrder(client.getId(), review.getId());
+        assertThat(ticketRepository.findReadyToStartByAssignee(developer.getId()))
+            .extracting(Ticket::getId).containsExactly(api.getId());
+
+        setStatus(api, TicketStatus.RESOLVED);
+        assertThat(ticketRepository.findBlockedByProject(project.getId())).isEmpty();
+        // Review is in progress, so only Client becomes ready to start
+        assertThat(ticketRepository.findReadyToStartByAssignee(developer.getId()))
+            .extracting(Ticket::getId).containsExactly(client.getId());
+    }
+
+    @Test
+    public void testRefreshAllRepairsBulkSqlChanges() {
+        Ticket api = ticket("API", null);
+        Ticket client = ticket("Client", api);
+
+        // Bypasses Hibernate, so the dependent keeps its stale flag until a refresh
+        jdbcTemplate.update("UPDATE tickets SET status = 'RESOLVED' WHERE id = ?", api.getId());
+        assertThat(blocked(client)).isTrue();
+
+        assertThat(blockedFlagMaintainer.refreshAll()).isEqualTo(1);
+        assertThat(blocked(client)).isFalse();
+        assertThat(blockedFlagMaintainer.refreshAll()).isZero();
+    }
+
+    @Test
+    public void testCheckerFillsInFlagsOfExistingTickets() {
+        Ticket api = ticket("API", null);
+        Ticket client = ticket("Client", api);
+        // As left by adding the column to a table that already had dependent tickets
+        jdbcTemplate.update("UPDATE tickets SET blocked = false");
+        assertThat(ticketRepository.findReadyToStartByProject(project.getId()))
+            .extracting(Ticket::getId).contains(client.getId());
+
+        assertThat(blockedFlagChecker.repair()).isEqualTo(1);
+        assertThat(ticketRepository.findBlockedByProject(project.getId()))
+            .extracting(Ticket::getId).containsExactly(client.getId());
+        assertThat(blockedFlagChecker.repair()).isZero();
+    }
+
+    @Test
+    public void testLoadedEntityKeepsTheOldFlag() {
+        Ticket api = ticket("API", null);
+        Ticket client = ticket("Client", null);
+        client.setDependentOn(api);
+        client = ticketRepository.save(client);
+        // The returned entity was merged before the maintainer's update, a fresh read sees it
+        assertThat(client.isBlocked()).isFalse();
+        assertThat(blocked(client)).isTrue();
+    }
+}
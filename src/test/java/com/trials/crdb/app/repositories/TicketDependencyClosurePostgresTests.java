@@ -0,0 +1,183 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.DependencyChains;
+import com.trials.crdb.app.services.DependencyNode;
+import com.trials.crdb.app.services.TicketDependencyClosureChecker;
+import com.trials.crdb.app.services.TicketDependencyClosureMaintainer;
+import com.trials.crdb.app.services.TicketDependencyClosureService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketDependencyClosurePostgresTests.DataSourceInitializer.class)
+@Import({TicketDependencyClosureService.class, TicketDependencyClosureMaintainer.class,
+         TicketDependencyClosureChecker.class})
+public class TicketDependencyClosurePostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_dependency_closure")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketDependencyClosureService closureService;
+
+    @Autowired
+    private TicketDependencyClosureChecker closureChecker;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User reporter;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("closer", "closer@example.com", "Closer"));
+        project = projectRepository.save(new Project("Closure", "Closure table project"));
+    }
+
+    private Ticket ticket(String title, Ticket dependentOn) {
+        Ticket ticket = new Ticket(title, title, reporter, project);
+        ticket.setDependentOn(dependentOn);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    @Test
+    public void testClosureMatchesRecursiveCte() {
+        Ticket root = ticket("Root", null);
+        Ticket a = ticket("A", root);
+        Ticket b = ticket("B", a);
+        Ticket c = ticket("C", b);
+        Ticket d = ticket("D", a);
+
+        assertThat(closureService.ancestors(c.getId())).containsExactly(b.getId(), a.getId(), root.getId());
+        List<Long> fromCte = ticketRepository.findTicketDependencyChain(c.getId()).stream()
+            .map(row -> ((Number) row[0]).longValue())
+            .filter(id -> !id.equals(c.getId()))
+            .toList();
+        assertThat(closureService.ancestors(c.getId())).containsExactlyInAnyOrderElementsOf(fromCte);
+
+        assertThat(closureService.descendants(root.getId())).containsExactlyInAnyOrder(
+            a.getId(), b.getId(), c.getId(), d.getId());
+        assertThat(closureService.depth(c.getId())).isEqualTo(3);
+        assertThat(closureService.countDescendants(List.of(root.getId(), a.getId(), c.getId())))
+            .containsEntry(root.getId(), 4L).containsEntry(a.getId(), 3L).doesNotContainKey(c.getId());
+        assertThat(ticketRepository.findBlockedBy(a.getId())).extracting(Ticket::getTitle)
+            .containsExactlyInAnyOrder("B", "C", "D");
+        assertThat(closureService.verify()).isZero();
+    }
+
+    @Test
+    public void testReparentingAndDeletesKeepClosureExact() {
+        Ticket root = ticket("Root", null);
+        Ticket other = ticket("Other", null);
+        Ticket a = ticket("A", root);
+        Ticket b = ticket("B", a);
+        Ticket c = ticket("C", b);
+
+        // Move the A subtree under Other
+        a.setDependentOn(other);
+        ticketRepository.saveAndFlush(a);
+        assertThat(closureService.ancestors(c.getId())).containsExactly(b.getId(), a.getId(), other.getId());
+        assertThat(closureService.countDescendants(root.getId())).isZero();
+        assertThat(closureService.verify()).isZero();
+
+        // Detach B, then delete the leaf
+        b.setDependentOn(null);
+        ticketRepository.saveAndFlush(b);
+        assertThat(closureService.ancestors(c.getId())).containsExactly(b.getId());
+        ticketRepository.delete(c);
+        ticketRepository.flush();
+        assertThat(closureService.descendants(b.getId())).isEmpty();
+        assertThat(closureService.verify()).isZero();
+    }
+
+    @Test
+    public void testBatchedChainsShareNodes() {
+        Ticket root = ticket("Root", null);
+        Ticket a = ticket("A", root);
+        Ticket b = ticket("B", a);
+        Ticket c = ticket("C", a);
+        Ticket loose = ticket("Loose", null);
+
+        DependencyChains result = closureService.chains(List.of(b.getId(), c.getId(), loose.getId(), -1L));
+
+        assertThat(result.nodes()).containsOnlyKeys(root.getId(), a.getId(), b.getId(), c.getId(), loose.getId());
+        assertThat(result.chains()).containsOnlyKeys(b.getId(), c.getId(), loose.getId());
+        assertThat(result.chains().get(b.getId())).containsExactly(a.getId(), root.getId());
+        assertThat(result.chain(c.getId())).extracting(DependencyNode::title).containsExactly("A", "Root");
+        assertThat(result.chain(loose.getId())).isEmpty();
+        assertThat(result.nodes().get(c.getId()).dependentOnId()).isEqualTo(a.getId());
+        assertThat(result.nodes().get(root.getId()).dependentOnId()).isNull();
+        assertThat(result.nodes().get(loose.getId()).dependentOnId()).isNull();
+        // The shared ancestor is one object in both chains
+        assertThat(result.chain(b.getId()).get(0)).isSameAs(result.chain(c.getId()).get(0));
+    }
+
+    @Test
+    public void testCheckerRepairsDrift() {
+        Ticket root = ticket("Root", null);
+        Ticket a = ticket("A", root);
+        ticket("B", a);
+
+        jdbcTemplate.update("DELETE FROM ticket_dependency_closure WHERE depth = 2");
+        jdbcTemplate.update("UPDATE ticket_dependency_closure SET depth = 7 WHERE ancestor_id = ?", a.getId());
+
+        assertThat(closureChecker.verifyAndRepair()).isEqualTo(2);
+        assertThat(closureService.verify()).isZero();
+        assertThat(closureService.descendants(root.getId())).hasSize(2);
+    }
+}
@@ -0,0 +1,165 @@
+package com.trials.crdb.app.repositories;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.events.TicketChangeEventPublisher;
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.TicketDependencyCycleGuard;
+import com.trials.crdb.app.services.TicketDependencyService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketDependencyPostgresTests.DataSourceInitializer.class)
+@Import({TicketDependencyService.class, TicketDependencyCycleGuard.class, TicketChangeEventPublisher.class})
+// The graph follows committed changes, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketDependencyPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_ticket_dependencies")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketDependencyService dependencyService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User reporter;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("planner", "planner@example.com", "Planner"));
+        project = projectRepository.save(new Project("Dependencies", "Dependency graph project"));
+        dependencyService.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("UPDATE tickets SET dependent_on_id = NULL");
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Ticket ticket(String title, Ticket dependentOn) {
+        Ticket ticket = new Ticket(title, title, reporter, project);
+        ticket.setDependentOn(dependentOn);
+        return ticketRepository.save(ticket);
+    }
+
+    @Test
+    public void testTransitiveQueriesBeyondTheCteDepth() {
+        Ticket root = ticket("Root", null);
+        Ticket previous = root;
+        for (int i = 1; i <= 15; i++) {
+            previous = ticket("Step " + i, previous);
+        }
+        Ticket sibling = ticket("Sibling", root);
+
+        assertThat(dependencyService.depth(previous.getId())).isEqualTo(15);
+        assertThat(dependencyService.ancestors(previous.getId())).hasSize(15).endsWith(root.getId());
+        assertThat(dependencyService.descendants(root.getId())).hasSize(16).contains(sibling.getId());
+        // The recursive CTE stops after 10 tickets of the 16 in the chain
+        assertThat(ticketRepository.findTicketDependencyChain(previous.getId())).hasSize(10);
+
+        assertThat(dependencyService.wouldCreateCycle(root.getId(), previous.getId())).isTrue();
+        assertThat(dependencyService.wouldCreateCycle(sibling.getId(), previous.getId())).isFalse();
+    }
+
+    @Test
+    public void testCyclesAreRejectedBeforeCommit() {
+        Ticket a = ticket("A", null);
+        Ticket b = ticket("B", a);
+        Ticket c = ticket("C", b);
+
+        a.setDependentOn(c);
+        assertThatThrownBy(() -> ticketRepository.save(a)).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT dependent_on_id FROM tickets WHERE id = ?", Long.class, a.getId())).isNull();
+
+        // A cycle built from two updates in one transaction is caught through the flushed overlay
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            Ticket d = ticketRepository.findById(c.getId()).orElseThrow();
+            Ticket first = ticketRepository.findById(a.getId()).orElseThrow();
+            d.setDependentOn(null);
+            ticketRepository.saveAndFlush(d);
+            Ticket e = ticket("E", d);
+            first.setDependentOn(e);
+            ticketRepository.saveAndFlush(first);
+            d.setDependentOn(first);
+            ticketRepository.saveAndFlush(d);
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        // Nothing of the rolled back transaction reached the graph
+        assertThat(dependencyService.ancestors(c.getId())).containsExactly(b.getId(), a.getId());
+
+        Ticket moved = ticketRepository.findById(c.getId()).orElseThrow();
+        moved.setDependentOn(null);
+        ticketRepository.save(moved);
+        assertThat(dependencyService.depth(c.getId())).isZero();
+        assertThat(dependencyService.descendants(a.getId())).containsExactly(b.getId());
+    }
+}
@@ -0,0 +1,182 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.events.TicketChangeEventPublisher;
+import com.trials.crdb.app.events.TicketDueEvent;
+import com.trials.crdb.app.events.TicketDueEvent.Kind;
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.TicketDueTimerService;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketDueTimerPostgresTests.DataSourceInitializer.class)
+@Import({TicketDueTimerService.class, TicketChangeEventPublisher.class, TicketDueTimerPostgresTests.DueEvents.class})
+// The timers follow committed changes, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketDueTimerPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_due_timers")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.due-timers.enabled", "true");
+            properties.put("app.due-timers.horizon", "PT6H");
+            properties.put("app.due-timers.due-soon-lead", "PT1H");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @TestConfiguration
+    static class DueEvents {
+        final List<TicketDueEvent> received = new ArrayList<>();
+
+        @EventListener
+        void on(TicketDueEvent event) {
+            received.add(event);
+        }
+    }
+
+    @Autowired
+    private TicketDueTimerService dueTimers;
+
+    @Autowired
+    private DueEvents events;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User reporter;
+    private Project project;
+    private ZonedDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("scheduler", "scheduler@example.com", "Scheduler"));
+        project = projectRepository.save(new Project("Due dates", "Due timer project"));
+        start = ZonedDateTime.now();
+        events.received.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        DateTimeProvider.useSystemClock();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Ticket ticketDueIn(String title, int hours) {
+        Ticket ticket = new Ticket(title, title, reporter, project);
+        ticket.setDueDate(start.plusHours(hours));
+        return ticketRepository.save(ticket);
+    }
+
+    private List<String> advanceTo(ZonedDateTime time) {
+        DateTimeProvider.useFixedClockAt(time);
+        events.received.clear();
+        dueTimers.advance();
+        return events.received.stream().map(event -> event.kind() + ":" + event.ticketId()).toList();
+    }
+
+    @Test
+    public void testFiresDueSoonAndOverdueWithoutPolling() {
+        Ticket first = ticketDueIn("First", 2);
+        Ticket second = ticketDueIn("Second", 3);
+        Ticket later = ticketDueIn("Later", 10);
+        Ticket resolved = ticketDueIn("Resolved", 2);
+        resolved.resolve();
+        ticketRepository.save(resolved);
+
+        DateTimeProvider.useFixedClockAt(start);
+        dueTimers.reload();
+        // Horizon of 6 hours - the ticket due in 10 hours isn't loaded yet
+        assertThat(dueTimers.scheduledTimers()).isEqualTo(4);
+
+        assertThat(advanceTo(start.plusMinutes(59))).isEmpty();
+        assertThat(advanceTo(start.plusHours(1).plusSeconds(1))).containsExactly(Kind.DUE_SOON + ":" + first.getId());
+        assertThat(advanceTo(start.plusHours(2).plusSeconds(1)))
+            .containsExactly(Kind.OVERDUE + ":" + first.getId(), Kind.DUE_SOON + ":" + second.getId());
+
+        // Moving the window loads the later ticket, its due-soon moment has just passed
+        assertThat(advanceTo(start.plusHours(9).plusSeconds(1)))
+            .containsExactly(Kind.OVERDUE + ":" + second.getId(), Kind.DUE_SOON + ":" + later.getId());
+        assertThat(advanceTo(start.plusHours(10).plusSeconds(1))).containsExactly(Kind.OVERDUE + ":" + later.getId());
+        assertThat(dueTimers.scheduledTimers()).isZero();
+    }
+
+    @Test
+    public void testFollowsDueDateAndStatusChanges() {
+        Ticket moved = ticketDueIn("Moved", 2);
+        Ticket done = ticketDueIn("Done", 2);
+        DateTimeProvider.useFixedClockAt(start);
+        dueTimers.reload();
+
+        moved.setDueDate(start.plusHours(4));
+        moved = ticketRepository.save(moved);
+        done.resolve();
+        ticketRepository.save(done);
+        Ticket added = ticketDueIn("Added", 3);
+
+        assertThat(advanceTo(start.plusHours(2).plusSeconds(1))).containsExactly(Kind.DUE_SOON + ":" + added.getId());
+        assertThat(advanceTo(start.plusHours(3).plusSeconds(1)))
+            .containsExactlyInAnyOrder(Kind.OVERDUE + ":" + added.getId(), Kind.DUE_SOON + ":" + moved.getId());
+
+        // Resolving cancels the pending overdue timer
+        moved.resolve();
+        ticketRepository.save(moved);
+        assertThat(dueTimers.scheduledTimers()).isZero();
+        assertThat(advanceTo(start.plusHours(5))).isEmpty();
+    }
+}
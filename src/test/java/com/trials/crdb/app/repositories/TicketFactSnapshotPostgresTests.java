@@ -0,0 +1,160 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.cache.TicketFactAggregate;
+import com.trials.crdb.app.cache.TicketFactDimension;
+import com.trials.crdb.app.cache.TicketFactFilter;
+import com.trials.crdb.app.cache.TicketFactSnapshot;
+import com.trials.crdb.app.events.TicketChangeEventPublisher;
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketFactSnapshotPostgresTests.DataSourceInitializer.class)
+@Import({TicketFactSnapshot.class, TicketChangeEventPublisher.class})
+// The snapshot follows committed changes, so let every repository call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class TicketFactSnapshotPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_fact_snapshot")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            properties.put("app.ticket-snapshot.enabled", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketFactSnapshot snapshot;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User reporter, assignee;
+    private Project project1, project2;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("slicer", "slicer@example.com", "Slicer"));
+        assignee = userRepository.save(new User("doer", "doer@example.com", "Doer"));
+        project1 = projectRepository.save(new Project("Facts One", "First project"));
+        project2 = projectRepository.save(new Project("Facts Two", "Second project"));
+
+        ticket(project1, TicketPriority.HIGH, 3.0, "backend", "api");
+        ticket(project1, TicketPriority.HIGH, null, "backend");
+        ticket(project1, TicketPriority.LOW, 5.0);
+        ticket(project2, TicketPriority.CRITICAL, 8.0, "api");
+        snapshot.reload();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private Ticket ticket(Project project, TicketPriority priority, Double hours, String... tags) {
+        Ticket ticket = new Ticket("Fact", "Snapshot ticket", reporter, project);
+        ticket.setPriority(priority);
+        ticket.setEstimatedHours(hours);
+        ticket.setTags(tags.length == 0 ? null : tags);
+        return ticketRepository.save(ticket);
+    }
+
+    @Test
+    public void testGroupByMatchesSql() {
+        Map<Object, TicketFactAggregate> byPriority = snapshot.groupBy(TicketFactDimension.PRIORITY, TicketFactFilter.ALL);
+        for (Object[] row : ticketRepository.countByPriority()) {
+            assertThat(byPriority.get(row[0]).count()).isEqualTo(((Number) row[1]).longValue());
+        }
+
+        Map<Object, TicketFactAggregate> project1ByPriority = snapshot.groupBy(TicketFactDimension.PRIORITY,
+            TicketFactFilter.ALL.withProjects(Set.of(project1.getId())));
+        assertThat(project1ByPriority.get(TicketPriority.HIGH)).isEqualTo(new TicketFactAggregate(2, 1, 3.0));
+        assertThat(project1ByPriority).doesNotContainKey(TicketPriority.CRITICAL);
+
+        assertThat(snapshot.groupBy(TicketFactDimension.TAG, TicketFactFilter.ALL))
+            .containsEntry("backend", new TicketFactAggregate(2, 1, 3.0))
+            .containsEntry("api", new TicketFactAggregate(2, 2, 11.0));
+        assertThat(snapshot.aggregate(TicketFactFilter.ALL.withTag("missing")).count()).isZero();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        assertThat(snapshot.groupBy(TicketFactDimension.CREATED_DAY, TicketFactFilter.ALL.withCreated(
+            today.atStartOfDay(ZoneOffset.UTC).toInstant(), Instant.now().plusSeconds(60))))
+            .containsOnlyKeys(today);
+    }
+
+    @Test
+    public void testSnapshotFollowsCommittedChanges() {
+        Ticket ticket = ticket(project2, TicketPriority.MEDIUM, 2.0);
+        assertThat(snapshot.size()).isEqualTo(5);
+
+        ticket.setAssignee(assignee);
+        ticket.resolve();
+        ticketRepository.save(ticket);
+        assertThat(snapshot.groupBy(TicketFactDimension.ASSIGNEE,
+                TicketFactFilter.ALL.withStatuses(Set.of(TicketStatus.RESOLVED))))
+            .containsOnlyKeys(assignee.getId());
+        assertThat(snapshot.aggregate(TicketFactFilter.ALL.withResolved(
+            Instant.now().minusSeconds(600), Instant.now().plusSeconds(600))).count()).isEqualTo(1);
+
+        ticketRepository.delete(ticket);
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.aggregate(TicketFactFilter.ALL.withProjects(Set.of(project2.getId()))).count())
+            .isEqualTo(ticketRepository.countByProjectAndStatus(project2, TicketStatus.OPEN));
+    }
+}
@@ -0,0 +1,182 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketFetchPlanPostgresTests.DataSourceInitializer.class)
+public class TicketFetchPlanPostgresTests {
+
+    private static final int TICKET_COUNT = 20;
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_fetch_plans")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.properties.hibernate.generate_statistics", "true");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private Project project;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+            .unwrap(SessionFactory.class).getStatistics();
+
+        project = new Project("Fetch Plan Project", "Project for fetch plan tests");
+        entityManager.persist(project);
+
+        Sprint sprint = new Sprint("Sprint 1", "Board sprint",
+            ZonedDateTime.now(), ZonedDateTime.now().plusDays(14), project);
+        entityManager.persist(sprint);
+
+        // Distinct reporter and assignee per ticket so every lazy association is its own row
+        for (int i = 0; i < TICKET_COUNT; i++) {
+            User reporter = new User("reporter" + i, "reporter" + i + "@example.com", "Reporter " + i);
+            User assignee = new User("assignee" + i, "assignee" + i + "@example.com", "Assignee " + i);
+            entityManager.persist(reporter);
+            entityManager.persist(assignee);
+
+            Ticket ticket = new Ticket("Ticket " + i, "Description " + i, reporter, project);
+            ticket.assignTo(assignee);
+            sprint.addTicket(ticket);
+            entityManager.persist(ticket);
+            entityManager.persist(new Comment("Comment on ticket " + i, ticket, reporter));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private long renderList(List<Ticket> tickets) {
+        long touched = 0;
+        for (Ticket ticket : tickets) {
+            touched += ticket.getReporter().getUsername().length();
+            touched += ticket.getAssignee().getUsername().length();
+            touched += ticket.getProject().getName().length();
+        }
+        return touched;
+    }
+
+    @Test
+    public void whenListWithoutPlan_thenAssociationsCauseExtraQueries() {
+        List<Ticket> tickets = ticketRepository.findByProject(project);
+        renderList(tickets);
+
+        System.out.println("Statements without fetch plan: " + statistics.getPrepareStatementCount());
+        assertThat(tickets).hasSize(TICKET_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(1);
+    }
+
+    @Test
+    public void whenListPlanUsed_thenSingleQueryRendersList() {
+        List<Ticket> tickets = ticketRepository.findListByProject(project);
+        renderList(tickets);
+
+        System.out.println("Statements with list plan: " + statistics.getPrepareStatementCount());
+        assertThat(tickets).hasSize(TICKET_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenBoardPlanUsed_thenCollectionsLoadInBatches() {
+        List<Ticket> tickets = ticketRepository.findByProject(project, TicketFetchPlan.BOARD);
+
+        int sprintLinks = 0;
+        int comments = 0;
+        for (Ticket ticket : tickets) {
+            ticket.getAssignee().getUsername();
+            sprintLinks += ticket.getSprints().size();
+            comments += ticket.getComments().size();
+        }
+
+        System.out.println("Statements with board plan: " + statistics.getPrepareStatementCount());
+        assertThat(sprintLinks).isEqualTo(TICKET_COUNT);
+        assertThat(comments).isEqualTo(TICKET_COUNT);
+        // ticket query + one sprint batch + one comment subselect
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    public void whenListingWithCommentCounts_thenTwoQueriesInsteadOfCollectionLoads() {
+        List<Ticket> tickets = ticketRepository.findListByProject(project);
+        Map<Long, Long> commentCounts = commentRepository.countByTicketIds(
+            tickets.stream().map(Ticket::getId).toList());
+        renderList(tickets);
+
+        assertThat(commentCounts).hasSize(TICKET_COUNT);
+        assertThat(commentCounts.values()).containsOnly(1L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    public void whenDetailPlanUsed_thenCollectionsAreInitialised() {
+        Ticket any = ticketRepository.findListByProject(project).get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        Ticket detail = ticketRepository.findById(any.getId(), TicketFetchPlan.DETAIL).orElseThrow();
+        long before = statistics.getPrepareStatementCount();
+
+        assertThat(detail.getReporter().getUsername()).startsWith("reporter");
+        assertThat(detail.getComments()).hasSize(1);
+        assertThat(detail.getSprints()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(before);
+    }
+}
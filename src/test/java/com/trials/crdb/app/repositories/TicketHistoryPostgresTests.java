@@ -0,0 +1,180 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.model.Ticket.TicketStatus;
+import com.trials.crdb.app.services.TicketHistoryRecorder;
+import com.trials.crdb.app.services.TicketHistoryService;
+import com.trials.crdb.app.services.TicketSnapshot;
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketHistoryPostgresTests.DataSourceInitializer.class)
+@Import({TicketHistoryRecorder.class, TicketHistoryService.class})
+public class TicketHistoryPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_ticket_history")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketHistoryService historyService;
+
+    @Autowired
+    private TicketEventRepository eventRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private static final ZonedDateTime T0 = ZonedDateTime.of(2024, 3, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private User reporter, assignee;
+    private Project project1, project2;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("historian", "historian@example.com", "Historian"));
+        assignee = userRepository.save(new User("worker", "worker@example.com", "Worker"));
+        project1 = projectRepository.save(new Project("History One", "First project"));
+        project2 = projectRepository.save(new Project("History Two", "Second project"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        DateTimeProvider.useSystemClock();
+    }
+
+    private Ticket saveAt(ZonedDateTime time, Ticket ticket) {
+        DateTimeProvider.useFixedClockAt(time);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    @Test
+    public void testStateAsOfReplaysChanges() {
+        Ticket ticket = saveAt(T0, new Ticket("Tracked", "History ticket", reporter, project1));
+
+        ticket.setStatus(TicketStatus.IN_PROGRESS);
+        ticket.setAssignee(assignee);
+        saveAt(T0.plusDays(1), ticket);
+
+        ticket.setPriority(TicketPriority.CRITICAL);
+        ticket.setEstimatedHours(8.0);
+        // Due dates must lie after the real create_time
+        ZonedDateTime dueDate = ZonedDateTime.now(ZoneOffset.UTC).plusDays(10);
+        ticket.setDueDate(dueDate);
+        saveAt(T0.plusDays(2), ticket);
+
+        assertThat(historyService.stateAsOf(ticket.getId(), T0.minusHours(1))).isNull();
+
+        TicketSnapshot created = historyService.stateAsOf(ticket.getId(), T0.plusHours(1));
+        assertThat(created.status()).isEqualTo(TicketStatus.OPEN);
+        assertThat(created.assigneeId()).isNull();
+        assertThat(created.priority()).isEqualTo(TicketPriority.MEDIUM);
+
+        TicketSnapshot dayOne = historyService.stateAsOf(ticket.getId(), T0.plusDays(1).plusHours(1));
+        assertThat(dayOne.status()).isEqualTo(TicketStatus.IN_PROGRESS);
+        assertThat(dayOne.assigneeId()).isEqualTo(assignee.getId());
+        assertThat(dayOne.estimatedHours()).isNull();
+
+        TicketSnapshot latest = historyService.stateAsOf(ticket.getId(), T0.plusDays(3));
+        assertThat(latest.priority()).isEqualTo(TicketPriority.CRITICAL);
+        assertThat(latest.estimatedHours()).isEqualTo(8.0);
+        assertThat(latest.dueDate().toInstant()).isEqualTo(dueDate.toInstant());
+    }
+
+    @Test
+    public void testOnlyChangedPropertiesAreRecorded() {
+        Ticket ticket = saveAt(T0, new Ticket("Quiet", "Unchanged ticket", reporter, project1));
+        int createdRows = historyService.history(ticket.getId()).size();
+
+        ticket.setTitle("Renamed");
+        saveAt(T0.plusHours(1), ticket);
+        ticket.setStatus(TicketStatus.REVIEW);
+        saveAt(T0.plusHours(2), ticket);
+
+        List<TicketEvent> history = historyService.history(ticket.getId());
+        assertThat(history).hasSize(createdRows + 1);
+        TicketEvent last = history.get(history.size() - 1);
+        assertThat(last.getProperty()).isEqualTo(TicketEvent.Property.STATUS);
+        assertThat(last.getOldValue()).isEqualTo("OPEN");
+        assertThat(last.getNewValue()).isEqualTo("REVIEW");
+    }
+
+    @Test
+    public void testProjectStateAsOfFollowsMovesAndDeletes() {
+        Ticket moved = saveAt(T0, new Ticket("Moved", "Changes project", reporter, project1));
+        Ticket deleted = saveAt(T0, new Ticket("Deleted", "Gets deleted", reporter, project1));
+        saveAt(T0, new Ticket("Other", "Other project", reporter, project2));
+
+        moved.setProject(project2);
+        saveAt(T0.plusDays(1), moved);
+        DateTimeProvider.useFixedClockAt(T0.plusDays(2));
+        ticketRepository.delete(deleted);
+        ticketRepository.flush();
+
+        assertThat(historyService.projectStateAsOf(project1.getId(), T0.plusHours(1)))
+            .extracting(TicketSnapshot::ticketId)
+            .containsExactly(moved.getId(), deleted.getId());
+        assertThat(historyService.projectStateAsOf(project1.getId(), T0.plusDays(1).plusHours(1)))
+            .extracting(TicketSnapshot::ticketId)
+            .containsExactly(deleted.getId());
+        assertThat(historyService.projectStateAsOf(project1.getId(), T0.plusDays(3))).isEmpty();
+        assertThat(historyService.projectStateAsOf(project2.getId(), T0.plusDays(3))).hasSize(2);
+        assertThat(eventRepository.findByProjectIdAndEventTimeBetweenOrderByEventTimeAscIdAsc(
+            project1.getId(), T0.plusDays(2), T0.plusDays(3)))
+            .extracting(TicketEvent::getType).containsExactly(TicketEvent.Type.DELETED);
+    }
+}
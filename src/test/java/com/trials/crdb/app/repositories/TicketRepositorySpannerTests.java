@@ -168,6 +168,8 @@ public class TicketRepositorySpannerTests {
                     "description TEXT," +
                     "status VARCHAR(20) NOT NULL," +
                     "priority VARCHAR(20) NOT NULL," +
+                    "priority_rank BIGINT GENERATED ALWAYS AS (CASE priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 " +
+                        "WHEN 'MEDIUM' THEN 2 WHEN 'LOW' THEN 3 END) STORED," +
                     "metadata JSONB," +
                     "assignee_id BIGINT," +
                     "reporter_id BIGINT NOT NULL," +
@@ -179,6 +181,7 @@ public class TicketRepositorySpannerTests {
                     "estimated_hours FLOAT," +
                     "resolved_date TIMESTAMPTZ," +
                     "dependent_on_id BIGINT," +
+                    "blocked BOOLEAN NOT NULL DEFAULT false," +
                     "tags TEXT[]," +
                     "version BIGINT NOT NULL DEFAULT 0," +
                     "PRIMARY KEY (id)" +
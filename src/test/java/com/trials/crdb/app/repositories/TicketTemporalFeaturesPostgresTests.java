@@ -1,6 +1,8 @@
 package com.trials.crdb.app.repositories;
 
 import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
@@ -16,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.NonNull;
 import org.springframework.test.context.ContextConfiguration;
@@ -25,6 +28,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 
 import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.TicketDueWindowService;
 import com.trials.crdb.app.test.TimeBasedTest;
 import com.trials.crdb.app.utils.DateTimeProvider;
 import com.trials.crdb.app.utils.PostgresCompatibilityInspector;
@@ -37,6 +41,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ContextConfiguration(initializers = TicketTemporalFeaturesPostgresTests.DataSourceInitializer.class)
+@Import(TicketDueWindowService.class)
 public class TicketTemporalFeaturesPostgresTests extends TimeBasedTest {
 
     private PostgresCompatibilityInspector schemaInspector;
@@ -96,6 +101,9 @@ public class TicketTemporalFeaturesPostgresTests extends TimeBasedTest {
 
     @Autowired
     private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketDueWindowService dueWindowService;
     
     /**
      * Create basic test data for users and projects
@@ -378,6 +386,59 @@ public class TicketTemporalFeaturesPostgresTests extends TimeBasedTest {
         }
     }
 
+    @Test
+    public void testDueTodayAcrossTimezonesInOneQuery() {
+        // Due dates must lie after the creation time, so the clock is moved a month ahead
+        ZonedDateTime noon = ZonedDateTime.now(ZoneOffset.UTC).plusDays(30).truncatedTo(ChronoUnit.DAYS).withHour(12);
+        DateTimeProvider.useFixedClockAt(noon);
+        ZoneId utc = ZoneId.of("UTC");
+        ZoneId tokyo = ZoneId.of("Asia/Tokyo");         // UTC+9, already evening
+        ZoneId honolulu = ZoneId.of("Pacific/Honolulu"); // UTC-10, early morning
+
+        Ticket morning = dueAt("Morning", noon.minusHours(3));
+        Ticket afternoon = dueAt("Afternoon", noon.plusHours(2));
+        Ticket nextNight = dueAt("Next night", noon.plusHours(17));
+        Ticket yesterday = dueAt("Yesterday", noon.minusHours(20));
+        Ticket resolved = dueAt("Resolved", noon.plusHours(1));
+        resolved.resolve();
+        dueAt("Day after", noon.plusDays(2));
+        entityManager.flush();
+
+        Map<ZoneId, List<Ticket>> dueToday = dueWindowService.dueToday(List.of(utc, tokyo, honolulu));
+
+        assertThat(dueToday.keySet()).containsExactly(utc, tokyo, honolulu);
+        assertThat(dueToday.get(utc)).containsExactly(morning, afternoon);
+        assertThat(dueToday.get(tokyo)).containsExactly(yesterday, morning, afternoon);
+        assertThat(dueToday.get(honolulu)).containsExactly(afternoon, nextNight);
+
+        // The same local date everywhere - tomorrow starts in Tokyo while it's still today in UTC
+        LocalDate tomorrow = noon.toLocalDate().plusDays(1);
+        Map<ZoneId, List<Ticket>> dueTomorrow = dueWindowService.dueOn(tomorrow, List.of(utc, tokyo, honolulu));
+        assertThat(dueTomorrow.get(utc)).containsExactly(nextNight);
+        assertThat(dueTomorrow.get(tokyo)).containsExactly(nextNight);
+        assertThat(dueTomorrow.get(honolulu)).isEmpty();
+
+        // One range read of the open due date index, already in order (seq scans off - the table is tiny)
+        String plan;
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT * FROM tickets WHERE due_date >= ? AND due_date < ? " +
+                "AND status NOT IN ('RESOLVED', 'CLOSED') ORDER BY due_date, id", String.class,
+                noon.minusDays(1).toOffsetDateTime(), noon.plusDays(1).toOffsetDateTime()));
+        } finally {
+            jdbcTemplate.execute("SET enable_seqscan = on");
+        }
+        assertThat(plan).contains("idx_tickets_open_due_date").doesNotContain("Sort");
+    }
+
+    private Ticket dueAt(String title, ZonedDateTime dueDate) {
+        Ticket ticket = new Ticket(title, title, user1, project1);
+        ticket.setDueDate(dueDate);
+        entityManager.persist(ticket);
+        return ticket;
+    }
+
     @Test
     public void inspectTemporalSchema() {
         // Inspect the schema to verify temporal column types
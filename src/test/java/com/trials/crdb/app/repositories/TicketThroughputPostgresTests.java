@@ -0,0 +1,184 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.model.Ticket.TicketPriority;
+import com.trials.crdb.app.services.ThroughputGranularity;
+import com.trials.crdb.app.services.ThroughputPoint;
+import com.trials.crdb.app.services.TicketThroughputMaintainer;
+import com.trials.crdb.app.services.TicketThroughputService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = TicketThroughputPostgresTests.DataSourceInitializer.class)
+@Import({TicketThroughputService.class, TicketThroughputMaintainer.class})
+public class TicketThroughputPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_throughput")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TicketThroughputService throughputService;
+
+    @Autowired
+    private TicketThroughputBucketRepository bucketRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User reporter;
+    private Project project1, project2;
+    private ZonedDateTime from, to;
+
+    @BeforeEach
+    void setUp() {
+        reporter = userRepository.save(new User("throughput", "throughput@example.com", "Throughput"));
+        project1 = projectRepository.save(new Project("Throughput One", "First project"));
+        project2 = projectRepository.save(new Project("Throughput Two", "Second project"));
+
+        ZonedDateTime today = ZonedDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.DAYS);
+        from = today.minusDays(2);
+        to = today.plusDays(1);
+    }
+
+    private Ticket createTicket(Project project, TicketPriority priority) {
+        Ticket ticket = new Ticket("Throughput", "Counted ticket", reporter, project);
+        ticket.setPriority(priority);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    private static ThroughputPoint totals(List<ThroughputPoint> points) {
+        long created = 0, resolved = 0, closed = 0;
+        for (ThroughputPoint point : points) {
+            created += point.created();
+            resolved += point.resolved();
+            closed += point.closed();
+        }
+        return new ThroughputPoint(null, created, resolved, closed);
+    }
+
+    private void createActivity() {
+        Ticket a = createTicket(project1, TicketPriority.HIGH);
+        Ticket b = createTicket(project1, TicketPriority.HIGH);
+        createTicket(project1, TicketPriority.LOW);
+        createTicket(project2, TicketPriority.HIGH);
+
+        a.resolve();
+        ticketRepository.saveAndFlush(a);
+        b.resolve();
+        ticketRepository.saveAndFlush(b);
+        b.setStatus(Ticket.TicketStatus.CLOSED);
+        ticketRepository.saveAndFlush(b);
+    }
+
+    @Test
+    public void testDailySeriesCountsEvents() {
+        createActivity();
+
+        List<ThroughputPoint> daily = throughputService.series(
+            project1.getId(), null, from, to, ThroughputGranularity.DAY);
+        assertThat(daily).hasSize(3);
+        assertThat(daily.get(2).bucketStart()).isEqualTo(to.minusDays(1).toInstant());
+        ThroughputPoint total = totals(daily);
+        assertThat(total.created()).isEqualTo(3);
+        assertThat(total.resolved()).isEqualTo(2);
+        assertThat(total.closed()).isEqualTo(1);
+
+        ThroughputPoint high = totals(throughputService.series(
+            null, TicketPriority.HIGH, from, to, ThroughputGranularity.DAY));
+        assertThat(high.created()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGranularitiesAgree() {
+        createActivity();
+
+        ThroughputPoint hourly = totals(throughputService.series(null, null, from, to, ThroughputGranularity.HOUR));
+        ThroughputPoint weekly = totals(throughputService.series(null, null, from, to, ThroughputGranularity.WEEK));
+        ThroughputPoint monthly = totals(throughputService.series(null, null, from, to, ThroughputGranularity.MONTH));
+
+        assertThat(hourly.created()).isEqualTo(4);
+        assertThat(weekly).isEqualTo(new ThroughputPoint(null, hourly.created(), hourly.resolved(), hourly.closed()));
+        assertThat(monthly).isEqualTo(weekly);
+        assertThat(throughputService.series(null, null, from, to, ThroughputGranularity.HOUR)).hasSize(72);
+    }
+
+    @Test
+    public void testPruneKeepsDailyTotals() {
+        createActivity();
+
+        int deleted = throughputService.pruneHourly(Instant.now().plus(Duration.ofHours(2)));
+        assertThat(deleted).isPositive();
+        assertThat(totals(throughputService.series(null, null, from, to, ThroughputGranularity.HOUR)).created())
+            .isZero();
+        assertThat(totals(throughputService.series(null, null, from, to, ThroughputGranularity.DAY)).created())
+            .isEqualTo(4);
+    }
+
+    @Test
+    public void testRebuildMatchesIncrementalBuckets() {
+        createActivity();
+        List<ThroughputPoint> before = throughputService.series(null, null, from, to, ThroughputGranularity.HOUR);
+
+        bucketRepository.deleteAllInBatch();
+        throughputService.rebuild(from, to);
+
+        assertThat(throughputService.series(null, null, from, to, ThroughputGranularity.HOUR)).isEqualTo(before);
+        assertThat(bucketRepository.findByProjectIdAndGranularity(project2.getId(),
+            TicketThroughputBucket.Granularity.DAY)).hasSize(1);
+    }
+}
@@ -0,0 +1,204 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.events.WorkLogChangeEventPublisher;
+import com.trials.crdb.app.services.WorkLogOverlapService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = WorkLogOverlapPostgresTests.DataSourceInitializer.class)
+@Import({WorkLogOverlapService.class, WorkLogChangeEventPublisher.class})
+// The interval trees follow committed work logs, so let every call commit on its own
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class WorkLogOverlapPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_work_log_overlap")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private WorkLogOverlapService overlapService;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User developer;
+    private User reviewer;
+    private Ticket ticket;
+    private ZonedDateTime day;
+
+    @BeforeEach
+    void setUp() {
+        developer = userRepository.save(new User("developer", "developer@example.com", "Developer"));
+        reviewer = userRepository.save(new User("reviewer", "reviewer@example.com", "Reviewer"));
+        Project project = projectRepository.save(new Project("Timesheets", "Work log project"));
+        ticket = ticketRepository.save(new Ticket("Work", "Logged work", developer, project));
+        day = ZonedDateTime.parse("2026-03-02T08:00:00Z");
+        overlapService.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        workLogRepository.deleteAll();
+        ticketRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private WorkLog workLog(User user, int fromHour, int toHour) {
+        return new WorkLog(ticket, user, day.plusHours(fromHour), day.plusHours(toHour), "Work", (double) (toHour - fromHour));
+    }
+
+    @Test
+    public void testRejectsOverlappingWorkLogsOfOneUser() {
+        WorkLog morning = overlapService.log(workLog(developer, 0, 4));
+        // Back-to-back and other users are fine
+        WorkLog afternoon = overlapService.log(workLog(developer, 4, 8));
+        overlapService.log(workLog(reviewer, 2, 6));
+
+        // Starts inside an earlier log, covers a later one, and sits inside one
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, 3, 5)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, -1, 9)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, 5, 6)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, 6, 5)))
+            .isInstanceOf(IllegalArgumentException.class);
+        // Longer than the 24 hour max duration the probe reads back
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, 10, 35)))
+            .isInstanceOf(IllegalArgumentException.class);
+
+        // Moving a log only conflicts with the others
+        morning.setEndTime(day.plusHours(3));
+        overlapService.log(morning);
+        assertThat(workLogRepository.findIdsOverlappingPeriod(developer.getId(), day.minusDays(1), day,
+            day.plusHours(5), 0L))
+            .containsExactly(morning.getId(), afternoon.getId());
+        assertThat(workLogRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testFindsConflictsAmongOverlappingExistingLogs() {
+        // Saved around log(), so the developer's logs already overlap each other
+        WorkLog fullDay = workLogRepository.save(workLog(developer, 0, 10));
+        WorkLog meeting = workLogRepository.save(workLog(developer, 1, 2));
+
+        // The last log starting before 5 ends at 2, but the long one still covers it
+        assertThatThrownBy(() -> overlapService.log(workLog(developer, 5, 6)))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(workLogRepository.findIdsOverlappingPeriod(developer.getId(), day.minusHours(19),
+            day.plusHours(5), day.plusHours(6), 0L)).containsExactly(fullDay.getId());
+        assertThat(workLogRepository.findIdsOverlappingPeriod(developer.getId(), day.minusHours(23),
+            day.plusHours(1), day.plusHours(3), 0L)).containsExactly(fullDay.getId(), meeting.getId());
+    }
+
+    @Test
+    public void testProbeReadsBackOnlyTheMaxDuration() {
+        // The user's history before the max duration isn't read (seq scans off - the table is tiny)
+        String plan;
+        jdbcTemplate.execute("SET enable_seqscan = off");
+        try {
+            plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM work_logs WHERE user_id = 1 AND start_time > '2026-02-28 12:00:00+00' " +
+                "AND start_time < '2026-03-01 14:00:00+00' AND end_time > '2026-03-01 12:00:00+00' " +
+                "ORDER BY start_time", String.class));
+        } finally {
+            jdbcTemplate.execute("SET enable_seqscan = on");
+        }
+        assertThat(plan).contains("idx_work_logs_user_period");
+        assertThat(plan.lines().filter(line -> line.contains("Index Cond")))
+            .singleElement().asString().contains("start_time >").contains("start_time <");
+    }
+
+    @Test
+    public void testCachedTreesFollowWrites() {
+        WorkLog morning = overlapService.log(workLog(developer, 0, 4));
+        assertThat(overlapService.overlapping(developer.getId(), day.plusHours(3), day.plusHours(5)))
+            .containsExactly(morning.getId());
+
+        // The developer's tree is loaded now and is updated from the committed writes
+        WorkLog afternoon = overlapService.log(workLog(developer, 4, 8));
+        assertThat(overlapService.overlapping(developer.getId(), day.plusHours(3), day.plusHours(5)))
+            .containsExactly(morning.getId(), afternoon.getId());
+
+        workLogRepository.deleteById(morning.getId());
+        assertThat(overlapService.overlapping(developer.getId(), day.plusHours(3), day.plusHours(5)))
+            .containsExactly(afternoon.getId());
+
+        afternoon.setUser(reviewer);
+        workLogRepository.save(afternoon);
+        assertThat(overlapService.overlapping(developer.getId(), day, day.plusHours(8))).isEmpty();
+        assertThat(overlapService.overlapping(reviewer.getId(), day, day.plusHours(8))).containsExactly(afternoon.getId());
+    }
+
+    @Test
+    public void testOverlappingWorkLogsSingleRange() {
+        overlapService.log(workLog(developer, 0, 4));
+        // The legacy query keeps its closed intervals - touching counts as overlapping
+        assertThat(workLogRepository.findOverlappingWorkLogs(developer, day.plusHours(4), day.plusHours(6))).hasSize(1);
+        assertThat(workLogRepository.findOverlappingWorkLogs(developer, day.minusHours(1), day.plusHours(6))).hasSize(1);
+        assertThat(workLogRepository.findOverlappingWorkLogs(developer, day.plusHours(5), day.plusHours(6))).isEmpty();
+    }
+}
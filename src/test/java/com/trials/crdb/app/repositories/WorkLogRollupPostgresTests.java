@@ -0,0 +1,197 @@
+package com.trials.crdb.app.repositories;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.trials.crdb.app.model.*;
+import com.trials.crdb.app.services.TimesheetService;
+import com.trials.crdb.app.services.WorkLogRollupMaintainer;
+import com.trials.crdb.app.services.WorkLogRollupReconciler;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@Testcontainers
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(initializers = WorkLogRollupPostgresTests.DataSourceInitializer.class)
+@Import({TimesheetService.class, WorkLogRollupMaintainer.class, WorkLogRollupReconciler.class})
+public class WorkLogRollupPostgresTests {
+
+    @Container
+    static final PostgreSQLContainer<?> postgresContainer = 
+        new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("test_work_log_rollups")
+            .withUsername("testuser")
+            .withPassword("testPass");
+    
+    static class DataSourceInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+        @Override
+        public void initialize(@NonNull ConfigurableApplicationContext appContext) {
+            Map<String, Object> properties = new HashMap<>();
+            properties.put("spring.datasource.url", postgresContainer.getJdbcUrl());
+            properties.put("spring.datasource.username", postgresContainer.getUsername());
+            properties.put("spring.datasource.password", postgresContainer.getPassword());
+            properties.put("spring.datasource.driver-class-name", "org.postgresql.Driver");
+            properties.put("spring.jpa.hibernate.ddl-auto", "create");
+            properties.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
+            properties.put("spring.jpa.show-sql", "true");
+            
+            appContext.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("testcontainers-postgresql", properties));
+        }
+    }
+
+    @Autowired
+    private TimesheetService timesheetService;
+
+    @Autowired
+    private WorkLogRollupReconciler reconciler;
+
+    @Autowired
+    private WorkLogRepository workLogRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Wednesday 2024-05-15 and the following Monday
+    private static final ZonedDateTime WEDNESDAY = ZonedDateTime.of(2024, 5, 15, 9, 0, 0, 0, ZoneOffset.UTC);
+    private static final ZonedDateTime NEXT_MONDAY = WEDNESDAY.plusDays(5);
+
+    private User user;
+    private Ticket ticket1, ticket2;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(new User("logger", "logger@example.com", "Work Logger"));
+        Project project = projectRepository.save(new Project("Timesheets", "Work log project"));
+        ticket1 = ticketRepository.save(new Ticket("First", "First ticket", user, project));
+        ticket2 = ticketRepository.save(new Ticket("Second", "Second ticket", user, project));
+    }
+
+    private WorkLog log(Ticket ticket, ZonedDateTime start, double hours) {
+        WorkLog workLog = new WorkLog(ticket, user, start, start.plusMinutes((long) (hours * 60)), "Work", hours);
+        return workLogRepository.saveAndFlush(workLog);
+    }
+
+    @Test
+    public void testTimesheetReadsRollups() {
+        log(ticket1, WEDNESDAY, 2.0);
+        log(ticket1, WEDNESDAY.plusHours(3), 1.5);
+        log(ticket2, WEDNESDAY.plusDays(1), 4.0);
+        log(ticket2, NEXT_MONDAY, 3.0);
+
+        Map<LocalDate, Double> daily = timesheetService.dailyHours(
+            user.getId(), WEDNESDAY.toLocalDate(), WEDNESDAY.toLocalDate().plusDays(2));
+        assertThat(daily).containsExactly(
+            Map.entry(WEDNESDAY.toLocalDate(), 3.5),
+            Map.entry(WEDNESDAY.toLocalDate().plusDays(1), 4.0),
+            Map.entry(WEDNESDAY.toLocalDate().plusDays(2), 0.0));
+
+        Map<LocalDate, Double> weekly = timesheetService.weeklyHours(
+            user.getId(), WEDNESDAY.toLocalDate(), NEXT_MONDAY.toLocalDate());
+        assertThat(weekly).containsExactly(
+            Map.entry(LocalDate.of(2024, 5, 13), 7.5),
+            Map.entry(NEXT_MONDAY.toLocalDate(), 3.0));
+
+        assertThat(timesheetService.ticketHours(ticket1.getId()))
+            .isEqualTo(workLogRepository.getTotalHoursForTicket(ticket1));
+        assertThat(timesheetService.ticketHours(List.of(ticket1.getId(), ticket2.getId())))
+            .containsEntry(ticket2.getId(), 7.0);
+    }
+
+    @Test
+    public void testUpdatesAndDeletesMoveHours() {
+        WorkLog workLog = log(ticket1, WEDNESDAY, 2.0);
+        log(ticket1, WEDNESDAY, 1.0);
+
+        workLog.setStartTime(NEXT_MONDAY);
+        workLog.setHoursSpent(5.0);
+        workLog.setTicket(ticket2);
+        workLogRepository.saveAndFlush(workLog);
+
+        assertThat(timesheetService.dailyHours(user.getId(), WEDNESDAY.toLocalDate(), WEDNESDAY.toLocalDate()))
+            .containsEntry(WEDNESDAY.toLocalDate(), 1.0);
+        assertThat(timesheetService.dailyHours(user.getId(), NEXT_MONDAY.toLocalDate(), NEXT_MONDAY.toLocalDate()))
+            .containsEntry(NEXT_MONDAY.toLocalDate(), 5.0);
+        assertThat(timesheetService.ticketHours(ticket1.getId())).isEqualTo(1.0);
+        assertThat(timesheetService.ticketHours(ticket2.getId())).isEqualTo(5.0);
+
+        workLogRepository.delete(workLog);
+        workLogRepository.flush();
+        assertThat(timesheetService.ticketHours(ticket2.getId())).isZero();
+        assertThat(timesheetService.weeklyHours(user.getId(), NEXT_MONDAY.toLocalDate(), NEXT_MONDAY.toLocalDate()))
+            .containsEntry(NEXT_MONDAY.toLocalDate(), 0.0);
+    }
+
+    @Test
+    public void testDatabaseCascadeFromTicketIsSubtracted() {
+        log(ticket1, WEDNESDAY, 2.0);
+        log(ticket2, WEDNESDAY, 3.0);
+
+        // The work logs aren't in ticket1's collection, so only ON DELETE CASCADE removes them
+        ticketRepository.delete(ticket1);
+        ticketRepository.flush();
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM work_logs WHERE ticket_id = ?", Long.class, ticket1.getId())).isZero();
+        assertThat(timesheetService.dailyHours(user.getId(), WEDNESDAY.toLocalDate(), WEDNESDAY.toLocalDate()))
+            .containsEntry(WEDNESDAY.toLocalDate(), 3.0);
+        assertThat(timesheetService.ticketHours(ticket1.getId())).isZero();
+        assertThat(reconciler.reconcile()).isZero();
+    }
+
+    @Test
+    public void testReconcileRepairsDrift() {
+        log(ticket1, WEDNESDAY, 2.0);
+        log(ticket2, NEXT_MONDAY, 3.0);
+        entityManager.clear();
+        assertThat(reconciler.reconcile()).isZero();
+
+        // Bulk SQL bypasses the listeners
+        jdbcTemplate.update("UPDATE work_logs SET hours_spent = hours_spent * 2");
+        jdbcTemplate.update("DELETE FROM ticket_work_totals WHERE ticket_id = ?", ticket2.getId());
+
+        assertThat(reconciler.reconcile()).isPositive();
+        assertThat(timesheetService.ticketHours(ticket1.getId())).isCloseTo(4.0, within(1e-9));
+        assertThat(timesheetService.ticketHours(ticket2.getId())).isCloseTo(6.0, within(1e-9));
+        assertThat(timesheetService.weeklyHours(user.getId(), NEXT_MONDAY.toLocalDate(), NEXT_MONDAY.toLocalDate()))
+            .containsEntry(NEXT_MONDAY.toLocalDate(), 6.0);
+        assertThat(reconciler.reconcile()).isZero();
+    }
+}
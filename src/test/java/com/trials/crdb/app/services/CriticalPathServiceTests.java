@@ -0,0 +1,113 @@
+package com.trials.crdb.app.services;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class CriticalPathServiceTests {
+
+    @Test
+    public void testLongestChainAndSlack() {
+        CriticalPathService.Scope scope = new CriticalPathService.Scope();
+        scope.add(1L, "Schema", 0, 4);
+        scope.add(2L, "API", 1L, 6);
+        scope.add(3L, "Docs", 1L, 1);
+        // Unestimated and over-logged tickets take no time
+        scope.add(4L, "Review", 2L, 0);
+        scope.add(5L, "Client", 4L, -3);
+        // Depends on a ticket outside the scope, so it can start right away
+        scope.add(6L, "Ops", 99L, 5);
+
+        CriticalPath result = CriticalPathService.compute(scope);
+
+        assertThat(result.totalHours()).isEqualTo(10.0);
+        // Zero-hour dependents finishing at the same time don't extend the path
+        assertThat(result.path()).extracting(CriticalPathStep::ticketId).containsExactly(1L, 2L);
+        assertThat(result.path()).extracting(CriticalPathStep::earliestFinish).containsExactly(4.0, 10.0);
+        assertThat(result.slack()).containsEntry(1L, 0.0).containsEntry(2L, 0.0)
+            .containsEntry(3L, 5.0).containsEntry(6L, 5.0).containsEntry(5L, 0.0);
+        assertThat(result.skippedTicketIds()).isEmpty();
+    }
+
+    @Test
+    public void testSkipsCyclesAndTheirDependents() {
+        CriticalPathService.Scope scope = new CriticalPathService.Scope();
+        scope.add(1L, "A", 2L, 3);
+        scope.add(2L, "B", 1L, 3);
+        scope.add(3L, "Behind the cycle", 2L, 8);
+        scope.add(4L, "Root", 0, 2);
+        scope.add(5L, "Leaf", 4L, 1);
+
+        CriticalPath result = CriticalPathService.compute(scope);
+
+        assertThat(result.skippedTicketIds()).containsExactly(1L, 2L, 3L);
+        assertThat(result.totalHours()).isEqualTo(3.0);
+        assertThat(result.path()).extracting(CriticalPathStep::ticketId).containsExactly(4L, 5L);
+        assertThat(result.slack()).containsOnlyKeys(4L, 5L);
+    }
+
+    @Test
+    public void testEmptyScope() {
+        CriticalPath result = CriticalPathService.compute(new CriticalPathService.Scope());
+        assertThat(result.totalHours()).isZero();
+        assertThat(result.path()).isEmpty();
+    }
+
+    @Test
+    public void testLargeForestMatchesReference() {
+        int n = 50_000;
+        Random random = new Random(11);
+        long[] parents = new long[n + 1];
+        double[] hours = new double[n + 1];
+        CriticalPathService.Scope scope = new CriticalPathService.Scope();
+        // Shuffled ids so parents don't always come first; parent ids stay below their child's
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i + 1;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        for (int id = 1; id <= n; id++) {
+            parents[id] = id == 1 || random.nextInt(10) == 0 ? 0 : Math.max(1, id - 1 - random.nextInt(50));
+            hours[id] = random.nextInt(16);
+        }
+        for (int id : order) {
+            scope.add(id, "T" + id, parents[id], hours[id]);
+        }
+
+        // Reference: ids ascend along every chain, so one forward pass gives each finish
+        double[] finish = new double[n + 1];
+        double expected = 0;
+        for (int id = 1; id <= n; id++) {
+            finish[id] = (parents[id] == 0 ? 0 : finish[(int) parents[id]]) + hours[id];
+            expected = Math.max(expected, finish[id]);
+        }
+
+        CriticalPathService.compute(scope);
+        long start = System.nanoTime();
+        CriticalPath result = CriticalPathService.compute(scope);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println("Critical path of " + n + " tickets in " + millis + " ms");
+
+        assertThat(result.totalHours()).isCloseTo(expected, within(1e-9));
+        assertThat(result.skippedTicketIds()).isEmpty();
+        assertThat(result.slack()).hasSize(n);
+        // The path is a real chain ending at the total
+        CriticalPathStep previous = null;
+        for (CriticalPathStep step : result.path()) {
+            assertThat(parents[step.ticketId().intValue()]).isEqualTo(previous == null ? 0 : previous.ticketId());
+            assertThat(result.slack().get(step.ticketId())).isCloseTo(0.0, within(1e-9));
+            previous = step;
+        }
+        assertThat(previous.earliestFinish()).isCloseTo(expected, within(1e-9));
+        // Generous bound for slow CI machines - typically tens of milliseconds
+        assertThat(millis).isLessThan(1_000);
+    }
+}
@@ -0,0 +1,43 @@
+package com.trials.crdb.app.services;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.trials.crdb.app.utils.DateTimeProvider;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkLogRollupReconcilerTests {
+
+    @AfterEach
+    void tearDown() {
+        DateTimeProvider.useSystemClock();
+    }
+
+    private static LocalDate retainedSince(String mode, Period retention) {
+        return new WorkLogRollupReconciler(null, mode, retention).retainedSince();
+    }
+
+    @Test
+    public void testEverythingIsReconciledWithoutRetention() {
+        assertThat(retainedSince("none", Period.ofMonths(6))).isNull();
+        assertThat(retainedSince("postgres", Period.ZERO)).isNull();
+    }
+
+    @Test
+    public void testWindowStartsAtTheFirstWholeRetainedWeek() {
+        // Six months back is Tuesday 2026-04-21
+        DateTimeProvider.useFixedClockAt(LocalDate.of(2026, 10, 21).atTime(2, 45).atZone(ZoneOffset.UTC));
+
+        // April is still attached, its first Monday is the 6th
+        assertThat(retainedSince("postgres", Period.ofMonths(6))).isEqualTo(LocalDate.of(2026, 4, 6));
+        // TTL may already have removed rows of the cutoff day, so the window starts after it
+        assertThat(retainedSince("cockroachdb", Period.ofMonths(6))).isEqualTo(LocalDate.of(2026, 4, 27));
+        // June starts on a Monday
+        assertThat(retainedSince("postgres", Period.ofMonths(4))).isEqualTo(LocalDate.of(2026, 6, 1));
+    }
+}